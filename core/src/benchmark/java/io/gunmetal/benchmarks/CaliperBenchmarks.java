@@ -31,6 +31,8 @@ public class CaliperBenchmarks {
     SlimGunmetalBenchMarkModule.SlimComponent.Factory slimTemlplate;
     FieldGunmetalBenchMarkModule.Component.Factory fieldTemplate;
     Supplier<N> gunmetalProvider;
+    SlimGunmetalBenchMarkModule.SlimComponent proxyComponent;
+    SlimGunmetalBenchMarkModule.SlimComponent generatedComponent;
     Provider<N> guiceProvider;
 
     @BeforeExperiment
@@ -46,6 +48,15 @@ public class CaliperBenchmarks {
                 .create()
                 .supplier();
 
+        proxyComponent = Component.buildTemplate(
+                SlimGunmetalBenchMarkModule.SlimComponent.Factory.class)
+                .create();
+
+        generatedComponent = Component.buildTemplate(
+                new GunmetalComponent.Default(Option.GENERATE_COMPONENT_CLASSES),
+                SlimGunmetalBenchMarkModule.SlimComponent.Factory.class)
+                .create();
+
         guiceProvider = Guice
                 .createInjector(new GuiceBenchMarkModule())
                 .getProvider(Key.get(N.class));
@@ -190,6 +201,22 @@ public class CaliperBenchmarks {
         return dummy;
     }
 
+    @Benchmark long proxyComponentMethod(int reps) {
+        int dummy = 0;
+        for (long i = 0; i < reps; i++) {
+            dummy |= proxyComponent.supplier().hashCode();
+        }
+        return dummy;
+    }
+
+    @Benchmark long generatedComponentMethod(int reps) {
+        int dummy = 0;
+        for (long i = 0; i < reps; i++) {
+            dummy |= generatedComponent.supplier().hashCode();
+        }
+        return dummy;
+    }
+
     @Module(component = true)
     public interface ZeroComponent {
 
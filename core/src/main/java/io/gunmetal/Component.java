@@ -1,7 +1,11 @@
 package io.gunmetal;
 
 import io.gunmetal.internal.ComponentTemplate;
+import io.gunmetal.spi.ComponentReadiness;
 import io.gunmetal.spi.GunmetalComponent;
+import io.gunmetal.spi.ShutdownReport;
+
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author rees.byars
@@ -24,4 +28,29 @@ public interface Component {
         return ComponentTemplate.buildComponent(gunmetalComponent, componentClass);
     }
 
+    public static ComponentReadiness readiness(Object component) {
+        return ComponentTemplate.readiness(component);
+    }
+
+    /**
+     * Closes the singletons that the component has constructed, in the reverse order of their dependencies
+     * and those that do not depend on each other in parallel, see {@link PreDestroy}.  Child components
+     * are closed on their own.  A component may also declare a {@code close()} method, such as by
+     * extending {@link AutoCloseable}, which closes it with a deadline of thirty seconds.
+     *
+     * @return a report of the time taken to close each singleton, and of those that failed or were not
+     * closed by the deadline
+     */
+    public static ShutdownReport close(Object component, long timeout, TimeUnit unit) {
+        return ComponentTemplate.close(component, timeout, unit);
+    }
+
+    /**
+     * Closes the component with the same deadline as its {@code close()} method, see
+     * {@link #close(Object, long, TimeUnit)}.
+     */
+    public static ShutdownReport close(Object component) {
+        return ComponentTemplate.close(component);
+    }
+
 }
@@ -0,0 +1,16 @@
+package io.gunmetal;
+
+/**
+ * A reference that is given back once it is closed, such as to the pool of a pooled resource.  The
+ * instance is taken on the first call to {@link #get()}, and the lease may not be used once it is closed.
+ * Leases of resources that are not lent out, such as prototypes, simply drop the instance when closed.
+ *
+ * @author rees.byars
+ */
+public interface Lease<T> extends AutoCloseable {
+
+    T get();
+
+    @Override void close();
+
+}
@@ -0,0 +1,22 @@
+package io.gunmetal;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an annotation that gives the key of a {@link MultiBind} element, so that the elements can be
+ * injected as a {@code @MultiBind Map<K, T>} or {@code @MultiBind Map<K, Supplier<T>>}.  The key is the
+ * {@code value()} of the annotation, which the annotation must declare.
+ *
+ * @see ClassKey
+ * @see StringKey
+ * @author rees.byars
+ */
+@Target(ElementType.ANNOTATION_TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface MapKey {
+}
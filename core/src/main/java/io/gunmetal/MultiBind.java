@@ -23,6 +23,9 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
+ * When every element bound to a multi-bind list is a singleton, the list is shared by the requests to a
+ * component and is unmodifiable.
+ *
  * @author rees.byars
  */
 @Target({ElementType.TYPE, ElementType.METHOD, ElementType.PARAMETER, ElementType.FIELD})
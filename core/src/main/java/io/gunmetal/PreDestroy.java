@@ -0,0 +1,19 @@
+package io.gunmetal;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method without parameters that is called on a singleton when its component is closed, before
+ * the singleton is closed itself if it is {@link AutoCloseable}.
+ *
+ * @author rees.byars
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface PreDestroy {
+}
@@ -0,0 +1,106 @@
+package io.gunmetal;
+
+import io.gunmetal.spi.ScopedInstances;
+
+/**
+ * The scope of {@link RequestScoped} resources.  A request begins on the current thread and its
+ * instances are released when it is closed:
+ *
+ * <pre>
+ * try (RequestScope request = RequestScope.begin()) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * A request handled by several threads is {@link #attach() attached} to each of them for as long as
+ * they work on it.
+ *
+ * @author rees.byars
+ */
+public final class RequestScope implements AutoCloseable {
+
+    private static final ThreadLocal<RequestScope> CURRENT = new ThreadLocal<>();
+
+    private final ScopedInstances instances = new ScopedInstances();
+    private final Attachment attachment;
+
+    private RequestScope() {
+        attachment = attach();
+    }
+
+    /**
+     * Begins a request and makes it the request of the current thread until it is closed.
+     */
+    public static RequestScope begin() {
+        return new RequestScope();
+    }
+
+    /**
+     * @return the request of the current thread, or null if there is none
+     */
+    public static RequestScope current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return the instances of the request of the current thread
+     * @throws IllegalStateException if no request has been begun on or attached to the current thread
+     */
+    public static ScopedInstances instances() {
+        RequestScope scope = CURRENT.get();
+        if (scope == null) {
+            throw new IllegalStateException("No request is active on the thread [" + Thread.currentThread()
+                    + "], begin one with RequestScope.begin() or attach one with RequestScope.attach()");
+        }
+        return scope.instances;
+    }
+
+    /**
+     * Makes this the request of the current thread until the returned attachment is closed, which
+     * restores the request the thread had before.
+     */
+    public Attachment attach() {
+        Attachment attachment = new Attachment(CURRENT.get());
+        CURRENT.set(this);
+        return attachment;
+    }
+
+    public boolean isActive() {
+        return !instances.isReleased();
+    }
+
+    /**
+     * Ends the request, releasing its instances.  When closed by the thread that began the request,
+     * that thread is given back the request it had before.
+     */
+    @Override public void close() {
+        instances.release();
+        attachment.close();
+    }
+
+    /**
+     * @author rees.byars
+     */
+    public final class Attachment implements AutoCloseable {
+
+        private final Thread thread = Thread.currentThread();
+        private final RequestScope previous;
+
+        private Attachment(RequestScope previous) {
+            this.previous = previous;
+        }
+
+        @Override public void close() {
+            if (Thread.currentThread() != thread || CURRENT.get() != RequestScope.this) {
+                return;
+            }
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+
+    }
+
+}
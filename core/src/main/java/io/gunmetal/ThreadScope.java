@@ -0,0 +1,78 @@
+package io.gunmetal;
+
+import io.gunmetal.spi.ScopedInstances;
+
+/**
+ * The scope of {@link ThreadScoped} resources.  A thread enters the scope explicitly and the
+ * instances created on it are released when it exits the scope:
+ *
+ * <pre>
+ * try (ThreadScope scope = ThreadScope.enter()) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * Entering a scope the thread is already in joins that scope, which is only exited by the outermost exit.
+ *
+ * @author rees.byars
+ */
+public final class ThreadScope implements AutoCloseable {
+
+    private static final ThreadLocal<ThreadScope> CURRENT = new ThreadLocal<>();
+
+    private final ScopedInstances instances = new ScopedInstances();
+    private final Thread thread = Thread.currentThread();
+    private int depth = 1;
+
+    private ThreadScope() { }
+
+    public static ThreadScope enter() {
+        ThreadScope scope = CURRENT.get();
+        if (scope == null) {
+            scope = new ThreadScope();
+            CURRENT.set(scope);
+        } else {
+            scope.depth++;
+        }
+        return scope;
+    }
+
+    public static void exit() {
+        ThreadScope scope = CURRENT.get();
+        if (scope == null) {
+            throw new IllegalStateException("The thread [" + Thread.currentThread() + "] is not in a thread scope");
+        }
+        scope.close();
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * @return the instances of the scope the current thread is in
+     * @throws IllegalStateException if the current thread has not entered a thread scope
+     */
+    public static ScopedInstances instances() {
+        ThreadScope scope = CURRENT.get();
+        if (scope == null) {
+            throw new IllegalStateException("The thread [" + Thread.currentThread()
+                    + "] must enter a thread scope with ThreadScope.enter() before resolving thread scoped resources");
+        }
+        return scope.instances;
+    }
+
+    @Override public void close() {
+        if (Thread.currentThread() != thread) {
+            throw new IllegalStateException("A thread scope can only be exited by the thread [" + thread + "] that entered it");
+        }
+        if (depth == 0) {
+            throw new IllegalStateException("The thread scope has already been exited");
+        }
+        if (--depth == 0) {
+            CURRENT.remove();
+            instances.release();
+        }
+    }
+
+}
@@ -0,0 +1,145 @@
+package io.gunmetal.internal;
+
+import io.gunmetal.spi.DependencySupplier;
+import io.gunmetal.spi.ProvisionStrategy;
+import io.gunmetal.spi.ResolutionContext;
+import io.gunmetal.spi.ResourceMetadata;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The state shared by the contexts of one asynchronous provisioning, under which the arguments of
+ * constructors and providers are resolved in parallel.
+ *
+ * Each argument is offered to the executor and the resolving thread then works through the arguments
+ * in order, resolving itself any that the executor has not started yet.  A thread therefore only ever
+ * waits for arguments that are being resolved, which keeps nested resolutions from starving a bounded
+ * executor.  Those waits take part in the cycle detection of singletons.
+ *
+ * @author rees.byars
+ */
+final class AsyncResolution {
+
+    private final Executor executor;
+    private volatile boolean cancelled;
+
+    AsyncResolution(Executor executor) {
+        this.executor = executor;
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("The provisioning was cancelled");
+        }
+    }
+
+    Object[] resolveAll(ResourceMetadata<?> resourceMetadata,
+                        ProvisionStrategy[] provisionStrategies,
+                        DependencySupplier dependencySupplier,
+                        ResolutionContext resolutionContext) {
+
+        Object[] values = new Object[provisionStrategies.length];
+        if (values.length < 2) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = provisionStrategies[i].get(dependencySupplier, resolutionContext);
+            }
+            return values;
+        }
+
+        Argument[] arguments = new Argument[values.length];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = new Argument(provisionStrategies[i], dependencySupplier, resolutionContext);
+        }
+        // the first argument is left to this thread
+        for (int i = 1; i < arguments.length; i++) {
+            try {
+                executor.execute(arguments[i]);
+            } catch (RejectedExecutionException e) {
+                // resolved by this thread instead
+            }
+        }
+
+        Throwable failure = null;
+        for (int i = 0; i < arguments.length; i++) {
+            Argument argument = arguments[i];
+            if (failure == null) {
+                argument.run();
+            } else {
+                argument.skip();
+            }
+            // arguments being resolved still read the context, so they are waited for even after a failure
+            argument.await(resourceMetadata);
+            if (argument.failure == null) {
+                values[i] = argument.value;
+            } else if (failure == null) {
+                failure = argument.failure;
+            } else if (failure != argument.failure) {
+                failure.addSuppressed(argument.failure);
+            }
+        }
+
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new RuntimeException(failure);
+        }
+        return values;
+    }
+
+    private final class Argument implements Runnable {
+
+        private final ProvisionStrategy provisionStrategy;
+        private final DependencySupplier dependencySupplier;
+        private final ResolutionContext resolutionContext;
+        private final AtomicReference<Thread> resolvingThread = new AtomicReference<>();
+        private final CountDownLatch resolved = new CountDownLatch(1);
+        private Object value;
+        private Throwable failure;
+
+        Argument(ProvisionStrategy provisionStrategy,
+                 DependencySupplier dependencySupplier,
+                 ResolutionContext resolutionContext) {
+            this.provisionStrategy = provisionStrategy;
+            this.dependencySupplier = dependencySupplier;
+            this.resolutionContext = resolutionContext;
+        }
+
+        @Override public void run() {
+            if (!resolvingThread.compareAndSet(null, Thread.currentThread())) {
+                return;
+            }
+            try {
+                checkCancelled();
+                value = ComponentContext.resolveForked(provisionStrategy, dependencySupplier, resolutionContext);
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                resolved.countDown();
+            }
+        }
+
+        void skip() {
+            if (resolvingThread.compareAndSet(null, Thread.currentThread())) {
+                resolved.countDown();
+            }
+        }
+
+        void await(ResourceMetadata<?> resourceMetadata) {
+            if (resolved.getCount() > 0) {
+                SingletonCell.awaitArgument(resourceMetadata, resolvingThread.get(), resolved);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,30 @@
+package io.gunmetal.internal;
+
+import io.gunmetal.spi.DependencySupplier;
+import io.gunmetal.spi.ProvisionStrategy;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Provisions {@link java.util.concurrent.CompletableFuture} requests.
+ *
+ * @author rees.byars
+ */
+class AsyncStrategyFactory implements ReferenceStrategyFactory {
+
+    private final Executor executor;
+
+    AsyncStrategyFactory(Executor executor) {
+        this.executor = executor == null ? ForkJoinPool.commonPool() : executor;
+    }
+
+    @Override public ProvisionStrategy create(ProvisionStrategy provisionStrategy,
+                                              DependencySupplier dependencySupplier,
+                                              ComponentContext componentContext) {
+        // the component is taken from the request rather than captured here, as the strategy
+        // may be shared by every component of a template
+        return (p, c) -> ComponentContext.of(c).provisionAsync(provisionStrategy, p, executor);
+    }
+
+}
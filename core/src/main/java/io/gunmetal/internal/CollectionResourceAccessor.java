@@ -1,5 +1,7 @@
 package io.gunmetal.internal;
 
+import java.util.List;
+
 /**
  * @author rees.byars
  */
@@ -7,4 +9,10 @@ interface CollectionResourceAccessor extends ResourceAccessor {
 
     void add(ResourceAccessor resourceAccessor);
 
+    /**
+     * @return an unmodifiable view of the elements.  Elements are only ever added after the last, so the
+     * size of the view tells whether elements were added since it was last read.
+     */
+    List<ResourceAccessor> elements();
+
 }
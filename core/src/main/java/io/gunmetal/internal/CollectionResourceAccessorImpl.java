@@ -11,31 +11,43 @@ import io.gunmetal.spi.ProvisionStrategy;
 import io.gunmetal.spi.ResourceMetadata;
 import io.gunmetal.spi.Scopes;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.function.Supplier;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 
 /**
+ * Provisions the collection of the elements bound to a {@link io.gunmetal.MultiBind} dependency.
+ *
+ * The provision strategies of the elements are resolved once, on the first request, and again after an
+ * element is added.  If every element is a singleton, the elements can only ever be the same for a
+ * component, so the component shares one unmodifiable list of them across requests until an element is
+ * added.  Otherwise each request fills a new collection, sized for the elements, from the resolved
+ * strategies.
+ *
  * @author rees.byars
  */
 class CollectionResourceAccessorImpl implements CollectionResourceAccessor {
 
-    private final List<ResourceAccessor> elementAccessors = new ArrayList<>();
-    private final Supplier<Collection<Object>> collectionSupplier;
+    // elements may be added by just-in-time bindings while requests read them
+    private final List<ResourceAccessor> elementAccessors = new CopyOnWriteArrayList<>();
+    private final List<ResourceAccessor> elementsView = Collections.unmodifiableList(elementAccessors);
+    private final IntFunction<Collection<Object>> collectionFactory;
     private final Dependency collectionDependency;
     private final Dependency collectionElementDependency;
     private final CollectionBinding binding = new CollectionBinding();
     private final CollectionResource resource = new CollectionResource();
     private final ResourceMetadata<Class<?>> resourceMetadata;
+    private volatile Elements elements;
 
     CollectionResourceAccessorImpl(
-            Supplier<Collection<Object>> collectionSupplier,
+            IntFunction<Collection<Object>> collectionFactory,
             Dependency collectionDependency,
             Dependency collectionElementDependency) {
-        this.collectionSupplier = collectionSupplier;
+        this.collectionFactory = collectionFactory;
         this.collectionDependency = collectionDependency;
         this.collectionElementDependency = collectionElementDependency;
         resourceMetadata = new ResourceMetadata<>(
@@ -59,7 +71,7 @@ class CollectionResourceAccessorImpl implements CollectionResourceAccessor {
     @Override public ResourceAccessor replicateWith(ComponentContext context) {
         CollectionResourceAccessorImpl newAccessor =
                 new CollectionResourceAccessorImpl(
-                        collectionSupplier,
+                        collectionFactory,
                         collectionDependency,
                         collectionElementDependency);
         newAccessor.elementAccessors
@@ -70,8 +82,13 @@ class CollectionResourceAccessorImpl implements CollectionResourceAccessor {
         return newAccessor;
     }
 
-    @Override public void add(ResourceAccessor resourceAccessor) {
+    @Override public synchronized void add(ResourceAccessor resourceAccessor) {
         elementAccessors.add(resourceAccessor);
+        elements = null;
+    }
+
+    @Override public List<ResourceAccessor> elements() {
+        return elementsView;
     }
 
     @Override public Binding binding() {
@@ -117,15 +134,32 @@ class CollectionResourceAccessorImpl implements CollectionResourceAccessor {
             return resourceMetadata;
         }
 
-        @Override public ProvisionStrategy provisionStrategy() {
-            return (supplier, resolutionContext) -> {
-                Collection<Object> collection = collectionSupplier.get();
-                for (ResourceAccessor element : elementAccessors) {
-                    ProvisionStrategy provisionStrategy = element.force();
-                    collection.add(provisionStrategy.get(supplier, resolutionContext));
+        private final ProvisionStrategy provisionStrategy = (supplier, resolutionContext) -> {
+            Elements elements = resolvedElements();
+            if (!elements.singletons) {
+                Collection<Object> collection = collectionFactory.apply(elements.strategies.length);
+                for (ProvisionStrategy strategy : elements.strategies) {
+                    collection.add(strategy.get(supplier, resolutionContext));
                 }
                 return collection;
-            };
+            }
+            ComponentContext componentContext = ComponentContext.of(resolutionContext);
+            SharedList shared = (SharedList) componentContext.sharedProvision(CollectionResourceAccessorImpl.this);
+            if (shared != null && shared.elements == elements) {
+                return shared.list;
+            }
+            // the list shared before an element was added is replaced
+            Object[] provisions = new Object[elements.strategies.length];
+            for (int i = 0; i < provisions.length; i++) {
+                provisions[i] = elements.strategies[i].get(supplier, resolutionContext);
+            }
+            SharedList list = new SharedList(elements, Collections.unmodifiableList(Arrays.asList(provisions)));
+            return ((SharedList) componentContext.replaceSharedProvision(
+                    CollectionResourceAccessorImpl.this, shared, list)).list;
+        };
+
+        @Override public ProvisionStrategy provisionStrategy() {
+            return provisionStrategy;
         }
 
         @Override public List<Dependency> dependencies() {
@@ -136,4 +170,52 @@ class CollectionResourceAccessorImpl implements CollectionResourceAccessor {
         }
 
     }
+
+    private Elements resolvedElements() {
+        Elements elements = this.elements;
+        if (elements != null) {
+            return elements;
+        }
+        synchronized (this) {
+            elements = this.elements;
+            if (elements != null) {
+                return elements;
+            }
+            ProvisionStrategy[] strategies = new ProvisionStrategy[elementAccessors.size()];
+            boolean singletons = !elementAccessors.isEmpty();
+            for (int i = 0; i < strategies.length; i++) {
+                ResourceAccessor element = elementAccessors.get(i);
+                strategies[i] = element.force();
+                singletons &= element.binding().resource().metadata().scope() == Scopes.SINGLETON;
+            }
+            elements = new Elements(strategies, singletons);
+            this.elements = elements;
+            return elements;
+        }
+    }
+
+    private static final class SharedList {
+
+        final Elements elements;
+        final List<Object> list;
+
+        SharedList(Elements elements, List<Object> list) {
+            this.elements = elements;
+            this.list = list;
+        }
+
+    }
+
+    private static final class Elements {
+
+        final ProvisionStrategy[] strategies;
+        final boolean singletons;
+
+        Elements(ProvisionStrategy[] strategies, boolean singletons) {
+            this.strategies = strategies;
+            this.singletons = singletons;
+        }
+
+    }
+
 }
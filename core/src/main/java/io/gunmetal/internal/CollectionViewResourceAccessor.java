@@ -0,0 +1,22 @@
+package io.gunmetal.internal;
+
+import io.gunmetal.spi.Dependency;
+
+/**
+ * Provisions the elements of a multi-bind collection in another form than the list, such as a map
+ * keyed by the elements or a lazy view of them.
+ *
+ * @author rees.byars
+ */
+interface CollectionViewResourceAccessor extends ResourceAccessor {
+
+    Dependency collectionDependency();
+
+    CollectionResourceAccessor collectionAccessor();
+
+    /**
+     * @return an accessor for the same view over the given replica of the collection
+     */
+    CollectionViewResourceAccessor replicateWith(CollectionResourceAccessor collectionAccessor);
+
+}
@@ -0,0 +1,447 @@
+package io.gunmetal.internal;
+
+import io.gunmetal.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a class implementing a component interface in which each method reads its
+ * {@link ComponentMethod} from a final field and invokes it directly, so that every call site is
+ * monomorphic and free of the {@link java.lang.reflect.Proxy} dispatch.  The class extends
+ * {@link GeneratedComponent}, which keeps the {@link ComponentHandles} of the instance.
+ *
+ * Only straight-line method bodies are emitted, so no stack map frames are required.
+ *
+ * @author rees.byars
+ */
+final class ComponentClassGenerator {
+
+    private static final String COMPONENT_METHOD = internalName(ComponentMethod.class);
+    private static final String COMPONENT_METHOD_DESCRIPTOR = "L" + COMPONENT_METHOD + ";";
+    private static final String INVOKE_DESCRIPTOR = "([Ljava/lang/Object;)Ljava/lang/Object;";
+    private static final String GENERATED_COMPONENT = internalName(GeneratedComponent.class);
+    private static final String HANDLES_DESCRIPTOR = "L" + internalName(ComponentHandles.class) + ";";
+
+    private ComponentClassGenerator() { }
+
+    /**
+     * @return a constructor accepting a {@code ComponentMethod[]} ordered as the given methods and the
+     * {@link ComponentHandles} of the component, or null if the component interface cannot be
+     * implemented from outside of its own package
+     */
+    static Constructor<?> generate(Class<?> componentClass, Method[] methods) {
+        if (!isAccessible(componentClass) || !hasUniqueSignatures(methods)) {
+            return null;
+        }
+        for (Method method : methods) {
+            if (!isAccessible(method.getReturnType())) {
+                return null;
+            }
+            for (Class<?> paramType : method.getParameterTypes()) {
+                if (!isAccessible(paramType)) {
+                    return null;
+                }
+            }
+        }
+        String className = componentClass.getName() + "$$GunmetalComponent";
+        byte[] bytes = new ClassWriter(className.replace('.', '/'), componentClass, methods).toByteArray();
+        Class<?> generated = new GeneratedClassLoader(componentClass.getClassLoader()).define(className, bytes);
+        try {
+            return generated.getConstructor(ComponentMethod[].class, ComponentHandles.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("The generated component [" + className
+                    + "] is missing its constructor", e);
+        }
+    }
+
+    /**
+     * @return whether the class can be referred to from the generated class, which is defined in its own
+     * class loader, meaning that it and every class it is nested in are public
+     */
+    private static boolean isAccessible(Class<?> cls) {
+        while (cls.isArray()) {
+            cls = cls.getComponentType();
+        }
+        if (cls.isPrimitive()) {
+            return true;
+        }
+        for (Class<?> enclosing = cls; enclosing != null; enclosing = enclosing.getEnclosingClass()) {
+            if (!Modifier.isPublic(enclosing.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasUniqueSignatures(Method[] methods) {
+        Set<String> signatures = new HashSet<>();
+        for (Method method : methods) {
+            if (!signatures.add(method.getName() + parameterDescriptor(method))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String internalName(Class<?> cls) {
+        return cls.isArray() ? descriptor(cls) : cls.getName().replace('.', '/');
+    }
+
+    private static String parameterDescriptor(Method method) {
+        StringBuilder builder = new StringBuilder("(");
+        for (Class<?> paramType : method.getParameterTypes()) {
+            builder.append(descriptor(paramType));
+        }
+        return builder.append(")").toString();
+    }
+
+    private static String descriptor(Method method) {
+        return parameterDescriptor(method) + descriptor(method.getReturnType());
+    }
+
+    private static String descriptor(Class<?> cls) {
+        if (cls.isArray()) {
+            return cls.getName().replace('.', '/');
+        } else if (cls == void.class) {
+            return "V";
+        } else if (cls == boolean.class) {
+            return "Z";
+        } else if (cls == byte.class) {
+            return "B";
+        } else if (cls == char.class) {
+            return "C";
+        } else if (cls == short.class) {
+            return "S";
+        } else if (cls == int.class) {
+            return "I";
+        } else if (cls == long.class) {
+            return "J";
+        } else if (cls == float.class) {
+            return "F";
+        } else if (cls == double.class) {
+            return "D";
+        }
+        return "L" + internalName(cls) + ";";
+    }
+
+    private static Class<?> boxed(Class<?> primitive) {
+        if (primitive == boolean.class) {
+            return Boolean.class;
+        } else if (primitive == byte.class) {
+            return Byte.class;
+        } else if (primitive == char.class) {
+            return Character.class;
+        } else if (primitive == short.class) {
+            return Short.class;
+        } else if (primitive == int.class) {
+            return Integer.class;
+        } else if (primitive == long.class) {
+            return Long.class;
+        } else if (primitive == float.class) {
+            return Float.class;
+        }
+        return Double.class;
+    }
+
+    private static final class GeneratedClassLoader extends ClassLoader {
+
+        GeneratedClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        // the component interface's loader may not be able to see gunmetal itself
+        @Override protected Class<?> findClass(String name) throws ClassNotFoundException {
+            return ComponentMethod.class.getClassLoader().loadClass(name);
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+
+    }
+
+    private static final class ClassWriter {
+
+        private static final int ACC_PUBLIC = 0x0001;
+        private static final int ACC_PRIVATE = 0x0002;
+        private static final int ACC_FINAL = 0x0010;
+        private static final int ACC_SUPER = 0x0020;
+
+        private final ConstantPool constantPool = new ConstantPool();
+        private final String className;
+        private final Class<?> componentClass;
+        private final Method[] methods;
+
+        ClassWriter(String className, Class<?> componentClass, Method[] methods) {
+            this.className = className;
+            this.componentClass = componentClass;
+            this.methods = methods;
+        }
+
+        byte[] toByteArray() {
+            try {
+                // the body is written first so that the constant pool is complete when the header is
+                ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream();
+                DataOutputStream body = new DataOutputStream(bodyBytes);
+                body.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+                body.writeShort(constantPool.classRef(className));
+                body.writeShort(constantPool.classRef(GENERATED_COMPONENT));
+                body.writeShort(2);
+                body.writeShort(constantPool.classRef(internalName(componentClass)));
+                body.writeShort(constantPool.classRef(internalName(Component.class)));
+                body.writeShort(methods.length);
+                for (int i = 0; i < methods.length; i++) {
+                    body.writeShort(ACC_PRIVATE | ACC_FINAL);
+                    body.writeShort(constantPool.utf8(fieldName(i)));
+                    body.writeShort(constantPool.utf8(COMPONENT_METHOD_DESCRIPTOR));
+                    body.writeShort(0);
+                }
+                body.writeShort(methods.length + 1);
+                writeConstructor(body);
+                for (int i = 0; i < methods.length; i++) {
+                    writeMethod(body, i, methods[i]);
+                }
+                body.writeShort(0);
+
+                ByteArrayOutputStream classBytes = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(classBytes);
+                out.writeInt(0xCAFEBABE);
+                out.writeShort(0);
+                out.writeShort(52);
+                constantPool.writeTo(out);
+                bodyBytes.writeTo(out);
+                return classBytes.toByteArray();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private String fieldName(int index) {
+            return "m" + index;
+        }
+
+        private void writeConstructor(DataOutputStream out) throws IOException {
+            Code code = new Code();
+            code.op(0x2a); // aload_0
+            code.op(0x2c); // aload_2
+            code.op(0xb7).u2(constantPool.methodRef( // invokespecial
+                    GENERATED_COMPONENT, "<init>", "(" + HANDLES_DESCRIPTOR + ")V"));
+            for (int i = 0; i < methods.length; i++) {
+                code.op(0x2a); // aload_0
+                code.op(0x2b); // aload_1
+                code.pushInt(i);
+                code.op(0x32); // aaload
+                code.op(0xb5).u2(constantPool.fieldRef(className, fieldName(i), COMPONENT_METHOD_DESCRIPTOR)); // putfield
+            }
+            code.op(0xb1); // return
+            writeMethodInfo(out, "<init>", "([" + COMPONENT_METHOD_DESCRIPTOR + HANDLES_DESCRIPTOR + ")V", code, 3, 3);
+        }
+
+        private void writeMethod(DataOutputStream out, int index, Method method) throws IOException {
+            Code code = new Code();
+            code.op(0x2a); // aload_0
+            code.op(0xb4).u2(constantPool.fieldRef(className, fieldName(index), COMPONENT_METHOD_DESCRIPTOR)); // getfield
+            Class<?>[] paramTypes = method.getParameterTypes();
+            int slot = 1;
+            if (paramTypes.length == 0) {
+                code.op(0x01); // aconst_null
+            } else {
+                code.pushInt(paramTypes.length);
+                code.op(0xbd).u2(constantPool.classRef("java/lang/Object")); // anewarray
+                for (int i = 0; i < paramTypes.length; i++) {
+                    Class<?> paramType = paramTypes[i];
+                    code.op(0x59); // dup
+                    code.pushInt(i);
+                    code.op(loadOpcode(paramType)).u1(slot);
+                    if (paramType.isPrimitive()) {
+                        Class<?> boxed = boxed(paramType);
+                        code.op(0xb8).u2(constantPool.methodRef( // invokestatic
+                                internalName(boxed), "valueOf", "(" + descriptor(paramType) + ")" + descriptor(boxed)));
+                    }
+                    code.op(0x53); // aastore
+                    slot += paramType == long.class || paramType == double.class ? 2 : 1;
+                }
+            }
+            code.op(0xb6).u2(constantPool.methodRef(COMPONENT_METHOD, "invoke", INVOKE_DESCRIPTOR)); // invokevirtual
+            Class<?> returnType = method.getReturnType();
+            if (returnType == void.class) {
+                code.op(0x57); // pop
+                code.op(0xb1); // return
+            } else if (returnType.isPrimitive()) {
+                Class<?> boxed = boxed(returnType);
+                code.op(0xc0).u2(constantPool.classRef(internalName(boxed))); // checkcast
+                code.op(0xb6).u2(constantPool.methodRef( // invokevirtual
+                        internalName(boxed), returnType.getName() + "Value", "()" + descriptor(returnType)));
+                code.op(returnOpcode(returnType));
+            } else {
+                code.op(0xc0).u2(constantPool.classRef(internalName(returnType))); // checkcast
+                code.op(0xb0); // areturn
+            }
+            writeMethodInfo(out, method.getName(), descriptor(method), code, 7, slot);
+        }
+
+        private void writeMethodInfo(DataOutputStream out,
+                                     String name,
+                                     String descriptor,
+                                     Code code,
+                                     int maxStack,
+                                     int maxLocals) throws IOException {
+            out.writeShort(ACC_PUBLIC);
+            out.writeShort(constantPool.utf8(name));
+            out.writeShort(constantPool.utf8(descriptor));
+            out.writeShort(1);
+            out.writeShort(constantPool.utf8("Code"));
+            byte[] bytes = code.bytes.toByteArray();
+            out.writeInt(12 + bytes.length);
+            out.writeShort(maxStack);
+            out.writeShort(maxLocals);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            out.writeShort(0);
+            out.writeShort(0);
+        }
+
+        private static int loadOpcode(Class<?> type) {
+            if (type == long.class) {
+                return 0x16; // lload
+            } else if (type == float.class) {
+                return 0x17; // fload
+            } else if (type == double.class) {
+                return 0x18; // dload
+            } else if (type.isPrimitive()) {
+                return 0x15; // iload
+            }
+            return 0x19; // aload
+        }
+
+        private static int returnOpcode(Class<?> type) {
+            if (type == long.class) {
+                return 0xad; // lreturn
+            } else if (type == float.class) {
+                return 0xae; // freturn
+            } else if (type == double.class) {
+                return 0xaf; // dreturn
+            }
+            return 0xac; // ireturn
+        }
+
+    }
+
+    private static final class Code {
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        Code op(int opcode) {
+            bytes.write(opcode);
+            return this;
+        }
+
+        Code u1(int value) {
+            bytes.write(value);
+            return this;
+        }
+
+        Code u2(int value) {
+            bytes.write(value >>> 8);
+            bytes.write(value);
+            return this;
+        }
+
+        void pushInt(int value) {
+            if (value <= 5) {
+                op(0x03 + value); // iconst_<n>
+            } else if (value <= Byte.MAX_VALUE) {
+                op(0x10).u1(value); // bipush
+            } else {
+                op(0x11).u2(value); // sipush
+            }
+        }
+
+    }
+
+    private static final class ConstantPool {
+
+        private final Map<String, Integer> indices = new HashMap<>();
+        private final List<byte[]> entries = new ArrayList<>();
+
+        int utf8(String value) {
+            return index("U" + value, out -> {
+                out.writeByte(1);
+                out.writeUTF(value);
+            });
+        }
+
+        int classRef(String internalName) {
+            int name = utf8(internalName);
+            return index("C" + internalName, out -> {
+                out.writeByte(7);
+                out.writeShort(name);
+            });
+        }
+
+        int fieldRef(String owner, String name, String descriptor) {
+            return memberRef(9, owner, name, descriptor);
+        }
+
+        int methodRef(String owner, String name, String descriptor) {
+            return memberRef(10, owner, name, descriptor);
+        }
+
+        private int memberRef(int tag, String owner, String name, String descriptor) {
+            int ownerIndex = classRef(owner);
+            int nameUtf8 = utf8(name);
+            int descriptorUtf8 = utf8(descriptor);
+            int nameAndType = index("N" + name + " " + descriptor, out -> {
+                out.writeByte(12);
+                out.writeShort(nameUtf8);
+                out.writeShort(descriptorUtf8);
+            });
+            return index(tag + owner + "." + name + " " + descriptor, out -> {
+                out.writeByte(tag);
+                out.writeShort(ownerIndex);
+                out.writeShort(nameAndType);
+            });
+        }
+
+        private int index(String key, Entry entry) {
+            Integer index = indices.get(key);
+            if (index != null) {
+                return index;
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try {
+                entry.writeTo(new DataOutputStream(bytes));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            entries.add(bytes.toByteArray());
+            index = entries.size();
+            indices.put(key, index);
+            return index;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeShort(entries.size() + 1);
+            for (byte[] entry : entries) {
+                out.write(entry);
+            }
+        }
+
+        private interface Entry {
+            void writeTo(DataOutputStream out) throws IOException;
+        }
+
+    }
+
+}
@@ -1,16 +1,26 @@
 package io.gunmetal.internal;
 
 import io.gunmetal.spi.Dependency;
+import io.gunmetal.spi.DependencySupplier;
 import io.gunmetal.spi.Errors;
 import io.gunmetal.spi.Linkers;
+import io.gunmetal.spi.ProvisionStrategy;
 import io.gunmetal.spi.ProvisionStrategyDecorator;
 import io.gunmetal.spi.ResolutionContext;
 import io.gunmetal.spi.ResourceMetadata;
 
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * @author rees.byars
@@ -22,15 +32,58 @@ class ComponentContext {
     private final Errors errors;
     private final Set<Class<?>> loadedModules = new HashSet<>();
     private final Map<Dependency, Object> statefulSources;
+    private final ParentComponent parent;
+    private final List<Map.Entry<ResourceMetadata<?>, Object>> singletons = new ArrayList<>();
+    // the requester of provisions deferred outside of a resolution, such as by component methods
+    private final Requester requester = new Requester(this, null);
+    private volatile SingletonCell[] singletonCells;
+    private volatile Map<Object, Object> sharedProvisions;
 
     ComponentContext(ProvisionStrategyDecorator strategyDecorator,
                      Linkers linkers,
                      Errors errors,
                      Map<Dependency, Object> statefulSources) {
+        this(strategyDecorator, linkers, errors, statefulSources, null);
+    }
+
+    ComponentContext(ProvisionStrategyDecorator strategyDecorator,
+                     Linkers linkers,
+                     Errors errors,
+                     Map<Dependency, Object> statefulSources,
+                     ParentComponent parent) {
+        this(strategyDecorator, linkers, errors, statefulSources, parent, 0);
+    }
+
+    private ComponentContext(ProvisionStrategyDecorator strategyDecorator,
+                             Linkers linkers,
+                             Errors errors,
+                             Map<Dependency, Object> statefulSources,
+                             ParentComponent parent,
+                             int singletonCount) {
         this.strategyDecorator = strategyDecorator;
         this.linkers = linkers;
         this.errors = errors;
         this.statefulSources = statefulSources;
+        this.parent = parent;
+        singletonCells = newCells(new SingletonCell[0], singletonCount);
+    }
+
+    /**
+     * Creates the context of a component that shares the graph of this template context.  Only the
+     * stateful sources, the parent and the singleton cells belong to the new component.
+     */
+    ComponentContext newInstanceContext(Map<Dependency, Object> statefulSources,
+                                        ParentComponent parent,
+                                        int singletonCount) {
+        return new ComponentContext(strategyDecorator, linkers, errors, statefulSources, parent, singletonCount);
+    }
+
+    static ComponentContext of(ResolutionContext resolutionContext) {
+        if (resolutionContext instanceof ResolutionContextImpl) {
+            return ((ResolutionContextImpl) resolutionContext).componentContext;
+        }
+        throw new IllegalStateException("The resolution context [" + resolutionContext
+                + "] was not created by a component");
     }
 
     ProvisionStrategyDecorator strategyDecorator() {
@@ -49,18 +102,309 @@ class ComponentContext {
         return loadedModules;
     }
 
+    /**
+     * Records a singleton of the component once it is published, so that it is closed with the component.
+     */
+    void singletonConstructed(ResourceMetadata<?> resourceMetadata, Object singleton) {
+        synchronized (singletons) {
+            singletons.add(new AbstractMap.SimpleImmutableEntry<>(resourceMetadata, singleton));
+        }
+    }
+
+    /**
+     * @return the singletons constructed since the component was created or last closed, in the order they
+     * were published
+     */
+    List<Map.Entry<ResourceMetadata<?>, Object>> drainSingletons() {
+        synchronized (singletons) {
+            List<Map.Entry<ResourceMetadata<?>, Object>> drained = new ArrayList<>(singletons);
+            singletons.clear();
+            return drained;
+        }
+    }
+
+    /**
+     * @return the component that this one was created from through a {@code plus} method, if any
+     */
+    ParentComponent parent() {
+        return parent;
+    }
+
     ResolutionContext newResolutionContext() {
-        return new ResolutionContextImpl(statefulSources);
+        return new ResolutionContextImpl(this);
+    }
+
+    /**
+     * @return the requester of a provision that is deferred, as by a supplier.  The requester refers to the
+     * requesting context only while that context is resolving, so a deferred provision keeps its component
+     * but not the instances provisioned by the request it was made in.
+     */
+    static Requester requester(ResolutionContext requestingContext) {
+        ComponentContext componentContext = of(requestingContext);
+        ResolutionContextImpl context = (ResolutionContextImpl) requestingContext;
+        if (context.resolvingThread == null) {
+            return componentContext.requester;
+        }
+        Requester requester = context.requester;
+        if (requester == null) {
+            requester = new Requester(componentContext, context);
+            context.requester = requester;
+        }
+        return requester;
+    }
+
+    /**
+     * Provisions with the requesting context if the current thread is still resolving with it, as when a
+     * supplier is called while the instance it was injected into is being constructed, and otherwise with
+     * a new context of the requesting component.
+     *
+     * The thread resolving with a context is kept on the context itself rather than in a thread local, so
+     * nothing is set or removed per call and nothing is left on threads that come and go in large numbers.
+     * A context is only ever resolved with by the thread that marked it, and a thread only ever compares
+     * the mark with itself, so the mark needs no synchronization.
+     */
+    static Object resolve(ProvisionStrategy provisionStrategy,
+                          DependencySupplier dependencySupplier,
+                          Requester requester) {
+        Thread thread = Thread.currentThread();
+        ResolutionContextImpl requestingContext = requester.resolving;
+        if (requestingContext != null && requestingContext.resolvingThread == thread) {
+            return provisionStrategy.get(dependencySupplier, requestingContext);
+        }
+        ResolutionContextImpl context = new ResolutionContextImpl(requester.componentContext);
+        context.resolvingThread = thread;
+        try {
+            return provisionStrategy.get(dependencySupplier, context);
+        } finally {
+            context.finish();
+        }
+    }
+
+    /**
+     * Provisions on the executor with a new context of this component, in which the arguments of each
+     * constructor and provider are resolved in parallel.  Cancelling the returned future stops the
+     * provisioning before the next instance is constructed.
+     */
+    CompletableFuture<Object> provisionAsync(ProvisionStrategy provisionStrategy,
+                                             DependencySupplier dependencySupplier,
+                                             Executor executor) {
+        AsyncResolution asyncResolution = new AsyncResolution(executor);
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        future.whenComplete((provision, failure) -> {
+            if (future.isCancelled()) {
+                asyncResolution.cancel();
+            }
+        });
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) {
+                    return;
+                }
+                ResolutionContextImpl context = new ResolutionContextImpl(this, null, asyncResolution);
+                context.resolvingThread = Thread.currentThread();
+                try {
+                    asyncResolution.checkCancelled();
+                    future.complete(provisionStrategy.get(dependencySupplier, context));
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    context.finish();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * @return the asynchronous resolution the context belongs to, or null if it is resolving synchronously
+     */
+    static AsyncResolution asyncResolution(ResolutionContext resolutionContext) {
+        return resolutionContext instanceof ResolutionContextImpl
+                ? ((ResolutionContextImpl) resolutionContext).asyncResolution
+                : null;
+    }
+
+    /**
+     * Provisions on the current thread with a context forked from that of an asynchronous resolution.
+     * The forked context sees the params of its parents and the constructions they have in progress,
+     * so that cycles through arguments resolved on other threads are still detected.
+     */
+    static Object resolveForked(ProvisionStrategy provisionStrategy,
+                                DependencySupplier dependencySupplier,
+                                ResolutionContext parentContext) {
+        ResolutionContextImpl parent = (ResolutionContextImpl) parentContext;
+        ResolutionContextImpl context = new ResolutionContextImpl(parent.componentContext, parent, parent.asyncResolution);
+        context.resolvingThread = Thread.currentThread();
+        try {
+            return provisionStrategy.get(dependencySupplier, context);
+        } finally {
+            context.finish();
+        }
+    }
+
+    /**
+     * Provisions a binding of this component for a sub-component, with a context of this component forked
+     * from the requesting context of the sub-component.  The constructions the requesting context has in
+     * progress are seen, so that cycles through the bindings of both components are still detected, while
+     * the params and stateful sources are those of this component.
+     */
+    Object resolveForSubComponent(ProvisionStrategy provisionStrategy,
+                                  DependencySupplier dependencySupplier,
+                                  ResolutionContext requestingContext) {
+        ResolutionContextImpl parent = (ResolutionContextImpl) requestingContext;
+        ResolutionContextImpl context = new ResolutionContextImpl(this, parent, parent.asyncResolution);
+        context.resolvingThread = Thread.currentThread();
+        try {
+            return provisionStrategy.get(dependencySupplier, context);
+        } finally {
+            context.finish();
+        }
+    }
+
+    /**
+     * @return whether the context was forked, directly or not, from the given context
+     */
+    static boolean isForkedFrom(ResolutionContext resolutionContext, ResolutionContext ancestor) {
+        if (ancestor == null || !(resolutionContext instanceof ResolutionContextImpl)) {
+            return false;
+        }
+        for (ResolutionContextImpl parent = ((ResolutionContextImpl) resolutionContext).parent;
+             parent != null;
+             parent = parent.parent) {
+            if (parent == ancestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param slot a singleton slot, assigned by the {@link ScopeDecorator} of a shared graph
+     */
+    SingletonCell singletonCell(int slot) {
+        SingletonCell[] cells = singletonCells;
+        if (slot < cells.length) {
+            return cells[slot];
+        }
+        synchronized (this) {
+            // singletons bound just-in-time after this component was created
+            cells = singletonCells;
+            if (slot >= cells.length) {
+                cells = newCells(cells, slot + 1);
+                singletonCells = cells;
+            }
+            return cells[slot];
+        }
+    }
+
+    /**
+     * @return the provision that this component shares for the key, or null if there is none yet
+     */
+    Object sharedProvision(Object key) {
+        Map<Object, Object> provisions = sharedProvisions;
+        return provisions == null ? null : provisions.get(key);
+    }
+
+    /**
+     * Shares a provision for the key across the requests to this component.  The provision is made by
+     * the caller rather than in the map, as making it may share further provisions.
+     *
+     * @return the provision that is shared for the key, which is an earlier one if another thread shared it first
+     */
+    Object shareProvision(Object key, Object provision) {
+        Map<Object, Object> provisions = sharedProvisions;
+        if (provisions == null) {
+            synchronized (this) {
+                provisions = sharedProvisions;
+                if (provisions == null) {
+                    provisions = new ConcurrentHashMap<>();
+                    sharedProvisions = provisions;
+                }
+            }
+        }
+        Object shared = provisions.putIfAbsent(key, provision);
+        return shared == null ? provision : shared;
+    }
+
+    /**
+     * Replaces a provision shared for the key that is no longer valid, see {@link #shareProvision}.
+     *
+     * @return the provision that is shared for the key, which is another one if another thread replaced
+     * the stale provision first
+     */
+    Object replaceSharedProvision(Object key, Object stale, Object provision) {
+        if (stale == null) {
+            return shareProvision(key, provision);
+        }
+        Map<Object, Object> provisions = sharedProvisions;
+        if (provisions.replace(key, stale, provision)) {
+            return provision;
+        }
+        return shareProvision(key, provision);
+    }
+
+    private static SingletonCell[] newCells(SingletonCell[] cells, int count) {
+        SingletonCell[] newCells = Arrays.copyOf(cells, count);
+        for (int i = cells.length; i < count; i++) {
+            newCells[i] = new SingletonCell();
+        }
+        return newCells;
+    }
+
+    /**
+     * The component and, while it is resolving, the context that requested a deferred provision.
+     */
+    static final class Requester {
+
+        private final ComponentContext componentContext;
+        // cleared by the resolving thread once it is done; other threads never match the context's mark with themselves
+        private ResolutionContextImpl resolving;
+
+        private Requester(ComponentContext componentContext, ResolutionContextImpl resolving) {
+            this.componentContext = componentContext;
+            this.resolving = resolving;
+        }
+
+        ComponentContext componentContext() {
+            return componentContext;
+        }
+
     }
 
     private static class ResolutionContextImpl implements ResolutionContext {
 
         private final Map<ResourceMetadata<?>, ProvisionContext> contextMap = new HashMap<>();
+        private final ComponentContext componentContext;
+        // the parent is not modified while a context forked from it is resolving, as it waits for the fork
+        private final ResolutionContextImpl parent;
+        private final AsyncResolution asyncResolution;
         private Map<Dependency, Object> params;
+        private Thread resolvingThread;
+        private Requester requester;
+
+        ResolutionContextImpl(ComponentContext componentContext) {
+            this(componentContext, null, null);
+        }
+
+        ResolutionContextImpl(ComponentContext componentContext,
+                              ResolutionContextImpl parent,
+                              AsyncResolution asyncResolution) {
+            this.componentContext = componentContext;
+            this.parent = parent;
+            this.asyncResolution = asyncResolution;
+        }
 
-        ResolutionContextImpl(Map<Dependency, Object> statefulSources) {
-            if (!statefulSources.isEmpty()) {
-                params = new HashMap<>(statefulSources);
+        /**
+         * Unmarks the context once its thread is done resolving with it, and detaches it from the
+         * deferred provisions it requested.
+         */
+        void finish() {
+            resolvingThread = null;
+            if (requester != null) {
+                requester.resolving = null;
+                requester = null;
             }
         }
 
@@ -69,6 +413,12 @@ class ComponentContext {
             ProvisionContext strategyContext = contextMap.get(resourceMetadata);
 
             if (strategyContext == null) {
+                for (ResolutionContextImpl forkedFrom = parent; forkedFrom != null; forkedFrom = forkedFrom.parent) {
+                    ProvisionContext inProgress = forkedFrom.contextMap.get(resourceMetadata);
+                    if (inProgress != null && inProgress.state != States.NEW) {
+                        return inProgress;
+                    }
+                }
                 strategyContext = new ProvisionContext();
                 contextMap.put(resourceMetadata, strategyContext);
             }
@@ -84,14 +434,24 @@ class ComponentContext {
         }
 
         @Override public Object getParam(Dependency dependency) {
-            if (params == null) {
-                return null;
+            if (params != null && params.containsKey(dependency)) {
+                return params.get(dependency);
+            }
+            if (parent != null && parent.componentContext == componentContext) {
+                return parent.getParam(dependency);
             }
-            return params.get(dependency);
+            return componentContext.statefulSources.get(dependency);
+        }
+
+        @Override public ResolutionContext newResolutionContext() {
+            return componentContext.newResolutionContext();
         }
 
         @Override public boolean hasParam(Dependency dependency) {
-            return params != null && params.containsKey(dependency);
+            return params != null && params.containsKey(dependency)
+                    || (parent != null && parent.componentContext == componentContext
+                            ? parent.hasParam(dependency)
+                            : componentContext.statefulSources.containsKey(dependency));
         }
 
     }
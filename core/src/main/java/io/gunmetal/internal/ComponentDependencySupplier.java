@@ -1,25 +1,33 @@
 package io.gunmetal.internal;
 
+import io.gunmetal.Lease;
 import io.gunmetal.MultiBind;
 import io.gunmetal.Ref;
-import io.gunmetal.spi.Converter;
-import io.gunmetal.spi.ConverterSupplier;
 import io.gunmetal.spi.Dependency;
 import io.gunmetal.spi.DependencyRequest;
 import io.gunmetal.spi.DependencySupplier;
 import io.gunmetal.spi.ProvisionStrategy;
 import io.gunmetal.spi.SupplierAdapter;
-import io.gunmetal.spi.TypeKey;
 
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
- * Instances of the supplier should not be accessed concurrently.
+ * The supplier may be used by any number of threads at once.  Requests for dependencies that are
+ * bound in the graph are served without locking, by a lock free read of the graph.  Requests that
+ * need a binding created just-in-time are serialized on the supplier, and the graph is checked again
+ * under the lock so that only one accessor is created per dependency.
  *
  * @author rees.byars
  */
@@ -27,26 +35,51 @@ class ComponentDependencySupplier implements DependencySupplier {
 
     private final SupplierAdapter supplierAdapter;
     private final ResourceAccessorFactory resourceAccessorFactory;
-    private final ConverterSupplier converterSupplier;
+    private final ConverterRegistry converterRegistry;
     private final ComponentGraph componentGraph;
     private final ComponentContext context;
     private final boolean requireInterfaces;
+    private final Executor asyncExecutor;
 
     ComponentDependencySupplier(SupplierAdapter supplierAdapter,
                                 ResourceAccessorFactory resourceAccessorFactory,
-                                ConverterSupplier converterSupplier,
+                                ConverterRegistry converterRegistry,
                                 ComponentGraph componentGraph,
                                 ComponentContext context,
-                                boolean requireInterfaces) {
+                                boolean requireInterfaces,
+                                Executor asyncExecutor) {
         this.supplierAdapter = supplierAdapter;
         this.resourceAccessorFactory = resourceAccessorFactory;
-        this.converterSupplier = converterSupplier;
+        this.converterRegistry = converterRegistry;
         this.componentGraph = componentGraph;
         this.context = context;
         this.requireInterfaces = requireInterfaces;
+        this.asyncExecutor = asyncExecutor;
     }
 
-    @Override public synchronized ProvisionStrategy supply(DependencyRequest dependencyRequest) {
+    @Override public ProvisionStrategy supply(DependencyRequest dependencyRequest) {
+        // bound dependencies, nearly every request once the component is linked, are served without locking
+        ResourceAccessor resourceAccessor = componentGraph.get(dependencyRequest.dependency());
+        if (resourceAccessor != null) {
+            return process(resourceAccessor, dependencyRequest);
+        }
+        // just-in-time bindings are created under the lock.  the graph is checked again first so
+        // that threads missing the same dependency at once do not create an accessor each.
+        synchronized (this) {
+            if (!(context.linkers() instanceof ComponentLinker)) {
+                return supplyJit(dependencyRequest);
+            }
+            ComponentLinker componentLinker = (ComponentLinker) context.linkers();
+            componentLinker.deferWiring();
+            try {
+                return supplyJit(dependencyRequest);
+            } finally {
+                componentLinker.resumeWiring();
+            }
+        }
+    }
+
+    private ProvisionStrategy supplyJit(DependencyRequest dependencyRequest) {
 
         Dependency dependency = dependencyRequest.dependency();
 
@@ -63,15 +96,12 @@ class ComponentDependencySupplier implements DependencySupplier {
             return resourceAccessor.process(dependencyRequest, context.errors());
         }
 
-        // try conversion strategy
-        TypeKey typeKey = dependency.typeKey();
-        for (Converter converter : converterSupplier.convertersForType(typeKey)) {
-            for (Class<?> fromType : converter.supportedFromTypes()) {
-                resourceAccessor = createConversionResourceAccessor(converter, fromType, dependency);
-                if (resourceAccessor != null) {
-                    componentGraph.put(dependency, resourceAccessor, context.errors());
-                    return resourceAccessor.process(dependencyRequest, context.errors());
-                }
+        // try conversion strategy, composing the fewest conversions from a bound dependency
+        for (int conversions = 1; conversions <= ConverterRegistry.MAX_CONVERSIONS; conversions++) {
+            resourceAccessor = createConversionResourceAccessor(dependency, conversions, new HashSet<>());
+            if (resourceAccessor != null) {
+                componentGraph.put(dependency, resourceAccessor, context.errors());
+                return resourceAccessor.process(dependencyRequest, context.errors());
             }
         }
 
@@ -96,10 +126,13 @@ class ComponentDependencySupplier implements DependencySupplier {
 
     }
 
-    private synchronized ProvisionStrategy getCachedProvisionStrategy(final DependencyRequest dependencyRequest) {
-
-        final Dependency dependency = dependencyRequest.dependency();
+    private ProvisionStrategy process(ResourceAccessor resourceAccessor, DependencyRequest dependencyRequest) {
+        checkInterface(dependencyRequest);
+        return resourceAccessor.process(dependencyRequest, context.errors());
+    }
 
+    private void checkInterface(DependencyRequest dependencyRequest) {
+        Dependency dependency = dependencyRequest.dependency();
         if (requireInterfaces &&
                 !(dependency.typeKey().raw().isInterface()
                         || dependencyRequest.sourceProvision().overrides().allowNonInterface())) {
@@ -107,12 +140,19 @@ class ComponentDependencySupplier implements DependencySupplier {
                     dependencyRequest.sourceProvision(),
                     "Dependency is not an interface -> " + dependency);
         }
+    }
+
+    private ProvisionStrategy getCachedProvisionStrategy(final DependencyRequest dependencyRequest) {
+
+        final Dependency dependency = dependencyRequest.dependency();
 
         ResourceAccessor resourceAccessor = componentGraph.get(dependency);
         if (resourceAccessor != null) {
-            return resourceAccessor.process(dependencyRequest, context.errors());
+            return process(resourceAccessor, dependencyRequest);
         }
 
+        checkInterface(dependencyRequest);
+
         // TODO totally gross
         if (supplierAdapter.isSupplier(dependency)) {
             resourceAccessor = createReferenceResourceAccessor(
@@ -141,9 +181,37 @@ class ComponentDependencySupplier implements DependencySupplier {
             }
         }
 
+        if (dependency.typeKey().raw() == Lease.class) {
+            resourceAccessor = createReferenceResourceAccessor(dependencyRequest, LeaseStrategyFactory::new);
+            if (resourceAccessor != null) {
+                componentGraph.put(dependency, resourceAccessor, context.errors());
+                return resourceAccessor.process(dependencyRequest, context.errors());
+            }
+        }
+
+        if (dependency.typeKey().raw() == CompletableFuture.class) {
+            resourceAccessor = createReferenceResourceAccessor(
+                    dependencyRequest, () -> new AsyncStrategyFactory(asyncExecutor));
+            if (resourceAccessor != null) {
+                componentGraph.put(dependency, resourceAccessor, context.errors());
+                return resourceAccessor.process(dependencyRequest, context.errors());
+            }
+        }
+
+        resourceAccessor = createCollectionViewResourceAccessor(dependency);
+        if (resourceAccessor != null) {
+            componentGraph.put(dependency, resourceAccessor, context.errors());
+            return resourceAccessor.process(dependencyRequest, context.errors());
+        }
+
         // support empty multi-bind request
         // TODO should not know about MultiBind here -> should be included in above mentioned DependencyMetadata
         if (Arrays.stream(dependency.qualifier().qualifiers()).anyMatch(q -> q instanceof MultiBind)) {
+            if (dependency.typeKey().raw() == Map.class) {
+                return (supplier, resolutionContext) -> Collections.emptyMap();
+            } else if (dependency.typeKey().raw() == Stream.class) {
+                return (supplier, resolutionContext) -> Stream.empty();
+            }
             return (supplier, resolutionContext) -> new ArrayList<>();
         }
 
@@ -156,6 +224,12 @@ class ComponentDependencySupplier implements DependencySupplier {
         Type providedType = ((ParameterizedType) referenceDependency.typeKey().type()).getActualTypeArguments()[0];
         final Dependency provisionDependency = Dependency.from(referenceDependency.qualifier(), providedType);
         ResourceAccessor provisionResourceAccessor = componentGraph.get(provisionDependency);
+        if (provisionResourceAccessor == null) {
+            provisionResourceAccessor = createCollectionViewResourceAccessor(provisionDependency);
+            if (provisionResourceAccessor != null) {
+                componentGraph.put(provisionDependency, provisionResourceAccessor, context.errors());
+            }
+        }
         if (provisionResourceAccessor == null) {
             // TODO gross, whole class gross
             // try jit constructor ResourceAccessor strategy
@@ -181,13 +255,99 @@ class ComponentDependencySupplier implements DependencySupplier {
                 context);
     }
 
-    private ResourceAccessor createConversionResourceAccessor(
-            Converter converter, Class<?> fromType, Dependency to) {
-        Dependency from = Dependency.from(to.qualifier(), fromType);
-        ResourceAccessor fromResourceAccessor = componentGraph.get(from);
-        if (fromResourceAccessor != null) {
-            return resourceAccessorFactory.createForConversion(fromResourceAccessor, converter, from, to);
+    /**
+     * @return an accessor of multi-bind elements in the form of the dependency, or null if the
+     * dependency is not a form of a multi-bind of bound elements
+     */
+    private ResourceAccessor createCollectionViewResourceAccessor(Dependency dependency) {
+        Class<?> raw = dependency.typeKey().raw();
+        if ((raw != Map.class && raw != Iterable.class && raw != Stream.class && raw != List.class)
+                || !Arrays.stream(dependency.qualifier().qualifiers()).anyMatch(q -> q instanceof MultiBind)
+                || !(dependency.typeKey().type() instanceof ParameterizedType)) {
+            return null;
+        }
+        if (raw == Map.class) {
+            return createKeyedResourceAccessor(dependency);
+        }
+        Type elementType = ((ParameterizedType) dependency.typeKey().type()).getActualTypeArguments()[0];
+        LazyCollectionResourceAccessor.View view = raw == Stream.class
+                ? LazyCollectionResourceAccessor.View.STREAM
+                : LazyCollectionResourceAccessor.View.ITERABLE;
+        if (raw == List.class) {
+            // lists of the elements themselves are bound with the elements
+            if (!supplierAdapter.isSupplier(Dependency.from(dependency.qualifier(), elementType))) {
+                return null;
+            }
+            elementType = ((ParameterizedType) elementType).getActualTypeArguments()[0];
+            view = LazyCollectionResourceAccessor.View.SUPPLIERS;
+        }
+        Dependency collectionDependency = Dependency.from(dependency.qualifier(), elementType, List.class);
+        ResourceAccessor collectionAccessor = componentGraph.get(collectionDependency);
+        if (!(collectionAccessor instanceof CollectionResourceAccessor)) {
+            return null;
+        }
+        return resourceAccessorFactory.createForLazyCollection(
+                (CollectionResourceAccessor) collectionAccessor,
+                collectionDependency,
+                dependency,
+                view,
+                supplierAdapter);
+    }
+
+    /**
+     * @return an accessor of the multi-bind elements of the value type of the map, keyed by their
+     * {@link io.gunmetal.MapKey}, or null if the map is not a multi-bind of bound elements
+     */
+    private ResourceAccessor createKeyedResourceAccessor(Dependency mapDependency) {
+        Type[] typeArguments = ((ParameterizedType) mapDependency.typeKey().type()).getActualTypeArguments();
+        Type elementType = typeArguments[1];
+        SupplierAdapter valueAdapter = null;
+        if (supplierAdapter.isSupplier(Dependency.from(mapDependency.qualifier(), elementType))) {
+            elementType = ((ParameterizedType) elementType).getActualTypeArguments()[0];
+            valueAdapter = supplierAdapter;
+        }
+        Dependency collectionDependency = Dependency.from(mapDependency.qualifier(), elementType, List.class);
+        ResourceAccessor collectionAccessor = componentGraph.get(collectionDependency);
+        if (!(collectionAccessor instanceof CollectionResourceAccessor)) {
+            return null;
+        }
+        return resourceAccessorFactory.createForKeyedCollection(
+                (CollectionResourceAccessor) collectionAccessor,
+                collectionDependency,
+                mapDependency,
+                Dependency.from(mapDependency.qualifier(), typeArguments[0]).typeKey().raw(),
+                valueAdapter);
+    }
+
+    /**
+     * @return an accessor converting to the dependency from a bound one through at most the given number
+     * of conversions, or null if there is none.  Intermediate conversions are bound to the dependencies they
+     * convert to, as they would be if requested directly.
+     */
+    private ResourceAccessor createConversionResourceAccessor(Dependency to, int conversions, Set<Dependency> visited) {
+        visited.add(to);
+        List<ConverterRegistry.Conversion> conversionsTo = converterRegistry.conversionsTo(to.typeKey());
+        for (ConverterRegistry.Conversion conversion : conversionsTo) {
+            Dependency from = Dependency.from(to.qualifier(), conversion.fromType);
+            ResourceAccessor fromResourceAccessor = componentGraph.get(from);
+            if (fromResourceAccessor != null) {
+                return resourceAccessorFactory.createForConversion(fromResourceAccessor, conversion.converter, from, to);
+            }
+        }
+        if (conversions > 1) {
+            for (ConverterRegistry.Conversion conversion : conversionsTo) {
+                Dependency from = Dependency.from(to.qualifier(), conversion.fromType);
+                if (visited.contains(from)) {
+                    continue;
+                }
+                ResourceAccessor fromResourceAccessor = createConversionResourceAccessor(from, conversions - 1, visited);
+                if (fromResourceAccessor != null) {
+                    componentGraph.put(from, fromResourceAccessor, context.errors());
+                    return resourceAccessorFactory.createForConversion(fromResourceAccessor, conversion.converter, from, to);
+                }
+            }
         }
+        visited.remove(to);
         return null;
     }
 
@@ -3,12 +3,20 @@ package io.gunmetal.internal;
 import io.gunmetal.spi.Dependency;
 import io.gunmetal.spi.Errors;
 import io.gunmetal.spi.ResourceMetadata;
+import io.gunmetal.spi.Scopes;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * @author rees.byars
@@ -16,13 +24,28 @@ import java.util.concurrent.ConcurrentHashMap;
 class ComponentGraph implements Replicable<ComponentGraph> {
 
     private final ResourceAccessorFactory resourceAccessorFactory;
-    private final Map<Dependency, ResourceAccessor> resourceAccessors =
-            new ConcurrentHashMap<>(64, .75f, 2);
+    private final ComponentGraph parent;
+    private final BindingTable resourceAccessors;
     private final Set<Dependency> overriddenDependencies =
             Collections.newSetFromMap(new ConcurrentHashMap<>(0));
 
     ComponentGraph(ResourceAccessorFactory resourceAccessorFactory) {
+        this(resourceAccessorFactory, null);
+    }
+
+    /**
+     * @param parent if not null, the graph of the template of the parent component, whose bindings the
+     *               graph provides through the parent, unless the graph binds the same dependencies itself
+     */
+    ComponentGraph(ResourceAccessorFactory resourceAccessorFactory, ComponentGraph parent) {
+        this(resourceAccessorFactory, parent, new DependencyIndex());
+    }
+
+    private ComponentGraph(
+            ResourceAccessorFactory resourceAccessorFactory, ComponentGraph parent, DependencyIndex index) {
         this.resourceAccessorFactory = resourceAccessorFactory;
+        this.parent = parent;
+        resourceAccessors = new BindingTable(index);
     }
 
     void putAll(List<ResourceAccessor> resourceAccessors, Errors errors) {
@@ -73,7 +96,125 @@ class ComponentGraph implements Replicable<ComponentGraph> {
     }
 
     ResourceAccessor get(Dependency dependency) {
-        return resourceAccessors.get(dependency);
+        ResourceAccessor resourceAccessor = resourceAccessors.get(dependency);
+        if (resourceAccessor != null || parent == null) {
+            return resourceAccessor;
+        }
+        ResourceAccessor parentAccessor = parent.get(dependency);
+        if (parentAccessor == null) {
+            return null;
+        }
+        return resourceAccessors.putIfAbsent(
+                dependency, new ParentResourceAccessor(dependency, parent.idOf(dependency), parentAccessor));
+    }
+
+    /**
+     * Resolves the id of the dependency in the graphs of the template, giving it one if it has none yet.
+     * The id does not change for the life of the template and is the same in every replica of the graph,
+     * so it is resolved once when linking and the binding is then read with {@link #get(int)}.
+     */
+    int idOf(Dependency dependency) {
+        return resourceAccessors.index.intern(dependency);
+    }
+
+    /**
+     * @return the accessor bound to the dependency with the id, from {@link #idOf(Dependency)}, without
+     * looking in the parent
+     */
+    ResourceAccessor get(int id) {
+        return resourceAccessors.get(id);
+    }
+
+    /**
+     * @return the dependencies that the graph provides through the parent
+     */
+    List<Dependency> parentDependencies() {
+        List<Dependency> parentDependencies = new ArrayList<>();
+        for (Dependency dependency : resourceAccessors.dependencies()) {
+            if (resourceAccessors.get(dependency) instanceof ParentResourceAccessor) {
+                parentDependencies.add(dependency);
+            }
+        }
+        return parentDependencies;
+    }
+
+    /**
+     * Drops the bindings that can not be reached from the given dependencies, multi-bind collections,
+     * modules or eager singletons by following {@link Resource#dependencies()}.
+     *
+     * @return the number of dependencies that were dropped
+     */
+    int retainReachable(Collection<Dependency> roots) {
+        Deque<Dependency> pending = new ArrayDeque<>(roots);
+        for (Dependency dependency : resourceAccessors.dependencies()) {
+            ResourceAccessor resourceAccessor = resourceAccessors.get(dependency);
+            if (resourceAccessor instanceof CollectionResourceAccessor) {
+                pending.add(dependency);
+                continue;
+            }
+            ResourceMetadata<?> resourceMetadata = resourceAccessor.binding().resource().metadata();
+            if (resourceMetadata.isModule()
+                    || (resourceMetadata.eager() && resourceMetadata.scope() != Scopes.PROTOTYPE)) {
+                pending.add(dependency);
+            }
+        }
+        Set<Dependency> reachable = new HashSet<>();
+        while (!pending.isEmpty()) {
+            Dependency dependency = pending.remove();
+            ResourceAccessor resourceAccessor = resourceAccessors.get(dependency);
+            if (!reachable.add(dependency) || resourceAccessor == null) {
+                continue;
+            }
+            // references and conversions are linked against the graph entry of what they wrap
+            if (resourceAccessor instanceof ReferenceResourceAccessor) {
+                pending.add(((ReferenceResourceAccessor) resourceAccessor).provisionDependency());
+            } else if (resourceAccessor instanceof ConversionResourceAccessor) {
+                pending.add(((ConversionResourceAccessor) resourceAccessor).fromDependency());
+            } else if (resourceAccessor instanceof CollectionViewResourceAccessor) {
+                pending.add(((CollectionViewResourceAccessor) resourceAccessor).collectionDependency());
+            }
+            for (Resource resource : resources(resourceAccessor)) {
+                pending.addAll(resource.dependencies());
+            }
+        }
+        return resourceAccessors.retainAll(reachable);
+    }
+
+    /**
+     * @return the metadata of every resource that the graph provides, by identity
+     */
+    Set<ResourceMetadata<?>> resourceMetadata() {
+        return resources().keySet();
+    }
+
+    /**
+     * @return every resource that the graph provides, keyed by the identity of its metadata
+     */
+    Map<ResourceMetadata<?>, Resource> resources() {
+        Map<ResourceMetadata<?>, Resource> resources = new IdentityHashMap<>();
+        for (ResourceAccessor resourceAccessor : resourceAccessors.values()) {
+            for (Resource resource : resources(resourceAccessor)) {
+                resources.put(resource.metadata(), resource);
+            }
+        }
+        return resources;
+    }
+
+    /**
+     * @return the resource of the accessor, or the resources of its elements if it is a collection
+     */
+    static List<Resource> resources(ResourceAccessor resourceAccessor) {
+        if (resourceAccessor instanceof CollectionViewResourceAccessor) {
+            resourceAccessor = ((CollectionViewResourceAccessor) resourceAccessor).collectionAccessor();
+        }
+        if (resourceAccessor instanceof CollectionResourceAccessor) {
+            List<Resource> resources = new ArrayList<>();
+            for (ResourceAccessor element : ((CollectionResourceAccessor) resourceAccessor).elements()) {
+                resources.add(element.binding().resource());
+            }
+            return resources;
+        }
+        return Collections.singletonList(resourceAccessor.binding().resource());
     }
 
     private void putCollectionElement(Dependency dependency, ResourceAccessor resourceAccessor) {
@@ -89,12 +230,111 @@ class ComponentGraph implements Replicable<ComponentGraph> {
     }
 
     @Override public ComponentGraph replicateWith(ComponentContext context) {
-        ComponentGraph newRepo = new ComponentGraph(resourceAccessorFactory);
+        ComponentGraph newRepo = new ComponentGraph(resourceAccessorFactory, parent, resourceAccessors.index);
+        List<CollectionViewResourceAccessor> viewAccessors = new ArrayList<>();
         for (ResourceAccessor resourceAccessor : resourceAccessors.values()) {
-            newRepo.putAll(resourceAccessor.replicateWith(context), context.errors());
+            if (resourceAccessor instanceof CollectionViewResourceAccessor) {
+                viewAccessors.add((CollectionViewResourceAccessor) resourceAccessor);
+            } else {
+                newRepo.putAll(resourceAccessor.replicateWith(context), context.errors());
+            }
+        }
+        // views are over the replica of their collection, so that they share its elements
+        for (CollectionViewResourceAccessor viewAccessor : viewAccessors) {
+            ResourceAccessor collectionAccessor = newRepo.resourceAccessors.get(viewAccessor.collectionDependency());
+            newRepo.putAll(collectionAccessor instanceof CollectionResourceAccessor
+                    ? viewAccessor.replicateWith((CollectionResourceAccessor) collectionAccessor)
+                    : viewAccessor.replicateWith(context), context.errors());
         }
         newRepo.overriddenDependencies.addAll(overriddenDependencies);
         return newRepo;
     }
 
+    /**
+     * Bindings indexed by the id given to their dependency by the {@link DependencyIndex} of the template,
+     * so that the table only holds the dependencies of the template.  A lookup by dependency hashes it to
+     * its id, while a lookup by an id resolved earlier is a single array read.  Reads are lock free,
+     * writes are serialized.
+     */
+    private static final class BindingTable {
+
+        private final DependencyIndex index;
+        private volatile AtomicReferenceArray<ResourceAccessor> accessors;
+        private final List<Dependency> dependencies = new ArrayList<>();
+
+        BindingTable(DependencyIndex index) {
+            this.index = index;
+            accessors = new AtomicReferenceArray<>(Math.max(16, index.size()));
+        }
+
+        ResourceAccessor get(Dependency dependency) {
+            int id = index.idOf(dependency);
+            return id < 0 ? null : get(id);
+        }
+
+        ResourceAccessor get(int id) {
+            AtomicReferenceArray<ResourceAccessor> accessors = this.accessors;
+            return id < accessors.length() ? accessors.get(id) : null;
+        }
+
+        synchronized ResourceAccessor put(Dependency dependency, ResourceAccessor resourceAccessor) {
+            AtomicReferenceArray<ResourceAccessor> accessors = this.accessors;
+            int id = index.intern(dependency);
+            if (id >= accessors.length()) {
+                AtomicReferenceArray<ResourceAccessor> grown =
+                        new AtomicReferenceArray<>(Math.max(id + 1, Math.max(index.size(), accessors.length() * 2)));
+                for (int i = 0; i < accessors.length(); i++) {
+                    grown.lazySet(i, accessors.get(i));
+                }
+                this.accessors = grown;
+                accessors = grown;
+            }
+            ResourceAccessor previous = accessors.getAndSet(id, resourceAccessor);
+            if (previous == null) {
+                dependencies.add(dependency);
+            }
+            return previous;
+        }
+
+        /**
+         * @return the accessor now bound to the dependency
+         */
+        synchronized ResourceAccessor putIfAbsent(Dependency dependency, ResourceAccessor resourceAccessor) {
+            ResourceAccessor previous = get(dependency);
+            if (previous != null) {
+                return previous;
+            }
+            put(dependency, resourceAccessor);
+            return resourceAccessor;
+        }
+
+        /**
+         * @return the number of dependencies removed
+         */
+        synchronized int retainAll(Set<Dependency> retained) {
+            int size = dependencies.size();
+            dependencies.removeIf(dependency -> {
+                if (retained.contains(dependency)) {
+                    return false;
+                }
+                accessors.set(index.idOf(dependency), null);
+                return true;
+            });
+            return size - dependencies.size();
+        }
+
+        synchronized List<Dependency> dependencies() {
+            return new ArrayList<>(dependencies);
+        }
+
+        synchronized List<ResourceAccessor> values() {
+            List<ResourceAccessor> values = new ArrayList<>(dependencies.size());
+            for (Dependency dependency : dependencies) {
+                values.add(accessors.get(index.idOf(dependency)));
+            }
+            return values;
+        }
+
+    }
+
 }
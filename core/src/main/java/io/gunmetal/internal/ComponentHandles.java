@@ -0,0 +1,29 @@
+package io.gunmetal.internal;
+
+import io.gunmetal.spi.ComponentReadiness;
+
+/**
+ * The shutdown and readiness of a component instance, through which the static methods of
+ * {@link io.gunmetal.Component} reach it.  Proxy components keep them in their invocation handler
+ * and generated components in a field of {@link GeneratedComponent}.
+ *
+ * Public only so that generated component classes, which are defined in their own class loader,
+ * can reference it.
+ *
+ * @author rees.byars
+ */
+public final class ComponentHandles {
+
+    final ComponentShutdown shutdown;
+    final ComponentReadiness readiness;
+
+    /**
+     * @param readiness the readiness of a component initializing its eager singletons in the background,
+     *                  or null if they are initialized before the component is returned
+     */
+    ComponentHandles(ComponentShutdown shutdown, ComponentReadiness readiness) {
+        this.shutdown = shutdown;
+        this.readiness = readiness == null ? ComponentReadinessImpl.READY : readiness;
+    }
+
+}
@@ -3,10 +3,18 @@ package io.gunmetal.internal;
 import io.gunmetal.spi.DependencySupplier;
 import io.gunmetal.spi.Linker;
 import io.gunmetal.spi.Linkers;
+import io.gunmetal.spi.ProvisionStrategy;
 import io.gunmetal.spi.ResolutionContext;
+import io.gunmetal.spi.ResourceMetadata;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 
 /**
  * @author rees.byars
@@ -15,16 +23,69 @@ class ComponentLinker implements Linkers {
 
     private final Queue<Linker> postWiringLinkers = new LinkedList<>();
     private final Queue<Linker> eagerLinkers = new LinkedList<>();
+    private final List<Linker> sharedEagerLinkers = new CopyOnWriteArrayList<>();
+    private volatile boolean shared;
+    private final Queue<Linker> deferredLinkers = new LinkedList<>();
     private volatile AddWiringLinkerStrategy wiringLinkerStrategy = postWiringLinkers::add;
+    private boolean immediate;
+    private int deferrals;
+    private final boolean lazy;
+    private final EagerSingletonInitializer eagerSingletonInitializer;
 
-    ComponentLinker() { }
+    ComponentLinker() {
+        this(false, null);
+    }
+
+    /**
+     * @param lazy if true, {@link OnDemandLinker}s are dropped rather than run, so that only the parts of the
+     *             graph reached by the component's methods, eager singletons and injections are ever linked
+     * @param eagerSingletonInitializer if not null, initializes the {@link EagerSingletonLinker}s in dependency
+     *                                  order, otherwise eager linkers are run one at a time in the order added
+     */
+    ComponentLinker(boolean lazy, EagerSingletonInitializer eagerSingletonInitializer) {
+        this.lazy = lazy;
+        this.eagerSingletonInitializer = eagerSingletonInitializer;
+    }
 
     @Override public synchronized void addWiringLinker(Linker linker) {
+        if (lazy && linker instanceof OnDemandLinker) {
+            return;
+        }
+        if (deferrals > 0 && immediate) {
+            deferredLinkers.add(linker);
+            return;
+        }
         wiringLinkerStrategy.applyTo(linker);
     }
 
+    /**
+     * Holds back the wiring linkers that would otherwise be linked as soon as they are added, until
+     * the matching call to {@link #resumeWiring()}.  Used while just-in-time bindings are created, as
+     * linking them before they are in the graph would create them again when they depend on each other.
+     */
+    synchronized void deferWiring() {
+        deferrals++;
+    }
+
+    void resumeWiring() {
+        List<Linker> linkers;
+        synchronized (this) {
+            if (--deferrals > 0 || deferredLinkers.isEmpty()) {
+                return;
+            }
+            linkers = new ArrayList<>(deferredLinkers);
+            deferredLinkers.clear();
+        }
+        for (Linker linker : linkers) {
+            wiringLinkerStrategy.applyTo(linker);
+        }
+    }
+
     @Override public synchronized void addEagerLinker(Linker linker) {
-        eagerLinkers.add(linker);
+        // as with replicated graphs, singletons bound just-in-time are not eagerly initialized
+        if (!shared) {
+            eagerLinkers.add(linker);
+        }
     }
 
     synchronized void linkGraph(DependencySupplier dependencySupplier, ResolutionContext linkingContext) {
@@ -33,13 +94,127 @@ class ComponentLinker implements Linkers {
         }
     }
 
-    synchronized void linkAll(DependencySupplier dependencySupplier, ResolutionContext linkingContext) {
+    void linkAll(DependencySupplier dependencySupplier, ResolutionContext linkingContext) {
+        if (!linkWiring(dependencySupplier, linkingContext)) {
+            return;
+        }
+        // eager linkers run without holding the lock, since singletons initialized on other threads
+        // may bind just-in-time.  those binding eager singletons of their own are picked up by the next pass.
+        List<Linker> linkers;
+        while (!(linkers = drainEagerLinkers()).isEmpty()) {
+            link(linkers, dependencySupplier, linkingContext);
+        }
+    }
+
+    /**
+     * Links the wiring linkers, after which those added are linked immediately.
+     *
+     * @return false if the graph is shared, in which case the eager linkers are run for each component by
+     * {@link #linkEager}
+     */
+    synchronized boolean linkWiring(DependencySupplier dependencySupplier, ResolutionContext linkingContext) {
         while (!postWiringLinkers.isEmpty()) {
             postWiringLinkers.remove().link(dependencySupplier, linkingContext);
         }
+        if (shared) {
+            return false;
+        }
         wiringLinkerStrategy = linker -> linker.link(dependencySupplier, linkingContext);
-        while (!eagerLinkers.isEmpty()) {
-            eagerLinkers.remove().link(dependencySupplier, linkingContext);
+        immediate = true;
+        return true;
+    }
+
+    /**
+     * Schedules the eager linkers left after {@link #linkWiring} on the executor of the eager singleton
+     * initializer rather than running them, for a component that is returned before they have run.
+     *
+     * @return a future completed once all of them have run
+     */
+    CompletableFuture<Void> linkEagerInBackground(DependencySupplier dependencySupplier,
+                                                  ResolutionContext linkingContext,
+                                                  ComponentReadinessImpl readiness) {
+        if (shared) {
+            return schedule(sharedEagerLinkers, dependencySupplier, linkingContext, readiness);
+        }
+        List<Linker> linkers = drainEagerLinkers();
+        if (linkers.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return schedule(linkers, dependencySupplier, linkingContext, readiness)
+                .thenCompose(linked -> linkEagerInBackground(dependencySupplier, linkingContext, readiness));
+    }
+
+    /**
+     * Links the graph of a template that is shared by all of its components.  Wiring linkers added
+     * afterwards, by just-in-time bindings, are linked immediately.  The eager linkers of the resources
+     * that made it into the graph are kept so that they can be run for each new component by {@link #linkEager}.
+     */
+    synchronized void linkShared(DependencySupplier dependencySupplier,
+                                 ResolutionContext linkingContext,
+                                 Supplier<Set<ResourceMetadata<?>>> graphResourcesSupplier) {
+        linkGraph(dependencySupplier, linkingContext);
+        Set<ResourceMetadata<?>> graphResources = graphResourcesSupplier.get();
+        wiringLinkerStrategy = linker -> linker.link(dependencySupplier, linkingContext);
+        immediate = true;
+        for (Linker linker : eagerLinkers) {
+            if (!(linker instanceof EagerSingletonLinker)
+                    || graphResources.contains(((EagerSingletonLinker) linker).resourceMetadata)) {
+                sharedEagerLinkers.add(linker);
+            }
+        }
+        eagerLinkers.clear();
+        shared = true;
+    }
+
+    void linkEager(DependencySupplier dependencySupplier, ResolutionContext componentContext) {
+        link(sharedEagerLinkers, dependencySupplier, componentContext);
+    }
+
+    private synchronized List<Linker> drainEagerLinkers() {
+        List<Linker> linkers = new ArrayList<>(eagerLinkers);
+        eagerLinkers.clear();
+        return linkers;
+    }
+
+    private CompletableFuture<Void> schedule(List<Linker> linkers,
+                                             DependencySupplier dependencySupplier,
+                                             ResolutionContext linkingContext,
+                                             ComponentReadinessImpl readiness) {
+        List<EagerSingletonLinker> singletonLinkers = new ArrayList<>();
+        List<Linker> otherLinkers = new ArrayList<>();
+        split(linkers, singletonLinkers, otherLinkers);
+        return eagerSingletonInitializer
+                .schedule(singletonLinkers, dependencySupplier, linkingContext, readiness)
+                .thenRun(() -> {
+                    for (Linker linker : otherLinkers) {
+                        linker.link(dependencySupplier, linkingContext);
+                    }
+                });
+    }
+
+    private void link(List<Linker> linkers, DependencySupplier dependencySupplier, ResolutionContext linkingContext) {
+        if (eagerSingletonInitializer == null) {
+            for (Linker linker : linkers) {
+                linker.link(dependencySupplier, linkingContext);
+            }
+            return;
+        }
+        List<EagerSingletonLinker> singletonLinkers = new ArrayList<>();
+        List<Linker> otherLinkers = new ArrayList<>();
+        split(linkers, singletonLinkers, otherLinkers);
+        eagerSingletonInitializer.initialize(singletonLinkers, dependencySupplier, linkingContext);
+        for (Linker linker : otherLinkers) {
+            linker.link(dependencySupplier, linkingContext);
+        }
+    }
+
+    private static void split(List<Linker> linkers, List<EagerSingletonLinker> singletonLinkers, List<Linker> otherLinkers) {
+        for (Linker linker : linkers) {
+            if (linker instanceof EagerSingletonLinker) {
+                singletonLinkers.add((EagerSingletonLinker) linker);
+            } else {
+                otherLinkers.add(linker);
+            }
         }
     }
 
@@ -47,4 +222,23 @@ class ComponentLinker implements Linkers {
         void applyTo(Linker linker);
     }
 
+    /**
+     * Eagerly initializes the singleton of a resource.
+     */
+    static final class EagerSingletonLinker implements Linker {
+
+        final ResourceMetadata<?> resourceMetadata;
+        private final ProvisionStrategy strategy;
+
+        EagerSingletonLinker(ResourceMetadata<?> resourceMetadata, ProvisionStrategy strategy) {
+            this.resourceMetadata = resourceMetadata;
+            this.strategy = strategy;
+        }
+
+        @Override public void link(DependencySupplier dependencySupplier, ResolutionContext linkingContext) {
+            strategy.get(dependencySupplier, linkingContext);
+        }
+
+    }
+
 }
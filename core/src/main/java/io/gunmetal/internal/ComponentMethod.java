@@ -0,0 +1,18 @@
+package io.gunmetal.internal;
+
+/**
+ * A single method of a component interface, bound to a component instance.  Both the proxy
+ * and the generated component implementations dispatch to one of these per method.
+ *
+ * Public only so that generated component classes, which are defined in their own class loader,
+ * can reference it.
+ *
+ * @author rees.byars
+ */
+public abstract class ComponentMethod {
+
+    ComponentMethod() { }
+
+    public abstract Object invoke(Object[] args);
+
+}
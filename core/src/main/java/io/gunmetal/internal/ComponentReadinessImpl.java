@@ -0,0 +1,57 @@
+package io.gunmetal.internal;
+
+import io.gunmetal.spi.ComponentReadiness;
+import io.gunmetal.spi.ResourceMetadata;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * @author rees.byars
+ */
+class ComponentReadinessImpl implements ComponentReadiness {
+
+    static final ComponentReadiness READY = new ComponentReadinessImpl(CompletableFuture.completedFuture(null));
+
+    private final Map<ResourceMetadata<?>, State> states = new LinkedHashMap<>();
+    private final CompletableFuture<Void> future;
+
+    ComponentReadinessImpl() {
+        this(new CompletableFuture<>());
+    }
+
+    private ComponentReadinessImpl(CompletableFuture<Void> future) {
+        this.future = future;
+    }
+
+    synchronized void update(ResourceMetadata<?> resourceMetadata, State state) {
+        states.put(resourceMetadata, state);
+    }
+
+    void completed(Void ignored, Throwable failure) {
+        if (failure == null) {
+            future.complete(null);
+        } else {
+            future.completeExceptionally(failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause()
+                    : failure);
+        }
+    }
+
+    @Override public CompletableFuture<Void> future() {
+        // a dependent future, so that callers cannot complete that of the component
+        return future.thenApply(ready -> ready);
+    }
+
+    @Override public boolean isReady() {
+        return future.isDone() && !future.isCompletedExceptionally();
+    }
+
+    @Override public synchronized Map<ResourceMetadata<?>, State> progress() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(states));
+    }
+
+}
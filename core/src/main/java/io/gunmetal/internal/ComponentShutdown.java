@@ -0,0 +1,299 @@
+package io.gunmetal.internal;
+
+import io.gunmetal.PreDestroy;
+import io.gunmetal.spi.Dependency;
+import io.gunmetal.spi.Errors;
+import io.gunmetal.spi.ResourceMetadata;
+import io.gunmetal.spi.ShutdownReport;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closes the singletons that a component has constructed, running their {@link PreDestroy} methods and
+ * then closing those that are {@link AutoCloseable}.
+ *
+ * A singleton is closed only once every singleton that depends on it, directly or through prototypes
+ * as found from {@link Resource#dependencies()}, is closed, so the order is the reverse of the order
+ * they could have been constructed in.  Singletons that do not depend on each other are closed in
+ * parallel on the executor.  A dependency on a singleton that was published later, which can only come
+ * from a cycle, is not followed, so that cycles are closed in the reverse of the order they were
+ * published in.  Failures do not hold up the singletons that the failed one depends on.
+ *
+ * The singletons that are not closed by the deadline are reported as unfinished, and those of them that
+ * have not started by then are not closed at all.
+ *
+ * @author rees.byars
+ */
+class ComponentShutdown {
+
+    static final long DEFAULT_TIMEOUT_SECONDS = 30;
+
+    private final ComponentGraph componentGraph;
+    private final ComponentContext componentContext;
+    private final Executor executor;
+
+    ComponentShutdown(ComponentGraph componentGraph, ComponentContext componentContext, Executor executor) {
+        this.componentGraph = componentGraph;
+        this.componentContext = componentContext;
+        this.executor = executor;
+    }
+
+    ShutdownReport close(long timeout, TimeUnit unit) {
+
+        long start = System.nanoTime();
+        long deadline = start + unit.toNanos(timeout);
+
+        List<Node> nodes = nodes(componentContext.drainSingletons());
+        Map<ResourceMetadata<?>, Long> closeNanos = new ConcurrentHashMap<>();
+        Map<ResourceMetadata<?>, Throwable> failures = new ConcurrentHashMap<>();
+        CountDownLatch remaining = new CountDownLatch(nodes.size());
+        Shutdown shutdown = new Shutdown(closeNanos, failures, remaining, deadline);
+
+        for (Node node : nodes) {
+            if (node.dependents.get() == 0) {
+                shutdown.schedule(node);
+            }
+        }
+
+        boolean interrupted = false;
+        while (true) {
+            try {
+                remaining.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        // reported in the order they were due to be closed
+        Map<ResourceMetadata<?>, Long> orderedNanos = new LinkedHashMap<>();
+        List<ResourceMetadata<?>> unfinished = new ArrayList<>();
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            ResourceMetadata<?> resourceMetadata = nodes.get(i).resourceMetadata;
+            Long nanos = closeNanos.get(resourceMetadata);
+            if (nanos == null) {
+                unfinished.add(resourceMetadata);
+            } else {
+                orderedNanos.put(resourceMetadata, nanos);
+            }
+        }
+        return new ShutdownReport(orderedNanos, new LinkedHashMap<>(failures), unfinished, System.nanoTime() - start);
+    }
+
+    /**
+     * @return the singletons in the order they were published, each with the earlier ones it depends on
+     */
+    private List<Node> nodes(List<Map.Entry<ResourceMetadata<?>, Object>> singletons) {
+        Map<ResourceMetadata<?>, Node> nodesByMetadata = new IdentityHashMap<>();
+        List<Node> nodes = new ArrayList<>(singletons.size());
+        for (Map.Entry<ResourceMetadata<?>, Object> singleton : singletons) {
+            Node node = new Node(nodes.size(), singleton.getKey(), singleton.getValue());
+            nodesByMetadata.put(node.resourceMetadata, node);
+            nodes.add(node);
+        }
+        if (nodes.isEmpty()) {
+            return nodes;
+        }
+        Map<ResourceMetadata<?>, Resource> resources = componentGraph.resources();
+        for (Node node : nodes) {
+            Resource resource = resources.get(node.resourceMetadata);
+            if (resource == null) {
+                continue;
+            }
+            for (Node dependency : singletonDependencies(resource, nodesByMetadata)) {
+                if (dependency.index < node.index) {
+                    node.dependencies.add(dependency);
+                    dependency.dependents.incrementAndGet();
+                }
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * @return the singletons that the resource depends on, directly or through resources that are not
+     * singletons of the component
+     */
+    private Set<Node> singletonDependencies(Resource resource, Map<ResourceMetadata<?>, Node> nodesByMetadata) {
+        Set<Node> singletonDependencies = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<ResourceMetadata<?>> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        visited.add(resource.metadata());
+        Deque<Dependency> pending = new ArrayDeque<>(resource.dependencies());
+        while (!pending.isEmpty()) {
+            ResourceAccessor resourceAccessor = componentGraph.get(pending.remove());
+            if (resourceAccessor == null) {
+                continue;
+            }
+            for (Resource dependency : ComponentGraph.resources(resourceAccessor)) {
+                if (!visited.add(dependency.metadata())) {
+                    continue;
+                }
+                Node node = nodesByMetadata.get(dependency.metadata());
+                if (node != null) {
+                    singletonDependencies.add(node);
+                } else {
+                    pending.addAll(dependency.dependencies());
+                }
+            }
+        }
+        return singletonDependencies;
+    }
+
+    private final class Shutdown {
+
+        final Map<ResourceMetadata<?>, Long> closeNanos;
+        final Map<ResourceMetadata<?>, Throwable> failures;
+        final CountDownLatch remaining;
+        final long deadline;
+
+        Shutdown(Map<ResourceMetadata<?>, Long> closeNanos,
+                 Map<ResourceMetadata<?>, Throwable> failures,
+                 CountDownLatch remaining,
+                 long deadline) {
+            this.closeNanos = closeNanos;
+            this.failures = failures;
+            this.remaining = remaining;
+            this.deadline = deadline;
+        }
+
+        void schedule(Node node) {
+            try {
+                executor.execute(() -> close(node));
+            } catch (RejectedExecutionException e) {
+                close(node);
+            }
+        }
+
+        void close(Node node) {
+            try {
+                if (System.nanoTime() - deadline < 0) {
+                    long start = System.nanoTime();
+                    try {
+                        dispose(node.singleton);
+                    } catch (Throwable e) {
+                        failures.put(node.resourceMetadata, e);
+                    }
+                    closeNanos.put(node.resourceMetadata, System.nanoTime() - start);
+                }
+            } finally {
+                remaining.countDown();
+                for (Node dependency : node.dependencies) {
+                    if (dependency.dependents.decrementAndGet() == 0) {
+                        schedule(dependency);
+                    }
+                }
+            }
+        }
+
+    }
+
+    private static void dispose(Object singleton) throws Throwable {
+        for (Method method : preDestroyMethods(singleton.getClass())) {
+            method.setAccessible(true);
+            try {
+                method.invoke(singleton);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+        if (singleton instanceof AutoCloseable) {
+            ((AutoCloseable) singleton).close();
+        }
+    }
+
+    /**
+     * Adds an error for each {@link PreDestroy} method of the type, or of its superclasses, that takes
+     * parameters, so that it fails when the binding is created rather than when the component is closed.
+     */
+    static void checkPreDestroyMethods(Class<?> type, ResourceMetadata<?> resourceMetadata, Errors errors) {
+        for (Class<?> cls = type; cls != Object.class && cls != null; cls = cls.getSuperclass()) {
+            for (Method method : cls.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(PreDestroy.class) && method.getParameterCount() > 0) {
+                    errors.add(resourceMetadata, "The @PreDestroy method [" + method.getName() + "] of ["
+                            + cls.getName() + "] must not have parameters");
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the {@link PreDestroy} methods of the class and its superclasses, subclasses first, leaving
+     * out those that a subclass overrides, as invoking them would dispatch to the override again
+     */
+    private static List<Method> preDestroyMethods(Class<?> type) {
+        List<Method> methods = new ArrayList<>();
+        List<Method> overriding = new ArrayList<>();
+        for (Class<?> cls = type; cls != Object.class && cls != null; cls = cls.getSuperclass()) {
+            for (Method method : cls.getDeclaredMethods()) {
+                if (method.getParameterCount() > 0 || method.isBridge() || Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+                if (!isOverridden(method, overriding) && method.isAnnotationPresent(PreDestroy.class)) {
+                    methods.add(method);
+                }
+                if (!Modifier.isPrivate(method.getModifiers())) {
+                    overriding.add(method);
+                }
+            }
+        }
+        return methods;
+    }
+
+    private static boolean isOverridden(Method method, List<Method> overriding) {
+        int modifiers = method.getModifiers();
+        if (Modifier.isPrivate(modifiers)) {
+            return false;
+        }
+        boolean packagePrivate = !Modifier.isPublic(modifiers) && !Modifier.isProtected(modifiers);
+        for (Method subclassMethod : overriding) {
+            if (subclassMethod.getName().equals(method.getName())
+                    && (!packagePrivate || samePackage(subclassMethod.getDeclaringClass(), method.getDeclaringClass()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean samePackage(Class<?> a, Class<?> b) {
+        return a.getClassLoader() == b.getClassLoader()
+                && Objects.equals(a.getPackage(), b.getPackage());
+    }
+
+    private static final class Node {
+
+        final int index;
+        final ResourceMetadata<?> resourceMetadata;
+        final Object singleton;
+        final List<Node> dependencies = new ArrayList<>();
+        final AtomicInteger dependents = new AtomicInteger();
+
+        Node(int index, ResourceMetadata<?> resourceMetadata, Object singleton) {
+            this.index = index;
+            this.resourceMetadata = resourceMetadata;
+            this.singleton = singleton;
+        }
+
+    }
+
+}
@@ -3,6 +3,7 @@ package io.gunmetal.internal;
 import io.gunmetal.Component;
 import io.gunmetal.ComponentFactory;
 import io.gunmetal.Module;
+import io.gunmetal.spi.ComponentReadiness;
 import io.gunmetal.spi.Dependency;
 import io.gunmetal.spi.DependencyRequest;
 import io.gunmetal.spi.DependencySupplier;
@@ -14,8 +15,17 @@ import io.gunmetal.spi.ProvisionStrategyDecorator;
 import io.gunmetal.spi.Qualifier;
 import io.gunmetal.spi.ResolutionContext;
 import io.gunmetal.spi.ResourceMetadata;
-
+import io.gunmetal.spi.Scopes;
+import io.gunmetal.spi.ShutdownReport;
+import io.gunmetal.spi.impl.CachingScope;
+import io.gunmetal.spi.impl.PoolingScope;
+import io.gunmetal.spi.impl.ReferenceScope;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
@@ -23,10 +33,16 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * @author rees.byars
@@ -38,10 +54,18 @@ public final class ComponentTemplate {
     private final ComponentInjectors componentInjectors;
     private final ProvisionStrategyDecorator strategyDecorator;
     private final ResourceAccessorFactory resourceAccessorFactory;
+    private final ConverterRegistry converterRegistry;
     private final ComponentGraph componentGraph;
     private final Dependency[] providedDependencies;
-    private final Map<Method, ComponentMethodConfig> componentMethodConfigs;
+    private final Method[] componentMethods;
+    private final ComponentMethodConfig[] componentMethodConfigs;
+    private final ProxyDispatch proxyDispatch;
+    private final Constructor<?> generatedComponentConstructor;
     private final ComponentContext templateContext;
+    private final ResourceMetadata<?> componentMetadata;
+    private final ComponentTemplate[] childTemplates;
+    private final EagerSingletonInitializer eagerSingletonInitializer;
+    private final SharedGraph sharedGraph;
 
     private ComponentTemplate(
             Class<?> componentClass,
@@ -49,19 +73,34 @@ public final class ComponentTemplate {
             ComponentInjectors componentInjectors,
             ProvisionStrategyDecorator strategyDecorator,
             ResourceAccessorFactory resourceAccessorFactory,
+            ConverterRegistry converterRegistry,
             ComponentGraph componentGraph,
             Dependency[] providedDependencies,
-            Map<Method, ComponentMethodConfig> componentMethodConfigs,
-            ComponentContext templateContext) {
+            Method[] componentMethods,
+            ComponentMethodConfig[] componentMethodConfigs,
+            Constructor<?> generatedComponentConstructor,
+            ComponentContext templateContext,
+            ResourceMetadata<?> componentMetadata,
+            ComponentTemplate[] childTemplates,
+            EagerSingletonInitializer eagerSingletonInitializer,
+            SharedGraph sharedGraph) {
         this.componentClass = componentClass;
         this.gunmetalComponent = gunmetalComponent;
         this.componentInjectors = componentInjectors;
         this.strategyDecorator = strategyDecorator;
         this.resourceAccessorFactory = resourceAccessorFactory;
+        this.converterRegistry = converterRegistry;
         this.componentGraph = componentGraph;
         this.providedDependencies = providedDependencies;
+        this.componentMethods = componentMethods;
         this.componentMethodConfigs = componentMethodConfigs;
+        proxyDispatch = new ProxyDispatch(componentMethods);
+        this.generatedComponentConstructor = generatedComponentConstructor;
         this.templateContext = templateContext;
+        this.componentMetadata = componentMetadata;
+        this.childTemplates = childTemplates;
+        this.eagerSingletonInitializer = eagerSingletonInitializer;
+        this.sharedGraph = sharedGraph;
     }
 
     public static <T> T build(GunmetalComponent gunmetalComponent, Class<T> componentFactoryInterface) {
@@ -87,7 +126,7 @@ public final class ComponentTemplate {
         Class<?>[] paramTypes = componentMethod.getParameterTypes();
         Collections.addAll(modules, paramTypes);
 
-        ComponentTemplate template = build(gunmetalComponent, componentClass, modules, paramTypes);
+        ComponentTemplate template = build(gunmetalComponent, componentClass, modules, paramTypes, null);
 
         return componentFactoryInterface.cast(Proxy.newProxyInstance(
                 componentFactoryInterface.getClassLoader(),
@@ -100,14 +139,24 @@ public final class ComponentTemplate {
 
     public static <T> T buildComponent(GunmetalComponent gunmetalComponent, Class<T> componentClass) {
         return componentClass.cast(
-                build(gunmetalComponent, componentClass, new LinkedHashSet<>(), new Class[]{}).newInstance());
+                build(gunmetalComponent, componentClass, new LinkedHashSet<>(), new Class[]{}, null).newInstance());
     }
 
     private static ComponentTemplate build(
             GunmetalComponent gunmetalComponent,
             Class<?> componentClass,
             Set<Class<?>> modules,
-            Class<?>[] paramTypes) {
+            Class<?>[] paramTypes,
+            ComponentGraph parentGraph) {
+
+        // custom decorators may keep state in the strategies they create and rely on the linkers, in which
+        // case each component needs its own replica of the graph.  otherwise the graph is shared, singletons
+        // are kept in cells of each component, and the strategies of the built-in scopes are decorated for
+        // each component on its first request.
+        boolean share = gunmetalComponent.strategyDecorators().isEmpty()
+                && gunmetalComponent.scopeDecorators().entrySet().stream().allMatch(
+                        entry -> entry.getKey() == Scopes.UNDEFINED || isBuiltIn(entry.getValue()));
+        AtomicInteger singletonSlots = share ? new AtomicInteger() : null;
 
         List<ProvisionStrategyDecorator> strategyDecorators = new ArrayList<>(gunmetalComponent.strategyDecorators());
         strategyDecorators.add(new ScopeDecorator(scope -> {
@@ -116,7 +165,7 @@ public final class ComponentTemplate {
                 return decorator;
             }
             throw new UnsupportedOperationException(); // TODO
-        }));
+        }, singletonSlots));
         ProvisionStrategyDecorator strategyDecorator = (resourceMetadata, delegateStrategy, linkers) -> {
             for (ProvisionStrategyDecorator decorator : strategyDecorators) {
                 delegateStrategy = decorator.decorate(resourceMetadata, delegateStrategy, linkers);
@@ -130,7 +179,8 @@ public final class ComponentTemplate {
                 new ClassWalkerImpl(
                         gunmetalComponent.injectionResolver(),
                         gunmetalComponent.options().contains(Option.RESTRICT_FIELD_INJECTION),
-                        gunmetalComponent.options().contains(Option.RESTRICT_SETTER_INJECTION)));
+                        gunmetalComponent.options().contains(Option.RESTRICT_SETTER_INJECTION)),
+                gunmetalComponent.options().contains(Option.REFLECTIVE_INVOCATION));
 
         ResourceFactory resourceFactory =
                 new ResourceFactoryImpl(
@@ -152,12 +202,28 @@ public final class ComponentTemplate {
                 new ResourceAccessorFactoryImpl(bindingFactory, requestVisitorFactory);
 
         ComponentGraph componentGraph =
-                new ComponentGraph(resourceAccessorFactory);
+                new ComponentGraph(resourceAccessorFactory, parentGraph);
+
+        EagerSingletonInitializer eagerSingletonInitializer = null;
+        if (gunmetalComponent.options().contains(Option.BACKGROUND_EAGER_INITIALIZATION)) {
+            Executor executor = gunmetalComponent.eagerSingletonExecutor();
+            eagerSingletonInitializer = new EagerSingletonInitializer(
+                    executor == null ? ForkJoinPool.commonPool() : executor,
+                    gunmetalComponent.eagerSingletonReportConsumer(),
+                    componentGraph);
+        } else if (gunmetalComponent.eagerSingletonExecutor() != null
+                || gunmetalComponent.eagerSingletonReportConsumer() != null) {
+            eagerSingletonInitializer = new EagerSingletonInitializer(
+                    gunmetalComponent.eagerSingletonExecutor(),
+                    gunmetalComponent.eagerSingletonReportConsumer(),
+                    componentGraph);
+        }
 
-        ComponentLinker componentLinker = new ComponentLinker();
+        ComponentLinker componentLinker = new ComponentLinker(
+                gunmetalComponent.options().contains(Option.LAZY_LINKING), eagerSingletonInitializer);
         ComponentErrors errors = new ComponentErrors();
         ComponentContext componentContext = new ComponentContext(
-                ProvisionStrategyDecorator::none,
+                share ? strategyDecorator : ProvisionStrategyDecorator::none,
                 componentLinker,
                 errors,
                 Collections.emptyMap()
@@ -183,14 +249,16 @@ public final class ComponentTemplate {
             componentGraph.putAll(moduleResourceAccessors, errors);
         }
 
+        ConverterRegistry converterRegistry = new ConverterRegistry(gunmetalComponent.converterSupplier());
         DependencySupplier dependencySupplier =
                 new ComponentDependencySupplier(
                         gunmetalComponent.supplierAdapter(),
                         resourceAccessorFactory,
-                        gunmetalComponent.converterSupplier(),
+                        converterRegistry,
                         componentGraph,
                         componentContext,
-                        gunmetalComponent.options().contains(Option.REQUIRE_INTERFACES));
+                        gunmetalComponent.options().contains(Option.REQUIRE_INTERFACES),
+                        gunmetalComponent.asyncExecutor());
 
         // TODO move all this shit to a method or sumpin
         Map<Method, ComponentMethodConfig> componentMethodConfigs = new HashMap<>();
@@ -211,7 +279,8 @@ public final class ComponentTemplate {
 
             // TODO complete these checks
             if (method.getReturnType() == void.class ||
-                    method.getName().equals("plus")) {
+                    method.getName().equals("plus") ||
+                    isClose(method)) {
                 continue;
             }
 
@@ -240,9 +309,55 @@ public final class ComponentTemplate {
                     DependencyRequest.create(componentMetadata, dependency), dependencies));
         }
 
-        componentLinker.linkGraph(dependencySupplier, componentContext.newResolutionContext());
+        if (share) {
+            componentLinker.linkShared(
+                    dependencySupplier, componentContext.newResolutionContext(), componentGraph::resourceMetadata);
+        } else {
+            componentLinker.linkGraph(dependencySupplier, componentContext.newResolutionContext());
+        }
         errors.throwIfNotEmpty();
 
+        List<Method> abstractMethods = new ArrayList<>();
+        for (Method method : componentClass.getMethods()) {
+            if (Modifier.isAbstract(method.getModifiers())) {
+                abstractMethods.add(method);
+            }
+        }
+        Method[] componentMethods = abstractMethods.toArray(new Method[abstractMethods.size()]);
+
+        // sub-components are built once with the template, against its graph, so that creating
+        // them from a component only allocates their own bindings
+        ComponentTemplate[] childTemplates = new ComponentTemplate[componentMethods.length];
+        List<Dependency> parentDependencies = new ArrayList<>();
+        for (int i = 0; i < componentMethods.length; i++) {
+            Method method = componentMethods[i];
+            if (method.getName().equals("plus")) {
+                Class<?>[] childParamTypes = method.getParameterTypes();
+                childTemplates[i] = build(
+                        gunmetalComponent,
+                        method.getReturnType(),
+                        new LinkedHashSet<>(Arrays.asList(childParamTypes)),
+                        childParamTypes,
+                        componentGraph);
+                parentDependencies.addAll(childTemplates[i].componentGraph.parentDependencies());
+            }
+        }
+
+        // instances injected through the component's void methods are not known until they are
+        // injected, so with pruning they can only rely on bindings that remain reachable otherwise
+        if (gunmetalComponent.options().contains(Option.PRUNE_UNREACHABLE_BINDINGS)) {
+            List<Dependency> roots = new ArrayList<>();
+            for (ComponentMethodConfig config : componentMethodConfigs.values()) {
+                // puts the just-in-time bindings of the methods, suppliers for instance, into the graph
+                dependencySupplier.supply(config.dependencyRequest);
+                roots.add(config.dependencyRequest.dependency());
+                Collections.addAll(roots, config.dependencies);
+            }
+            errors.throwIfNotEmpty();
+            roots.addAll(parentDependencies);
+            componentGraph.retainReachable(roots);
+        }
+
         Dependency[] dependencies = new Dependency[paramTypes.length];
         for (int i = 0; i < paramTypes.length; i++) {
             Class<?> paramType = paramTypes[i];
@@ -255,22 +370,49 @@ public final class ComponentTemplate {
             dependencies[i] = paramDependency;
         }
 
+        ComponentMethodConfig[] methodConfigs = new ComponentMethodConfig[componentMethods.length];
+        for (int i = 0; i < componentMethods.length; i++) {
+            methodConfigs[i] = componentMethodConfigs.get(componentMethods[i]);
+        }
+
+        Constructor<?> generatedComponentConstructor = null;
+        if (gunmetalComponent.options().contains(Option.GENERATE_COMPONENT_CLASSES)) {
+            generatedComponentConstructor = ComponentClassGenerator.generate(componentClass, componentMethods);
+        }
+
+        ComponentInjectors componentInjectors = new ComponentInjectors(
+                injectorFactory,
+                gunmetalComponent.qualifierResolver(),
+                gunmetalComponent.resourceMetadataResolver());
+
         return new ComponentTemplate(
                 componentClass,
                 gunmetalComponent,
-                new ComponentInjectors(
-                        injectorFactory,
-                        gunmetalComponent.qualifierResolver(),
-                        gunmetalComponent.resourceMetadataResolver()),
+                componentInjectors,
                 strategyDecorator,
                 resourceAccessorFactory,
+                converterRegistry,
                 componentGraph,
                 dependencies,
-                componentMethodConfigs,
-                componentContext);
+                componentMethods,
+                methodConfigs,
+                generatedComponentConstructor,
+                componentContext,
+                componentMetadata,
+                childTemplates,
+                eagerSingletonInitializer,
+                share ? new SharedGraph(
+                        singletonSlots,
+                        dependencySupplier,
+                        componentLinker,
+                        new AtomicReferenceArray<>(componentMethods.length)) : null);
     }
 
     Object newInstance(Object... statefulModules) {
+        return newInstance(null, statefulModules);
+    }
+
+    private Object newInstance(ParentComponent parent, Object[] statefulModules) {
 
         Map<Dependency, Object> statefulModulesMap = new HashMap<>();
 
@@ -278,76 +420,294 @@ public final class ComponentTemplate {
             statefulModulesMap.put(providedDependencies[i], statefulModules[i]);
         }
 
-        ComponentLinker componentLinker = new ComponentLinker();
-        ComponentErrors errors = new ComponentErrors();
-        ComponentContext componentContext = new ComponentContext(
-                strategyDecorator,
-                componentLinker,
-                errors,
-                statefulModulesMap
-        );
-        componentContext.loadedModules().addAll(templateContext.loadedModules());
+        ComponentMethod[] methods;
+        ComponentShutdown shutdown;
+        boolean background = gunmetalComponent.options().contains(Option.BACKGROUND_EAGER_INITIALIZATION);
+        ComponentReadinessImpl readiness = null;
+
+        if (sharedGraph != null) {
+
+            ComponentContext componentContext = templateContext.newInstanceContext(
+                    statefulModulesMap, parent, sharedGraph.singletonSlots.get());
+            if (background) {
+                readiness = new ComponentReadinessImpl();
+                sharedGraph.componentLinker
+                        .linkEagerInBackground(
+                                sharedGraph.dependencySupplier, componentContext.newResolutionContext(), readiness)
+                        .whenComplete(readiness::completed);
+            } else {
+                sharedGraph.componentLinker.linkEager(
+                        sharedGraph.dependencySupplier, componentContext.newResolutionContext());
+            }
+            shutdown = new ComponentShutdown(componentGraph, componentContext, shutdownExecutor());
+            methods = componentMethods(
+                    componentInjectors,
+                    componentGraph,
+                    sharedGraph.dependencySupplier,
+                    sharedGraph.componentLinker,
+                    componentContext,
+                    sharedGraph.methodStrategies,
+                    shutdown);
+
+        } else {
+
+            ComponentLinker componentLinker = new ComponentLinker(
+                    gunmetalComponent.options().contains(Option.LAZY_LINKING), eagerSingletonInitializer);
+            ComponentErrors errors = new ComponentErrors();
+            ComponentContext componentContext = new ComponentContext(
+                    strategyDecorator,
+                    componentLinker,
+                    errors,
+                    statefulModulesMap,
+                    parent
+            );
+            componentContext.loadedModules().addAll(templateContext.loadedModules());
+
+            ComponentGraph newComponentGraph =
+                    componentGraph.replicateWith(componentContext);
+
+            DependencySupplier dependencySupplier =
+                    new ComponentDependencySupplier(
+                            gunmetalComponent.supplierAdapter(),
+                            resourceAccessorFactory,
+                            converterRegistry,
+                            newComponentGraph,
+                            componentContext,
+                            gunmetalComponent.options().contains(Option.REQUIRE_INTERFACES),
+                            gunmetalComponent.asyncExecutor());
+
+            ComponentInjectors injectors = componentInjectors.replicateWith(componentContext);
+
+            if (background) {
+                ResolutionContext linkingContext = componentContext.newResolutionContext();
+                componentLinker.linkWiring(dependencySupplier, linkingContext);
+                errors.throwIfNotEmpty();
+                readiness = new ComponentReadinessImpl();
+                componentLinker
+                        .linkEagerInBackground(dependencySupplier, linkingContext, readiness)
+                        .whenComplete(readiness::completed);
+            } else {
+                componentLinker.linkAll(dependencySupplier, componentContext.newResolutionContext());
+                errors.throwIfNotEmpty();
+            }
 
-        ComponentGraph newComponentGraph =
-                componentGraph.replicateWith(componentContext);
+            shutdown = new ComponentShutdown(newComponentGraph, componentContext, shutdownExecutor());
+            methods = componentMethods(
+                    injectors,
+                    newComponentGraph,
+                    dependencySupplier,
+                    componentLinker,
+                    componentContext,
+                    new AtomicReferenceArray<>(componentMethods.length),
+                    shutdown);
 
-        DependencySupplier dependencySupplier =
-                new ComponentDependencySupplier(
-                        gunmetalComponent.supplierAdapter(),
-                        resourceAccessorFactory,
-                        gunmetalComponent.converterSupplier(),
-                        newComponentGraph,
-                        componentContext,
-                        gunmetalComponent.options().contains(Option.REQUIRE_INTERFACES));
+        }
+
+        return newComponent(methods, new ComponentHandles(shutdown, readiness));
+    }
 
-        ComponentInjectors injectors = componentInjectors.replicateWith(componentContext);
+    /**
+     * @return the readiness of a component created with {@link Option#BACKGROUND_EAGER_INITIALIZATION}, or a
+     * ready one for any other component, as those are only returned once their eager singletons are initialized
+     */
+    public static ComponentReadiness readiness(Object component) {
+        ComponentHandles handles = handles(component);
+        return handles == null ? ComponentReadinessImpl.READY : handles.readiness;
+    }
 
-        componentLinker.linkAll(dependencySupplier, componentContext.newResolutionContext());
-        errors.throwIfNotEmpty();
+    /**
+     * Closes the singletons that the component has constructed, see {@link ComponentShutdown}.
+     */
+    public static ShutdownReport close(Object component, long timeout, TimeUnit unit) {
+        ComponentHandles handles = handles(component);
+        if (handles == null) {
+            throw new IllegalArgumentException("The object [" + component + "] is not a component");
+        }
+        return handles.shutdown.close(timeout, unit);
+    }
+
+    /**
+     * Closes the singletons that the component has constructed with the deadline of its {@code close()}
+     * method, see {@link ComponentShutdown}.
+     */
+    public static ShutdownReport close(Object component) {
+        return close(component, ComponentShutdown.DEFAULT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @return the handles of the component, or null if the object is not a component
+     */
+    private static ComponentHandles handles(Object component) {
+        if (component instanceof GeneratedComponent) {
+            return ((GeneratedComponent) component).handles;
+        }
+        if (Proxy.isProxyClass(component.getClass())
+                && Proxy.getInvocationHandler(component) instanceof ComponentHandler) {
+            return ((ComponentHandler) Proxy.getInvocationHandler(component)).handles;
+        }
+        return null;
+    }
+
+    private Executor shutdownExecutor() {
+        Executor executor = gunmetalComponent.shutdownExecutor();
+        return executor == null ? ForkJoinPool.commonPool() : executor;
+    }
+
+    /**
+     * @return whether the decorator is one of the scopes of {@code io.gunmetal.spi.impl}, which keep their
+     * state in the strategies they create and do not use the linkers, so that they can decorate the
+     * strategies of a shared graph for each component
+     */
+    private static boolean isBuiltIn(ProvisionStrategyDecorator decorator) {
+        return decorator instanceof CachingScope
+                || decorator instanceof PoolingScope
+                || decorator instanceof ReferenceScope;
+    }
+
+    private static boolean isClose(Method method) {
+        return method.getName().equals("close") && method.getParameterCount() == 0;
+    }
+
+    private Object newComponent(ComponentMethod[] methods, ComponentHandles handles) {
+
+        if (generatedComponentConstructor != null) {
+            try {
+                return generatedComponentConstructor.newInstance(methods, handles);
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+                throw new RuntimeException("Could not instantiate the generated component for ["
+                        + componentClass.getName() + "]", e);
+            }
+        }
 
         return componentClass.cast(Proxy.newProxyInstance(
                 getClass().getClassLoader(),
                 new Class<?>[]{componentClass, Component.class},
-                (proxy, method, args) -> {
-                    if (Object.class == method.getDeclaringClass()) {
-                        String name = method.getName();
-                        if ("equals".equals(name)) {
-                            return proxy == args[0];
-                        } else if ("hashCode".equals(name)) {
-                            return System.identityHashCode(proxy);
-                        } else if ("toString".equals(name)) {
-                            return proxy.getClass().getName() + "@" +
-                                    Integer.toHexString(System.identityHashCode(proxy)) +
-                                    "$GunmetalComponent";
-                        } else {
-                            throw new IllegalStateException(String.valueOf(method));
-                        }
-                    }
-                    ResolutionContext resolutionContext = componentContext.newResolutionContext();
-                    if (method.getName().equals("inject")) {
-                        // TODO validate etc, earlier
-                        for (Object arg : args) {
-                            injectors
-                                    .getInjector(arg, dependencySupplier, componentLinker, componentContext)
-                                    .inject(arg, dependencySupplier, componentContext.newResolutionContext());
-                        }
-                        return null;
-                    }
-                    ComponentMethodConfig config = componentMethodConfigs.get(method);
-                    if (args != null) {
-                        for (int i = 0; i < args.length; i++) {
-                            resolutionContext.setParam(
-                                    config.dependencies[i],
-                                    args[i]);
-                        }
-                    }
-                    ProvisionStrategy strategy = dependencySupplier.supply(config.dependencyRequest);
-                    if (strategy == null) {
-                        // TODO no matching resource
-                        throw new RuntimeException("not fucking here!");
-                    }
-                    return strategy.get(dependencySupplier, resolutionContext);
-                }));
+                new ComponentHandler(methods, proxyDispatch, handles)));
+
+    }
+
+    private ComponentMethod[] componentMethods(ComponentInjectors injectors,
+                                               ComponentGraph graph,
+                                               DependencySupplier dependencySupplier,
+                                               ComponentLinker componentLinker,
+                                               ComponentContext componentContext,
+                                               AtomicReferenceArray<ProvisionStrategy> methodStrategies,
+                                               ComponentShutdown shutdown) {
+        ComponentMethod[] methods = new ComponentMethod[componentMethods.length];
+        ParentComponent parent = null;
+        for (int i = 0; i < componentMethods.length; i++) {
+            Method method = componentMethods[i];
+            if (childTemplates[i] != null) {
+                if (parent == null) {
+                    parent = new ParentComponent(graph, dependencySupplier, componentContext, componentMetadata);
+                }
+                methods[i] = new PlusMethod(childTemplates[i], parent);
+            } else if (isClose(method)) {
+                methods[i] = new CloseMethod(shutdown);
+            } else if (method.getName().equals("inject")) {
+                // TODO validate etc, earlier
+                methods[i] = new InjectMethod(injectors, dependencySupplier, componentLinker, componentContext);
+            } else if (componentMethodConfigs[i] != null) {
+                methods[i] = new ProvisionMethod(
+                        componentMethodConfigs[i], methodStrategies, i, dependencySupplier, componentContext);
+            } else {
+                methods[i] = new UnsupportedMethod(method);
+            }
+        }
+        return methods;
+    }
+
+    private static final class ComponentHandler implements InvocationHandler {
+
+        final ComponentMethod[] methods;
+        final ProxyDispatch proxyDispatch;
+        final ComponentHandles handles;
+
+        ComponentHandler(ComponentMethod[] methods, ProxyDispatch proxyDispatch, ComponentHandles handles) {
+            this.methods = methods;
+            this.proxyDispatch = proxyDispatch;
+            this.handles = handles;
+        }
+
+        @Override public Object invoke(Object proxy, Method method, Object[] args) {
+            if (Object.class == method.getDeclaringClass()) {
+                String name = method.getName();
+                if ("equals".equals(name)) {
+                    return proxy == args[0];
+                } else if ("hashCode".equals(name)) {
+                    return System.identityHashCode(proxy);
+                } else if ("toString".equals(name)) {
+                    return proxy.getClass().getName() + "@" +
+                            Integer.toHexString(System.identityHashCode(proxy)) +
+                            "$GunmetalComponent";
+                } else {
+                    throw new IllegalStateException(String.valueOf(method));
+                }
+            }
+            return methods[proxyDispatch.indexOf(method)].invoke(args);
+        }
+
+    }
+
+    /**
+     * Finds the index of a component method from the {@link Method} that a proxy passes to its handler.
+     *
+     * A proxy class passes the same {@link Method} instances on every call, and every component of the
+     * template shares the proxy class, so each instance is looked up by equality only the first time it
+     * is seen.  From then on it is found by identity, which neither hashes the method nor compares its
+     * parameter types.
+     */
+    private static final class ProxyDispatch {
+
+        private final Map<Method, Integer> indices = new HashMap<>();
+        // copied on write, as a method is only added the first time it is seen
+        private volatile Map<Method, Integer> seen = new IdentityHashMap<>();
+
+        ProxyDispatch(Method[] componentMethods) {
+            for (int i = 0; i < componentMethods.length; i++) {
+                indices.put(componentMethods[i], i);
+            }
+        }
+
+        int indexOf(Method method) {
+            Integer index = seen.get(method);
+            if (index != null) {
+                return index;
+            }
+            index = indices.get(method);
+            if (index == null) {
+                throw new IllegalStateException("The method [" + method + "] is not a method of the component");
+            }
+            synchronized (this) {
+                Map<Method, Integer> seen = new IdentityHashMap<>(this.seen);
+                seen.put(method, index);
+                this.seen = seen;
+            }
+            return index;
+        }
+
+    }
+
+    /**
+     * The parts of a template that are shared by all of its components when the graph is not replicated
+     * for each of them.
+     */
+    private static class SharedGraph {
+
+        final AtomicInteger singletonSlots;
+        final DependencySupplier dependencySupplier;
+        final ComponentLinker componentLinker;
+        final AtomicReferenceArray<ProvisionStrategy> methodStrategies;
+
+        SharedGraph(AtomicInteger singletonSlots,
+                    DependencySupplier dependencySupplier,
+                    ComponentLinker componentLinker,
+                    AtomicReferenceArray<ProvisionStrategy> methodStrategies) {
+            this.singletonSlots = singletonSlots;
+            this.dependencySupplier = dependencySupplier;
+            this.componentLinker = componentLinker;
+            this.methodStrategies = methodStrategies;
+        }
 
     }
 
@@ -364,4 +724,119 @@ public final class ComponentTemplate {
 
     }
 
+    private static class ProvisionMethod extends ComponentMethod {
+
+        private final ComponentMethodConfig config;
+        private final AtomicReferenceArray<ProvisionStrategy> strategies;
+        private final int index;
+        private final DependencySupplier dependencySupplier;
+        private final ComponentContext componentContext;
+
+        ProvisionMethod(ComponentMethodConfig config,
+                        AtomicReferenceArray<ProvisionStrategy> strategies,
+                        int index,
+                        DependencySupplier dependencySupplier,
+                        ComponentContext componentContext) {
+            this.config = config;
+            this.strategies = strategies;
+            this.index = index;
+            this.dependencySupplier = dependencySupplier;
+            this.componentContext = componentContext;
+        }
+
+        @Override public Object invoke(Object[] args) {
+            ResolutionContext resolutionContext = componentContext.newResolutionContext();
+            if (args != null) {
+                for (int i = 0; i < args.length; i++) {
+                    resolutionContext.setParam(
+                            config.dependencies[i],
+                            args[i]);
+                }
+            }
+            ProvisionStrategy strategy = strategies.get(index);
+            if (strategy == null) {
+                strategy = dependencySupplier.supply(config.dependencyRequest);
+                if (strategy == null) {
+                    // TODO no matching resource
+                    throw new RuntimeException("not fucking here!");
+                }
+                strategies.set(index, strategy);
+            }
+            return strategy.get(dependencySupplier, resolutionContext);
+        }
+
+    }
+
+    private static class InjectMethod extends ComponentMethod {
+
+        private final ComponentInjectors injectors;
+        private final DependencySupplier dependencySupplier;
+        private final ComponentLinker componentLinker;
+        private final ComponentContext componentContext;
+
+        InjectMethod(ComponentInjectors injectors,
+                     DependencySupplier dependencySupplier,
+                     ComponentLinker componentLinker,
+                     ComponentContext componentContext) {
+            this.injectors = injectors;
+            this.dependencySupplier = dependencySupplier;
+            this.componentLinker = componentLinker;
+            this.componentContext = componentContext;
+        }
+
+        @Override public Object invoke(Object[] args) {
+            for (Object arg : args) {
+                injectors
+                        .getInjector(arg, dependencySupplier, componentLinker, componentContext)
+                        .inject(arg, dependencySupplier, componentContext.newResolutionContext());
+            }
+            return null;
+        }
+
+    }
+
+    private static class PlusMethod extends ComponentMethod {
+
+        private final ComponentTemplate childTemplate;
+        private final ParentComponent parent;
+
+        PlusMethod(ComponentTemplate childTemplate, ParentComponent parent) {
+            this.childTemplate = childTemplate;
+            this.parent = parent;
+        }
+
+        @Override public Object invoke(Object[] args) {
+            return childTemplate.newInstance(parent, args == null ? new Object[]{} : args);
+        }
+
+    }
+
+    private static class CloseMethod extends ComponentMethod {
+
+        private final ComponentShutdown shutdown;
+
+        CloseMethod(ComponentShutdown shutdown) {
+            this.shutdown = shutdown;
+        }
+
+        @Override public Object invoke(Object[] args) {
+            return shutdown.close(ComponentShutdown.DEFAULT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+
+    }
+
+    private static class UnsupportedMethod extends ComponentMethod {
+
+        private final Method method;
+
+        UnsupportedMethod(Method method) {
+            this.method = method;
+        }
+
+        @Override public Object invoke(Object[] args) {
+            throw new UnsupportedOperationException("The component method [" + method + "] is not supported");
+        }
+
+    }
+
 }
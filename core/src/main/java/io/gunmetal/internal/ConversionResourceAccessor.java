@@ -9,6 +9,10 @@ import io.gunmetal.spi.ProvisionStrategy;
 import java.util.Collections;
 
 /**
+ * Provisions a dependency by converting the provision of another.  The strategy is created once, and
+ * resolves the strategy of the source on its first use.  The source may itself be a conversion, so
+ * that conversions are composed.
+ *
  * @author rees.byars
  */
 class ConversionResourceAccessor implements ResourceAccessor {
@@ -18,6 +22,8 @@ class ConversionResourceAccessor implements ResourceAccessor {
     private final Dependency fromDependency;
     private final Dependency toDependency;
     private final Binding binding;
+    private final ProvisionStrategy provisionStrategy;
+    private volatile ProvisionStrategy fromStrategy;
 
     ConversionResourceAccessor(
             ResourceAccessor fromAccessor,
@@ -31,6 +37,8 @@ class ConversionResourceAccessor implements ResourceAccessor {
         binding = new BindingImpl(
                 fromAccessor.binding().resource(),
                 Collections.singletonList(toDependency));
+        provisionStrategy = (supplier, resolutionContext) ->
+                converter.convert(fromStrategy().get(supplier, resolutionContext));
     }
 
     @Override public ResourceAccessor replicateWith(ComponentContext context) {
@@ -45,14 +53,26 @@ class ConversionResourceAccessor implements ResourceAccessor {
         return binding;
     }
 
+    Dependency fromDependency() {
+        return fromDependency;
+    }
+
     @Override public ProvisionStrategy process(DependencyRequest dependencyRequest, Errors errors) {
         fromAccessor.process(DependencyRequest.create(dependencyRequest, fromDependency), errors);
         return force();
     }
 
     @Override public ProvisionStrategy force() {
-        return (supplier, resolutionContext) ->
-                converter.convert(
-                        fromAccessor.force().get(supplier, resolutionContext));
+        return provisionStrategy;
     }
+
+    private ProvisionStrategy fromStrategy() {
+        ProvisionStrategy fromStrategy = this.fromStrategy;
+        if (fromStrategy == null) {
+            fromStrategy = fromAccessor.force();
+            this.fromStrategy = fromStrategy;
+        }
+        return fromStrategy;
+    }
+
 }
@@ -0,0 +1,66 @@
+package io.gunmetal.internal;
+
+import io.gunmetal.spi.Converter;
+import io.gunmetal.spi.ConverterSupplier;
+import io.gunmetal.spi.TypeKey;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Indexes the converters of a template by the type they convert to, so that the {@link ConverterSupplier}
+ * is asked once per type and each pair of converter and type it converts from is listed ready to look up.
+ *
+ * @author rees.byars
+ */
+class ConverterRegistry {
+
+    /**
+     * The most conversions that are composed to convert from a bound type.
+     */
+    static final int MAX_CONVERSIONS = 3;
+
+    private final ConverterSupplier converterSupplier;
+    private final Map<TypeKey, List<Conversion>> conversions = new ConcurrentHashMap<>();
+
+    ConverterRegistry(ConverterSupplier converterSupplier) {
+        this.converterSupplier = converterSupplier;
+    }
+
+    /**
+     * @return the conversions to the type, in the order of the converters and of the types they convert from
+     */
+    List<Conversion> conversionsTo(TypeKey to) {
+        List<Conversion> conversionsTo = conversions.get(to);
+        if (conversionsTo == null) {
+            conversionsTo = new ArrayList<>();
+            for (Converter converter : converterSupplier.convertersForType(to)) {
+                for (Class<?> fromType : converter.supportedFromTypes()) {
+                    conversionsTo.add(new Conversion(converter, fromType));
+                }
+            }
+            conversionsTo = Collections.unmodifiableList(conversionsTo);
+            List<Conversion> previous = conversions.putIfAbsent(to, conversionsTo);
+            if (previous != null) {
+                conversionsTo = previous;
+            }
+        }
+        return conversionsTo;
+    }
+
+    static final class Conversion {
+
+        final Converter converter;
+        final Class<?> fromType;
+
+        Conversion(Converter converter, Class<?> fromType) {
+            this.converter = converter;
+            this.fromType = fromType;
+        }
+
+    }
+
+}
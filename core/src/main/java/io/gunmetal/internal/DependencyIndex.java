@@ -0,0 +1,50 @@
+package io.gunmetal.internal;
+
+import io.gunmetal.spi.Dependency;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dense ids of the dependencies bound in the graphs of one template.  The graph of a template and its
+ * replicas share an index, so that a dependency has the same id in each of them, and the tables of the
+ * graphs are sized by the dependencies of the template rather than by every dependency ever created.
+ * Ids are never reassigned, so an id resolved when linking stays valid for the life of the template.
+ *
+ * @author rees.byars
+ */
+final class DependencyIndex {
+
+    private final ConcurrentMap<Dependency, Integer> ids;
+    private final AtomicInteger nextId;
+
+    DependencyIndex() {
+        ids = new ConcurrentHashMap<>(64);
+        nextId = new AtomicInteger();
+    }
+
+    /**
+     * @return the id of the dependency, or -1 if the dependency has not been given one
+     */
+    int idOf(Dependency dependency) {
+        Integer id = ids.get(dependency);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @return the id of the dependency, giving it the next id if it has none
+     */
+    int intern(Dependency dependency) {
+        Integer id = ids.get(dependency);
+        if (id != null) {
+            return id;
+        }
+        return ids.computeIfAbsent(dependency, d -> nextId.getAndIncrement());
+    }
+
+    int size() {
+        return nextId.get();
+    }
+
+}
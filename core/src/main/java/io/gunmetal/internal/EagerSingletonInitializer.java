@@ -0,0 +1,272 @@
+package io.gunmetal.internal;
+
+import io.gunmetal.spi.ComponentReadiness;
+import io.gunmetal.spi.Dependency;
+import io.gunmetal.spi.DependencySupplier;
+import io.gunmetal.spi.EagerSingletonReport;
+import io.gunmetal.spi.ResolutionContext;
+import io.gunmetal.spi.ResourceMetadata;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Initializes eager singletons in dependency order, running those that do not depend on each other
+ * in parallel on an executor, and reports the critical path.
+ *
+ * The order is taken from the {@link Resource#dependencies()} of the template graph, following the
+ * dependencies of prototypes and other non-eager resources through to the eager singletons they
+ * reach.  Resources keep their metadata when a graph is replicated, so the plan is computed once and
+ * reused by every component of the template.  A cycle between eager singletons is broken arbitrarily,
+ * which is safe since the first of them to be initialized resolves the others on its own thread.
+ *
+ * @author rees.byars
+ */
+class EagerSingletonInitializer {
+
+    private final Executor executor;
+    private final Consumer<EagerSingletonReport> reportConsumer;
+    private final ComponentGraph templateGraph;
+    private volatile Map<ResourceMetadata<?>, List<ResourceMetadata<?>>> plan;
+
+    EagerSingletonInitializer(Executor executor,
+                              Consumer<EagerSingletonReport> reportConsumer,
+                              ComponentGraph templateGraph) {
+        this.executor = executor == null ? Runnable::run : executor;
+        this.reportConsumer = reportConsumer;
+        this.templateGraph = templateGraph;
+    }
+
+    void initialize(List<ComponentLinker.EagerSingletonLinker> linkers,
+                    DependencySupplier dependencySupplier,
+                    ResolutionContext linkingContext) {
+        try {
+            schedule(linkers, dependencySupplier, linkingContext, null).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException("Could not initialize the eager singletons", cause);
+        }
+    }
+
+    /**
+     * Schedules the initialization without waiting for it.
+     *
+     * @param readiness if not null, updated as each singleton is initialized
+     * @return a future completed once every singleton is initialized
+     */
+    CompletableFuture<Void> schedule(List<ComponentLinker.EagerSingletonLinker> linkers,
+                                     DependencySupplier dependencySupplier,
+                                     ResolutionContext linkingContext,
+                                     ComponentReadinessImpl readiness) {
+
+        if (linkers.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Map<ResourceMetadata<?>, ComponentLinker.EagerSingletonLinker> linkersByMetadata = new IdentityHashMap<>();
+        for (ComponentLinker.EagerSingletonLinker linker : linkers) {
+            linkersByMetadata.put(linker.resourceMetadata, linker);
+            if (readiness != null) {
+                readiness.update(linker.resourceMetadata, ComponentReadiness.State.PENDING);
+            }
+        }
+        Map<ResourceMetadata<?>, List<ResourceMetadata<?>>> plan = plan(linkersByMetadata.keySet());
+
+        ComponentContext componentContext = ComponentContext.of(linkingContext);
+        Map<ResourceMetadata<?>, Long> initializationNanos = new ConcurrentHashMap<>();
+        Map<ResourceMetadata<?>, Long> startNanos = new ConcurrentHashMap<>();
+        Map<ResourceMetadata<?>, CompletableFuture<Void>> futures = new IdentityHashMap<>();
+        long start = System.nanoTime();
+
+        for (ComponentLinker.EagerSingletonLinker linker : linkers) {
+            schedule(linker.resourceMetadata, plan, linkersByMetadata, futures, task -> () -> {
+                long taskStart = System.nanoTime();
+                startNanos.put(task.resourceMetadata, taskStart);
+                if (readiness != null) {
+                    readiness.update(task.resourceMetadata, ComponentReadiness.State.INITIALIZING);
+                }
+                try {
+                    // resolution contexts are not thread safe, so each initialization gets its own
+                    task.link(dependencySupplier, componentContext.newResolutionContext());
+                } catch (RuntimeException | Error e) {
+                    if (readiness != null) {
+                        readiness.update(task.resourceMetadata, ComponentReadiness.State.FAILED);
+                    }
+                    throw e;
+                }
+                initializationNanos.put(task.resourceMetadata, System.nanoTime() - taskStart);
+                if (readiness != null) {
+                    readiness.update(task.resourceMetadata, ComponentReadiness.State.READY);
+                }
+            });
+        }
+
+        CompletableFuture<Void> all =
+                CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[futures.size()]));
+        if (reportConsumer == null) {
+            return all;
+        }
+        return all.thenRun(() ->
+                reportConsumer.accept(report(plan, initializationNanos, startNanos, System.nanoTime() - start)));
+    }
+
+    private CompletableFuture<Void> schedule(
+            ResourceMetadata<?> resourceMetadata,
+            Map<ResourceMetadata<?>, List<ResourceMetadata<?>>> plan,
+            Map<ResourceMetadata<?>, ComponentLinker.EagerSingletonLinker> linkersByMetadata,
+            Map<ResourceMetadata<?>, CompletableFuture<Void>> futures,
+            TaskFactory taskFactory) {
+        CompletableFuture<Void> future = futures.get(resourceMetadata);
+        if (future != null) {
+            return future;
+        }
+        List<ResourceMetadata<?>> dependencies = plan.get(resourceMetadata);
+        CompletableFuture<?>[] dependencyFutures = new CompletableFuture<?>[dependencies.size()];
+        for (int i = 0; i < dependencyFutures.length; i++) {
+            dependencyFutures[i] = schedule(dependencies.get(i), plan, linkersByMetadata, futures, taskFactory);
+        }
+        Runnable task = taskFactory.create(linkersByMetadata.get(resourceMetadata));
+        future = dependencyFutures.length == 0
+                ? CompletableFuture.runAsync(task, executor)
+                : CompletableFuture.allOf(dependencyFutures).thenRunAsync(task, executor);
+        futures.put(resourceMetadata, future);
+        return future;
+    }
+
+    private Map<ResourceMetadata<?>, List<ResourceMetadata<?>>> plan(Set<ResourceMetadata<?>> eagerResources) {
+        Map<ResourceMetadata<?>, List<ResourceMetadata<?>>> plan = this.plan;
+        if (plan != null && plan.keySet().equals(eagerResources)) {
+            return plan;
+        }
+        Map<ResourceMetadata<?>, Resource> resources = templateGraph.resources();
+        Map<ResourceMetadata<?>, List<ResourceMetadata<?>>> dependencies = new IdentityHashMap<>();
+        for (ResourceMetadata<?> resourceMetadata : eagerResources) {
+            List<ResourceMetadata<?>> eagerDependencies = new ArrayList<>();
+            Resource resource = resources.get(resourceMetadata);
+            if (resource != null) {
+                Set<ResourceMetadata<?>> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+                visited.add(resourceMetadata);
+                collectEagerDependencies(resource, eagerResources, visited, eagerDependencies);
+            }
+            dependencies.put(resourceMetadata, eagerDependencies);
+        }
+        plan = new IdentityHashMap<>();
+        Set<ResourceMetadata<?>> inProgress = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (ResourceMetadata<?> resourceMetadata : eagerResources) {
+            breakCycles(resourceMetadata, dependencies, inProgress, plan);
+        }
+        this.plan = plan;
+        return plan;
+    }
+
+    private void collectEagerDependencies(Resource resource,
+                                          Set<ResourceMetadata<?>> eagerResources,
+                                          Set<ResourceMetadata<?>> visited,
+                                          List<ResourceMetadata<?>> eagerDependencies) {
+        for (Dependency dependency : resource.dependencies()) {
+            ResourceAccessor resourceAccessor = templateGraph.get(dependency);
+            if (resourceAccessor == null) {
+                continue;
+            }
+            for (Resource dependencyResource : ComponentGraph.resources(resourceAccessor)) {
+                ResourceMetadata<?> dependencyMetadata = dependencyResource.metadata();
+                if (!visited.add(dependencyMetadata)) {
+                    continue;
+                }
+                if (eagerResources.contains(dependencyMetadata)) {
+                    eagerDependencies.add(dependencyMetadata);
+                } else {
+                    collectEagerDependencies(dependencyResource, eagerResources, visited, eagerDependencies);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the dependencies that lead back to a singleton whose dependencies are still being visited.
+     */
+    private void breakCycles(ResourceMetadata<?> resourceMetadata,
+                             Map<ResourceMetadata<?>, List<ResourceMetadata<?>>> dependencies,
+                             Set<ResourceMetadata<?>> inProgress,
+                             Map<ResourceMetadata<?>, List<ResourceMetadata<?>>> plan) {
+        if (plan.containsKey(resourceMetadata)) {
+            return;
+        }
+        inProgress.add(resourceMetadata);
+        List<ResourceMetadata<?>> acyclic = new ArrayList<>();
+        for (ResourceMetadata<?> dependency : dependencies.get(resourceMetadata)) {
+            if (!inProgress.contains(dependency)) {
+                breakCycles(dependency, dependencies, inProgress, plan);
+                acyclic.add(dependency);
+            }
+        }
+        inProgress.remove(resourceMetadata);
+        plan.put(resourceMetadata, acyclic);
+    }
+
+    private EagerSingletonReport report(Map<ResourceMetadata<?>, List<ResourceMetadata<?>>> plan,
+                                        Map<ResourceMetadata<?>, Long> initializationNanos,
+                                        Map<ResourceMetadata<?>, Long> startNanos,
+                                        long totalNanos) {
+
+        List<ResourceMetadata<?>> started = new ArrayList<>(startNanos.keySet());
+        started.sort((a, b) -> Long.compare(startNanos.get(a), startNanos.get(b)));
+        Map<ResourceMetadata<?>, Long> orderedNanos = new LinkedHashMap<>();
+        for (ResourceMetadata<?> resourceMetadata : started) {
+            orderedNanos.put(resourceMetadata, initializationNanos.get(resourceMetadata));
+        }
+
+        // the longest chain ending at each singleton, visited in start order so dependencies come first
+        Map<ResourceMetadata<?>, Long> pathNanos = new IdentityHashMap<>();
+        Map<ResourceMetadata<?>, ResourceMetadata<?>> previous = new IdentityHashMap<>();
+        ResourceMetadata<?> last = null;
+        for (ResourceMetadata<?> resourceMetadata : started) {
+            long longest = 0;
+            for (ResourceMetadata<?> dependency : plan.get(resourceMetadata)) {
+                Long dependencyNanos = pathNanos.get(dependency);
+                if (dependencyNanos != null && dependencyNanos >= longest) {
+                    longest = dependencyNanos;
+                    previous.put(resourceMetadata, dependency);
+                }
+            }
+            long nanos = longest + initializationNanos.get(resourceMetadata);
+            pathNanos.put(resourceMetadata, nanos);
+            if (last == null || nanos > pathNanos.get(last)) {
+                last = resourceMetadata;
+            }
+        }
+
+        List<ResourceMetadata<?>> criticalPath = new ArrayList<>();
+        for (ResourceMetadata<?> resourceMetadata = last;
+             resourceMetadata != null;
+             resourceMetadata = previous.get(resourceMetadata)) {
+            criticalPath.add(0, resourceMetadata);
+        }
+
+        return new EagerSingletonReport(
+                orderedNanos,
+                criticalPath,
+                last == null ? 0 : pathNanos.get(last),
+                totalNanos);
+    }
+
+    private interface TaskFactory {
+        Runnable create(ComponentLinker.EagerSingletonLinker linker);
+    }
+
+}
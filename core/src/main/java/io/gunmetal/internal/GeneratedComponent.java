@@ -0,0 +1,20 @@
+package io.gunmetal.internal;
+
+/**
+ * The superclass of the component classes written by {@link ComponentClassGenerator}, holding the
+ * {@link ComponentHandles} of the instance so that they are read from the component itself.
+ *
+ * Public only so that generated component classes, which are defined in their own class loader,
+ * can extend it.
+ *
+ * @author rees.byars
+ */
+public abstract class GeneratedComponent {
+
+    final ComponentHandles handles;
+
+    protected GeneratedComponent(ComponentHandles handles) {
+        this.handles = handles;
+    }
+
+}
@@ -21,6 +21,7 @@ import io.gunmetal.spi.ConstructorResolver;
 import io.gunmetal.spi.Dependency;
 import io.gunmetal.spi.DependencyRequest;
 import io.gunmetal.spi.DependencySupplier;
+import io.gunmetal.spi.GeneratedAccessor;
 import io.gunmetal.spi.Linkers;
 import io.gunmetal.spi.ProvisionStrategy;
 import io.gunmetal.spi.QualifierResolver;
@@ -28,8 +29,14 @@ import io.gunmetal.spi.ResolutionContext;
 import io.gunmetal.spi.ResourceMetadata;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -38,63 +45,47 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.LinkedList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * @author rees.byars
  */
 class InjectorFactoryImpl implements InjectorFactory {
 
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
     private final QualifierResolver qualifierResolver;
     private final ConstructorResolver constructorResolver;
     private final ClassWalker classWalker;
+    private final FunctionFactory functionFactory;
 
     InjectorFactoryImpl(QualifierResolver qualifierResolver,
                         ConstructorResolver constructorResolver,
                         ClassWalker classWalker) {
+        this(qualifierResolver, constructorResolver, classWalker, false);
+    }
+
+    InjectorFactoryImpl(QualifierResolver qualifierResolver,
+                        ConstructorResolver constructorResolver,
+                        ClassWalker classWalker,
+                        boolean reflectiveInvocation) {
         this.qualifierResolver = qualifierResolver;
         this.constructorResolver = constructorResolver;
         this.classWalker = classWalker;
+        functionFactory = reflectiveInvocation ? FunctionFactory.REFLECTIVE : FunctionFactory.METHOD_HANDLES;
     }
 
     @Override public Injector compositeInjector(Class<?> target,
                                                 ResourceMetadata<?> resourceMetadata,
                                                 ComponentContext context) {
-
-        final List<Injector> injectors = new ArrayList<>();
-
-        classWalker.walk(target,
-                field -> {
-                    Dependency dependency = Dependency.from(
-                            qualifierResolver.resolveDependencyQualifier(
-                                    field,
-                                    resourceMetadata.moduleMetadata().qualifier()),
-                            field.getGenericType());
-                    injectors.add(new FieldInjector(field, resourceMetadata, dependency, context.linkers()));
-                },
-                method -> {
-                    ParameterizedFunction function = new MethodFunction(method);
-                    injectors.add(new FunctionInjector(
-                            function,
-                            resourceMetadata,
-                            dependenciesForFunction(
-                                    resourceMetadata,
-                                    function,
-                                    qualifierResolver),
-                            context.linkers()));
-                },
-                resourceMetadata,
-                (error) -> context.errors().add(resourceMetadata, error));
-
-        return new CompositeInjector(injectors);
-
+        return new CompositeInjector(members(target, resourceMetadata, context), resourceMetadata, context.linkers());
     }
 
     @Override public Injector lazyCompositeInjector(ResourceMetadata<?> resourceMetadata,
                                                     ComponentContext context) {
-        return new LazyCompositeInjector(classWalker, qualifierResolver, resourceMetadata, context);
+        return new LazyCompositeInjector(this, resourceMetadata, context);
     }
 
     @Override public Instantiator paramInstantiator(
@@ -123,7 +114,7 @@ class InjectorFactoryImpl implements InjectorFactory {
                                                           ResourceMetadata<?> resourceMetadata,
                                                           ComponentContext context) {
         Constructor<?> constructor = constructorResolver.resolve(providerClass);
-        ParameterizedFunction function = new ConstructorFunction(constructor);
+        ParameterizedFunction function = functionFactory.forConstructor(constructor);
         Injector injector = new FunctionInjector(
                 function,
                 resourceMetadata,
@@ -139,7 +130,7 @@ class InjectorFactoryImpl implements InjectorFactory {
             ResourceMetadata<Method> resourceMetadata, Dependency moduleDependency, ComponentContext context) {
         Method provider = resourceMetadata.provider();
         if (!Modifier.isStatic(provider.getModifiers())) {
-            ParameterizedFunction function = new MethodFunction(resourceMetadata.provider());
+            ParameterizedFunction function = functionFactory.forMethod(resourceMetadata.provider());
             FunctionInjector injector = new FunctionInjector(
                     function,
                     resourceMetadata,
@@ -150,7 +141,7 @@ class InjectorFactoryImpl implements InjectorFactory {
                     context.linkers());
             return new StatefulInstantiator(injector, resourceMetadata, moduleDependency);
         }
-        ParameterizedFunction function = new MethodFunction(resourceMetadata.provider());
+        ParameterizedFunction function = functionFactory.forMethod(resourceMetadata.provider());
         Injector injector = new FunctionInjector(
                 function,
                 resourceMetadata,
@@ -167,9 +158,9 @@ class InjectorFactoryImpl implements InjectorFactory {
         Field provider = resourceMetadata.provider();
         if (!Modifier.isStatic(provider.getModifiers())) {
             return new StatefulInstantiator(
-                    new ReverseFieldInjector(provider), resourceMetadata,  moduleDependency);
+                    new ReverseFieldInjector(functionFactory.getter(provider)), resourceMetadata,  moduleDependency);
         }
-        return new InstantiatorImpl(new ReverseFieldInjector(provider));
+        return new InstantiatorImpl(new ReverseFieldInjector(functionFactory.getter(provider)));
     }
 
     private static Dependency[] dependenciesForFunction(ResourceMetadata<?> resourceMetadata,
@@ -222,129 +213,562 @@ class InjectorFactoryImpl implements InjectorFactory {
     }
 
     private interface ParameterizedFunction {
-        Object invoke(Object onInstance, Object[] params)
-                throws InvocationTargetException, IllegalAccessException, InstantiationException;
+        Object invoke(Object onInstance, Object[] params) throws Throwable;
 
         Type[] getParameterTypes();
 
         Annotation[][] getParameterAnnotations();
     }
 
-    private static class MethodFunction implements ParameterizedFunction {
-        final Method method;
+    private interface FieldSetter {
+        void set(Object target, Object value) throws Throwable;
+    }
 
-        MethodFunction(Method method) {
-            method.setAccessible(true);
-            this.method = method;
+    private interface FieldGetter {
+        Object get(Object target) throws Throwable;
+    }
+
+    /**
+     * The invocation backend used for constructors, methods and fields.  Method handles are resolved once,
+     * when the function is created, and fall back to reflection if the handle cannot be obtained.  Members
+     * covered by a {@link GeneratedAccessor} are invoked through it instead of a method handle, and members
+     * that gunmetal could call from source are invoked through a {@link LambdaFunction}.  Fields that no
+     * accessor covers are read and written through reflection.
+     */
+    private enum FunctionFactory {
+
+        REFLECTIVE {
+            @Override ParameterizedFunction forMethod(Method method) {
+                return new MethodFunction(method);
+            }
+
+            @Override ParameterizedFunction forConstructor(Constructor<?> constructor) {
+                return new ConstructorFunction(constructor);
+            }
+
+            @Override FieldSetter setter(Field field) {
+                field.setAccessible(true);
+                return field::set;
+            }
+
+            @Override FieldGetter getter(Field field) {
+                field.setAccessible(true);
+                return field::get;
+            }
+        },
+
+        METHOD_HANDLES {
+            @Override ParameterizedFunction forMethod(Method method) {
+                Generated generated = Generated.forClass(method.getDeclaringClass());
+                int member = generated.indexOf(method.getName(), method.getParameterTypes(), method.getReturnType());
+                if (member >= 0) {
+                    return new GeneratedFunction(
+                            generated.accessor, member, method.getGenericParameterTypes(), method.getParameterAnnotations());
+                }
+                method.setAccessible(true);
+                MethodHandle handle;
+                try {
+                    handle = LOOKUP.unreflect(method);
+                } catch (IllegalAccessException e) {
+                    return REFLECTIVE.forMethod(method);
+                }
+                ParameterizedFunction lambda = LambdaFunction.of(
+                        method, handle, method.getGenericParameterTypes(), method.getParameterAnnotations());
+                if (lambda != null) {
+                    return lambda;
+                }
+                int paramCount = method.getParameterCount();
+                if (Modifier.isStatic(method.getModifiers())) {
+                    handle = MethodHandles.dropArguments(spread(handle, paramCount), 0, Object.class);
+                } else {
+                    handle = handle
+                            .asType(MethodType.genericMethodType(paramCount + 1))
+                            .asSpreader(Object[].class, paramCount);
+                }
+                return new MethodHandleFunction(
+                        handle, method.getGenericParameterTypes(), method.getParameterAnnotations());
+            }
+
+            @Override ParameterizedFunction forConstructor(Constructor<?> constructor) {
+                Generated generated = Generated.forClass(constructor.getDeclaringClass());
+                int member = generated.indexOf("<init>", constructor.getParameterTypes(), null);
+                if (member >= 0) {
+                    return new GeneratedFunction(
+                            generated.accessor, member, constructor.getGenericParameterTypes(), constructor.getParameterAnnotations());
+                }
+                constructor.setAccessible(true);
+                MethodHandle handle;
+                try {
+                    handle = LOOKUP.unreflectConstructor(constructor);
+                } catch (IllegalAccessException e) {
+                    return REFLECTIVE.forConstructor(constructor);
+                }
+                ParameterizedFunction lambda = LambdaFunction.of(
+                        constructor, handle, constructor.getGenericParameterTypes(), constructor.getParameterAnnotations());
+                if (lambda != null) {
+                    return lambda;
+                }
+                return new MethodHandleFunction(
+                        MethodHandles.dropArguments(spread(handle, constructor.getParameterCount()), 0, Object.class),
+                        constructor.getGenericParameterTypes(),
+                        constructor.getParameterAnnotations());
+            }
+
+            @Override FieldSetter setter(Field field) {
+                Generated generated = Generated.forClass(field.getDeclaringClass());
+                int member = generated.indexOf(field.getName(), null, field.getType());
+                if (member >= 0 && !Modifier.isFinal(field.getModifiers())) {
+                    GeneratedAccessor accessor = generated.accessor;
+                    return (target, value) -> accessor.invoke(member, target, new Object[] {value});
+                }
+                // a field handle held by the setter is not a constant to the JIT, so it is no faster
+                // than the field accessors of reflection, which are shared by every field of a kind
+                return REFLECTIVE.setter(field);
+            }
+
+            @Override FieldGetter getter(Field field) {
+                Generated generated = Generated.forClass(field.getDeclaringClass());
+                int member = generated.indexOf(field.getName(), null, field.getType());
+                if (member >= 0) {
+                    GeneratedAccessor accessor = generated.accessor;
+                    return target -> accessor.invoke(member, target, null);
+                }
+                return REFLECTIVE.getter(field);
+            }
+
+            private MethodHandle spread(MethodHandle handle, int paramCount) {
+                return handle
+                        .asType(MethodType.genericMethodType(paramCount))
+                        .asSpreader(Object[].class, paramCount);
+            }
+        };
+
+        abstract ParameterizedFunction forMethod(Method method);
+
+        abstract ParameterizedFunction forConstructor(Constructor<?> constructor);
+
+        abstract FieldSetter setter(Field field);
+
+        abstract FieldGetter getter(Field field);
+
+    }
+
+    /**
+     * The {@link GeneratedAccessor} written by the annotation processor for a class, if there is one,
+     * along with the index of each of its member keys.
+     */
+    private static final class Generated {
+
+        static final Generated NONE = new Generated(null);
+
+        static final ClassValue<Generated> BY_CLASS = new ClassValue<Generated>() {
+            @Override protected Generated computeValue(Class<?> type) {
+                ClassLoader classLoader = type.getClassLoader();
+                if (classLoader == null) {
+                    return NONE;
+                }
+                String accessorName = type.getName() + GeneratedAccessor.SUFFIX;
+                // most classes have no accessor, and a lookup of the class file is far cheaper than the
+                // ClassNotFoundException a failed load would fill a stack trace for
+                if (classLoader.getResource(accessorName.replace('.', '/') + ".class") == null) {
+                    return NONE;
+                }
+                Class<?> accessorClass;
+                try {
+                    accessorClass = Class.forName(accessorName, true, classLoader);
+                } catch (ClassNotFoundException e) {
+                    return NONE;
+                }
+                try {
+                    return new Generated((GeneratedAccessor) accessorClass.getConstructor().newInstance());
+                } catch (ReflectiveOperationException | ClassCastException e) {
+                    throw new IllegalStateException("The generated accessor [" + accessorClass.getName()
+                            + "] could not be instantiated", e);
+                }
+            }
+        };
+
+        final GeneratedAccessor accessor;
+        private final Map<String, Integer> indices = new HashMap<>();
+
+        private Generated(GeneratedAccessor accessor) {
+            this.accessor = accessor;
+            if (accessor != null) {
+                String[] members = accessor.members();
+                for (int i = 0; i < members.length; i++) {
+                    indices.put(members[i], i);
+                }
+            }
         }
 
-        @Override public Object invoke(Object onInstance, Object[] params)
-                throws InvocationTargetException, IllegalAccessException {
-            return method.invoke(onInstance, params);
+        static Generated forClass(Class<?> type) {
+            return BY_CLASS.get(type);
+        }
+
+        /**
+         * @param parameterTypes the parameter types of a method or constructor, or null for a field
+         * @param type the return type of a method or the type of a field, or null for a constructor
+         * @return the index of the member, or -1 if it is not covered
+         */
+        int indexOf(String name, Class<?>[] parameterTypes, Class<?> type) {
+            if (indices.isEmpty()) {
+                return -1;
+            }
+            StringBuilder key = new StringBuilder(name);
+            if (parameterTypes == null) {
+                key.append(':');
+            } else {
+                key.append('(');
+                for (int i = 0; i < parameterTypes.length; i++) {
+                    if (i > 0) {
+                        key.append(',');
+                    }
+                    key.append(parameterTypes[i].getName());
+                }
+                key.append(')');
+            }
+            if (type != null) {
+                key.append(type.getName());
+            }
+            Integer index = indices.get(key.toString());
+            return index == null ? -1 : index;
+        }
+
+    }
+
+    private static class GeneratedFunction implements ParameterizedFunction {
+        final GeneratedAccessor accessor;
+        final int member;
+        final Type[] parameterTypes;
+        final Annotation[][] parameterAnnotations;
+
+        GeneratedFunction(GeneratedAccessor accessor, int member, Type[] parameterTypes, Annotation[][] parameterAnnotations) {
+            this.accessor = accessor;
+            this.member = member;
+            this.parameterTypes = parameterTypes;
+            this.parameterAnnotations = parameterAnnotations;
+        }
+
+        @Override public Object invoke(Object onInstance, Object[] params) throws Throwable {
+            return accessor.invoke(member, onInstance, params);
         }
 
         @Override public Type[] getParameterTypes() {
-            return method.getGenericParameterTypes();
+            return parameterTypes;
         }
 
         @Override public Annotation[][] getParameterAnnotations() {
-            return method.getParameterAnnotations();
+            return parameterAnnotations;
         }
     }
 
-    private static class ConstructorFunction implements ParameterizedFunction {
-        final Constructor<?> constructor;
+    /**
+     * Invokes a constructor or method through a class spun by {@link LambdaMetafactory}, which calls the
+     * member directly rather than through a method handle held in a field, so that the JIT can inline the
+     * member into the call as it would a call written in source.  Only members that could be called from
+     * gunmetal's source qualify: public, not variable arity, of at most {@link #MAX_ARGUMENTS} arguments
+     * counting the target of an instance method, and declared by and naming only public types that
+     * gunmetal's class loader sees.  Others are invoked through a {@link MethodHandleFunction}.
+     */
+    private static final class LambdaFunction implements ParameterizedFunction {
 
-        ConstructorFunction(Constructor<?> constructor) {
-            constructor.setAccessible(true);
-            this.constructor = constructor;
+        static final int MAX_ARGUMENTS = 5;
+
+        private static final Class<?>[] INVOKERS = {
+                Invoker0.class, Invoker1.class, Invoker2.class, Invoker3.class, Invoker4.class, Invoker5.class
+        };
+        private static final Class<?>[] VOID_INVOKERS = {
+                VoidInvoker0.class, VoidInvoker1.class, VoidInvoker2.class,
+                VoidInvoker3.class, VoidInvoker4.class, VoidInvoker5.class
+        };
+
+        interface Invoker0 { Object invoke(); }
+        interface Invoker1 { Object invoke(Object a); }
+        interface Invoker2 { Object invoke(Object a, Object b); }
+        interface Invoker3 { Object invoke(Object a, Object b, Object c); }
+        interface Invoker4 { Object invoke(Object a, Object b, Object c, Object d); }
+        interface Invoker5 { Object invoke(Object a, Object b, Object c, Object d, Object e); }
+        interface VoidInvoker0 { void invoke(); }
+        interface VoidInvoker1 { void invoke(Object a); }
+        interface VoidInvoker2 { void invoke(Object a, Object b); }
+        interface VoidInvoker3 { void invoke(Object a, Object b, Object c); }
+        interface VoidInvoker4 { void invoke(Object a, Object b, Object c, Object d); }
+        interface VoidInvoker5 { void invoke(Object a, Object b, Object c, Object d, Object e); }
+
+        final Object invoker;
+        final int arguments;
+        final boolean instance;
+        final boolean returnsVoid;
+        final Type[] parameterTypes;
+        final Annotation[][] parameterAnnotations;
+
+        private LambdaFunction(Object invoker,
+                               int arguments,
+                               boolean instance,
+                               boolean returnsVoid,
+                               Type[] parameterTypes,
+                               Annotation[][] parameterAnnotations) {
+            this.invoker = invoker;
+            this.arguments = arguments;
+            this.instance = instance;
+            this.returnsVoid = returnsVoid;
+            this.parameterTypes = parameterTypes;
+            this.parameterAnnotations = parameterAnnotations;
+        }
+
+        /**
+         * @param handle the direct handle of the member
+         * @return the function, or null if the member does not qualify
+         */
+        static ParameterizedFunction of(Executable member,
+                                        MethodHandle handle,
+                                        Type[] parameterTypes,
+                                        Annotation[][] parameterAnnotations) {
+            MethodType type = handle.type();
+            if (type.parameterCount() > MAX_ARGUMENTS || !isCallable(member)) {
+                return null;
+            }
+            boolean returnsVoid = type.returnType() == void.class;
+            int arguments = type.parameterCount();
+            MethodType erased = MethodType.genericMethodType(arguments);
+            MethodType instantiated = type.wrap();
+            if (returnsVoid) {
+                erased = erased.changeReturnType(void.class);
+                instantiated = instantiated.changeReturnType(void.class);
+            }
+            Object invoker;
+            try {
+                CallSite callSite = LambdaMetafactory.metafactory(
+                        LOOKUP,
+                        "invoke",
+                        MethodType.methodType((returnsVoid ? VOID_INVOKERS : INVOKERS)[arguments]),
+                        erased,
+                        handle,
+                        instantiated);
+                invoker = callSite.getTarget().invoke();
+            } catch (Throwable e) {
+                return null;
+            }
+            boolean instance = member instanceof Method && !Modifier.isStatic(member.getModifiers());
+            return new LambdaFunction(invoker, arguments, instance, returnsVoid, parameterTypes, parameterAnnotations);
         }
 
-        @Override public Object invoke(Object onInstance, Object[] params)
-                throws InvocationTargetException, IllegalAccessException, InstantiationException {
-            return constructor.newInstance(params);
+        private static boolean isCallable(Executable member) {
+            if (!Modifier.isPublic(member.getModifiers()) || member.isVarArgs() || !isVisible(member.getDeclaringClass())) {
+                return false;
+            }
+            for (Class<?> parameterType : member.getParameterTypes()) {
+                if (!isVisible(parameterType)) {
+                    return false;
+                }
+            }
+            return !(member instanceof Method) || isVisible(((Method) member).getReturnType());
+        }
+
+        /**
+         * @return true if the type is public and the class loader of gunmetal, which defines the spun
+         * classes, resolves its name to it
+         */
+        private static boolean isVisible(Class<?> type) {
+            while (type.isArray()) {
+                type = type.getComponentType();
+            }
+            if (type.isPrimitive()) {
+                return true;
+            }
+            for (Class<?> c = type; c != null; c = c.getDeclaringClass()) {
+                if (!Modifier.isPublic(c.getModifiers())) {
+                    return false;
+                }
+            }
+            ClassLoader typeLoader = type.getClassLoader();
+            if (typeLoader == null) {
+                return true;
+            }
+            for (ClassLoader loader = LOOKUP.lookupClass().getClassLoader(); loader != null; loader = loader.getParent()) {
+                if (loader == typeLoader) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override public Object invoke(Object onInstance, Object[] params) throws Throwable {
+            if (returnsVoid) {
+                invokeVoid(onInstance, params);
+                return null;
+            }
+            switch (arguments) {
+                case 0:
+                    return ((Invoker0) invoker).invoke();
+                case 1:
+                    return ((Invoker1) invoker).invoke(
+                            argument(0, onInstance, params));
+                case 2:
+                    return ((Invoker2) invoker).invoke(
+                            argument(0, onInstance, params), argument(1, onInstance, params));
+                case 3:
+                    return ((Invoker3) invoker).invoke(
+                            argument(0, onInstance, params), argument(1, onInstance, params),
+                            argument(2, onInstance, params));
+                case 4:
+                    return ((Invoker4) invoker).invoke(
+                            argument(0, onInstance, params), argument(1, onInstance, params),
+                            argument(2, onInstance, params), argument(3, onInstance, params));
+                default:
+                    return ((Invoker5) invoker).invoke(
+                            argument(0, onInstance, params), argument(1, onInstance, params),
+                            argument(2, onInstance, params), argument(3, onInstance, params),
+                            argument(4, onInstance, params));
+            }
+        }
+
+        private void invokeVoid(Object onInstance, Object[] params) {
+            switch (arguments) {
+                case 0:
+                    ((VoidInvoker0) invoker).invoke();
+                    break;
+                case 1:
+                    ((VoidInvoker1) invoker).invoke(
+                            argument(0, onInstance, params));
+                    break;
+                case 2:
+                    ((VoidInvoker2) invoker).invoke(
+                            argument(0, onInstance, params), argument(1, onInstance, params));
+                    break;
+                case 3:
+                    ((VoidInvoker3) invoker).invoke(
+                            argument(0, onInstance, params), argument(1, onInstance, params),
+                            argument(2, onInstance, params));
+                    break;
+                case 4:
+                    ((VoidInvoker4) invoker).invoke(
+                            argument(0, onInstance, params), argument(1, onInstance, params),
+                            argument(2, onInstance, params), argument(3, onInstance, params));
+                    break;
+                default:
+                    ((VoidInvoker5) invoker).invoke(
+                            argument(0, onInstance, params), argument(1, onInstance, params),
+                            argument(2, onInstance, params), argument(3, onInstance, params),
+                            argument(4, onInstance, params));
+                    break;
+            }
+        }
+
+        /**
+         * @return the argument at the index, where the target of an instance method comes first
+         */
+        private Object argument(int index, Object onInstance, Object[] params) {
+            if (instance) {
+                return index == 0 ? onInstance : params[index - 1];
+            }
+            return params[index];
         }
 
         @Override public Type[] getParameterTypes() {
-            return constructor.getGenericParameterTypes();
+            return parameterTypes;
         }
 
         @Override public Annotation[][] getParameterAnnotations() {
-            return constructor.getParameterAnnotations();
+            return parameterAnnotations;
         }
     }
 
-    private static class FieldInjector implements Injector {
+    private static class MethodHandleFunction implements ParameterizedFunction {
+        final MethodHandle handle;
+        final Type[] parameterTypes;
+        final Annotation[][] parameterAnnotations;
+
+        /**
+         * @param handle of type (Object, Object[])Object, where the first argument is the target instance
+         */
+        MethodHandleFunction(MethodHandle handle, Type[] parameterTypes, Annotation[][] parameterAnnotations) {
+            this.handle = handle;
+            this.parameterTypes = parameterTypes;
+            this.parameterAnnotations = parameterAnnotations;
+        }
 
-        private final Field field;
-        private final ResourceMetadata<?> resourceMetadata;
-        private final Dependency dependency;
-        private ProvisionStrategy provisionStrategy;
-
-        FieldInjector(Field field,
-                      final ResourceMetadata<?> resourceMetadata,
-                      final Dependency dependency,
-                      Linkers linkers) {
-            field.setAccessible(true);
-            linkers.addWiringLinker((supplier, linkingContext) ->
-                    provisionStrategy = supplier.supply(
-                            DependencyRequest.create(
-                                    resourceMetadata,
-                                    dependency)));
-            this.field = field;
-            this.resourceMetadata = resourceMetadata;
-            this.dependency = dependency;
+        @Override public Object invoke(Object onInstance, Object[] params) throws Throwable {
+            return (Object) handle.invokeExact(onInstance, params);
         }
 
-        FieldInjector(Field field,
-                      ResourceMetadata<?> resourceMetadata,
-                      Dependency dependency,
-                      ProvisionStrategy provisionStrategy) {
-            field.setAccessible(true);
-            this.field = field;
-            this.resourceMetadata = resourceMetadata;
-            this.dependency = dependency;
-            this.provisionStrategy = provisionStrategy;
+        @Override public Type[] getParameterTypes() {
+            return parameterTypes;
         }
 
-        @Override public Object inject(Object target,
-                                       DependencySupplier dependencySupplier,
-                                       ResolutionContext resolutionContext) {
+        @Override public Annotation[][] getParameterAnnotations() {
+            return parameterAnnotations;
+        }
+    }
+
+    private static class MethodFunction implements ParameterizedFunction {
+        final Method method;
+
+        MethodFunction(Method method) {
+            method.setAccessible(true);
+            this.method = method;
+        }
+
+        @Override public Object invoke(Object onInstance, Object[] params) throws Throwable {
             try {
-                field.set(target, provisionStrategy.get(dependencySupplier, resolutionContext));
-                return null;
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException("An unexpected exception has occurred", e);
+                return method.invoke(onInstance, params);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
             }
         }
 
-        @Override public Injector replicateWith(ComponentContext context) {
-            return new FieldInjector(field, resourceMetadata, dependency, context.linkers());
+        @Override public Type[] getParameterTypes() {
+            return method.getGenericParameterTypes();
         }
 
-        @Override public List<Dependency> dependencies() {
-            return Collections.singletonList(dependency);
+        @Override public Annotation[][] getParameterAnnotations() {
+            return method.getParameterAnnotations();
+        }
+    }
+
+    private static class ConstructorFunction implements ParameterizedFunction {
+        final Constructor<?> constructor;
+
+        ConstructorFunction(Constructor<?> constructor) {
+            constructor.setAccessible(true);
+            this.constructor = constructor;
         }
 
+        @Override public Object invoke(Object onInstance, Object[] params) throws Throwable {
+            try {
+                return constructor.newInstance(params);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        @Override public Type[] getParameterTypes() {
+            return constructor.getGenericParameterTypes();
+        }
+
+        @Override public Annotation[][] getParameterAnnotations() {
+            return constructor.getParameterAnnotations();
+        }
     }
 
     private static class ReverseFieldInjector implements Injector {
 
-        private final Field field;
+        private final FieldGetter getter;
 
-        ReverseFieldInjector(Field field) {
-            field.setAccessible(true);
-            this.field = field;
+        ReverseFieldInjector(FieldGetter getter) {
+            this.getter = getter;
         }
 
         @Override public Injector replicateWith(ComponentContext context) {
-            return new ReverseFieldInjector(field);
+            return this;
         }
 
         @Override public Object inject(Object target, DependencySupplier dependencySupplier, ResolutionContext resolutionContext) {
             try {
-                return field.get(target);
-            } catch (IllegalAccessException e) {
+                return getter.get(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
                 throw new RuntimeException("An unexpected exception has occurred", e);
             }
         }
@@ -360,7 +784,7 @@ class InjectorFactoryImpl implements InjectorFactory {
         private final ParameterizedFunction function;
         private final ResourceMetadata<?> resourceMetadata;
         private final Dependency[] dependencies;
-        private final ProvisionStrategy[] provisionStrategies;
+        private volatile ProvisionStrategy[] provisionStrategies;
 
         FunctionInjector(final ParameterizedFunction function,
                          final ResourceMetadata<?> resourceMetadata,
@@ -369,38 +793,44 @@ class InjectorFactoryImpl implements InjectorFactory {
             this.function = function;
             this.resourceMetadata = resourceMetadata;
             this.dependencies = dependencies;
-            provisionStrategies = new ProvisionStrategy[dependencies.length];
-            linkers.addWiringLinker((supplier, linkingContext) -> {
-                for (int i = 0; i < dependencies.length; i++) {
-                    provisionStrategies[i] = supplier.supply(
-                            DependencyRequest.create(resourceMetadata, dependencies[i]));
-                }
-            });
+            linkers.addWiringLinker((OnDemandLinker) (supplier, linkingContext) -> link(supplier));
         }
 
-        FunctionInjector(ParameterizedFunction function,
-                         ResourceMetadata<?> resourceMetadata,
-                         Dependency[] dependencies,
-                         ProvisionStrategy[] provisionStrategies) {
-            this.function = function;
-            this.resourceMetadata = resourceMetadata;
-            this.dependencies = dependencies;
+        private ProvisionStrategy[] link(DependencySupplier supplier) {
+            ProvisionStrategy[] provisionStrategies = new ProvisionStrategy[dependencies.length];
+            for (int i = 0; i < dependencies.length; i++) {
+                provisionStrategies[i] = supplier.supply(
+                        DependencyRequest.create(resourceMetadata, dependencies[i]));
+            }
             this.provisionStrategies = provisionStrategies;
+            return provisionStrategies;
         }
 
         @Override public Object inject(Object target,
                                        DependencySupplier dependencySupplier,
                                        ResolutionContext resolutionContext) {
-            Object[] parameters = new Object[provisionStrategies.length];
-            for (int i = 0; i < parameters.length; i++) {
-                parameters[i] = provisionStrategies[i].get(dependencySupplier, resolutionContext);
+            ProvisionStrategy[] provisionStrategies = this.provisionStrategies;
+            if (provisionStrategies == null) {
+                provisionStrategies = link(dependencySupplier);
+            }
+            AsyncResolution asyncResolution = ComponentContext.asyncResolution(resolutionContext);
+            Object[] parameters;
+            if (asyncResolution == null) {
+                parameters = new Object[provisionStrategies.length];
+                for (int i = 0; i < parameters.length; i++) {
+                    parameters[i] = provisionStrategies[i].get(dependencySupplier, resolutionContext);
+                }
+            } else {
+                asyncResolution.checkCancelled();
+                parameters = asyncResolution.resolveAll(
+                        resourceMetadata, provisionStrategies, dependencySupplier, resolutionContext);
+                asyncResolution.checkCancelled();
             }
             try {
                 return function.invoke(target, parameters);
-            } catch (IllegalAccessException | InvocationTargetException | InstantiationException  e) {
-                if (e.getCause() != null && e.getCause() instanceof RuntimeException) {
-                    throw (RuntimeException) e.getCause();
-                }
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
                 throw new RuntimeException(e);
             }
         }
@@ -415,37 +845,189 @@ class InjectorFactoryImpl implements InjectorFactory {
 
     }
 
+    private Members members(Class<?> target,
+                            ResourceMetadata<?> resourceMetadata,
+                            ComponentContext context) {
+
+        Members members = new Members();
+
+        classWalker.walk(target,
+                field -> {
+                    members.fieldSetters.add(functionFactory.setter(field));
+                    members.fieldDependencies.add(Dependency.from(
+                            qualifierResolver.resolveDependencyQualifier(
+                                    field,
+                                    resourceMetadata.moduleMetadata().qualifier()),
+                            field.getGenericType()));
+                },
+                method -> {
+                    ParameterizedFunction function = functionFactory.forMethod(method);
+                    members.methods.add(function);
+                    members.methodDependencies.add(dependenciesForFunction(
+                            resourceMetadata,
+                            function,
+                            qualifierResolver));
+                },
+                resourceMetadata,
+                (error) -> context.errors().add(resourceMetadata, error));
+
+        return members;
+    }
+
+    /**
+     * @return the dependencies of the injectable members of a class, without preparing them for injection
+     */
+    private List<Dependency> memberDependencies(Class<?> target, ResourceMetadata<?> resourceMetadata) {
+        List<Dependency> dependencies = new ArrayList<>();
+        if (target.isInterface() || target.isPrimitive() || target.isArray()) {
+            return dependencies;
+        }
+        classWalker.walk(target,
+                field -> dependencies.add(Dependency.from(
+                        qualifierResolver.resolveDependencyQualifier(
+                                field,
+                                resourceMetadata.moduleMetadata().qualifier()),
+                        field.getGenericType())),
+                method -> Collections.addAll(dependencies, dependenciesForFunction(
+                        resourceMetadata,
+                        new MethodFunction(method),
+                        qualifierResolver)),
+                resourceMetadata,
+                // reported if and when the members are injected
+                (error) -> { });
+        return dependencies;
+    }
+
+    /**
+     * The injectable fields and methods of a class, as collected by the {@link ClassWalker}.
+     */
+    private static class Members {
+
+        final List<FieldSetter> fieldSetters = new ArrayList<>();
+        final List<Dependency> fieldDependencies = new ArrayList<>();
+        final List<ParameterizedFunction> methods = new ArrayList<>();
+        final List<Dependency[]> methodDependencies = new ArrayList<>();
+
+    }
+
+    /**
+     * Injects the members of a class from flat arrays of field setters and method functions, linked
+     * together, rather than through a separate {@link Injector} per field and method.  Each member is
+     * still set or invoked through its own {@link FieldSetter} or {@link ParameterizedFunction}, so the
+     * members are not fused into one injector for the class.  Generating such an injector would need
+     * access to the members that gunmetal's class loader does not have.
+     */
     private static class CompositeInjector implements Injector {
 
-        private final List<Injector> injectors;
+        private final ResourceMetadata<?> resourceMetadata;
+        private final FieldSetter[] fieldSetters;
+        private final Dependency[] fieldDependencies;
+        private final ParameterizedFunction[] methods;
+        private final Dependency[][] methodDependencies;
+        // the field strategies at index 0, followed by the strategies of each method
+        private volatile ProvisionStrategy[][] strategies;
+
+        CompositeInjector(Members members,
+                          ResourceMetadata<?> resourceMetadata,
+                          Linkers linkers) {
+            this(
+                    members.fieldSetters.toArray(new FieldSetter[members.fieldSetters.size()]),
+                    members.fieldDependencies.toArray(new Dependency[members.fieldDependencies.size()]),
+                    members.methods.toArray(new ParameterizedFunction[members.methods.size()]),
+                    members.methodDependencies.toArray(new Dependency[members.methodDependencies.size()][]),
+                    resourceMetadata);
+            linkers.addWiringLinker((OnDemandLinker) (supplier, linkingContext) -> link(supplier));
+        }
+
+        CompositeInjector(Members members,
+                          ResourceMetadata<?> resourceMetadata,
+                          DependencySupplier dependencySupplier) {
+            this(
+                    members.fieldSetters.toArray(new FieldSetter[members.fieldSetters.size()]),
+                    members.fieldDependencies.toArray(new Dependency[members.fieldDependencies.size()]),
+                    members.methods.toArray(new ParameterizedFunction[members.methods.size()]),
+                    members.methodDependencies.toArray(new Dependency[members.methodDependencies.size()][]),
+                    resourceMetadata);
+            link(dependencySupplier);
+        }
 
-        CompositeInjector(List<Injector> injectors) {
-            this.injectors = injectors;
+        private CompositeInjector(FieldSetter[] fieldSetters,
+                                  Dependency[] fieldDependencies,
+                                  ParameterizedFunction[] methods,
+                                  Dependency[][] methodDependencies,
+                                  ResourceMetadata<?> resourceMetadata) {
+            this.resourceMetadata = resourceMetadata;
+            this.fieldSetters = fieldSetters;
+            this.fieldDependencies = fieldDependencies;
+            this.methods = methods;
+            this.methodDependencies = methodDependencies;
+        }
+
+        private ProvisionStrategy[][] link(DependencySupplier supplier) {
+            ProvisionStrategy[][] strategies = new ProvisionStrategy[methodDependencies.length + 1][];
+            strategies[0] = new ProvisionStrategy[fieldDependencies.length];
+            for (int i = 0; i < fieldDependencies.length; i++) {
+                strategies[0][i] = supplier.supply(
+                        DependencyRequest.create(resourceMetadata, fieldDependencies[i]));
+            }
+            for (int i = 0; i < methodDependencies.length; i++) {
+                Dependency[] dependencies = methodDependencies[i];
+                strategies[i + 1] = new ProvisionStrategy[dependencies.length];
+                for (int j = 0; j < dependencies.length; j++) {
+                    strategies[i + 1][j] = supplier.supply(
+                            DependencyRequest.create(resourceMetadata, dependencies[j]));
+                }
+            }
+            this.strategies = strategies;
+            return strategies;
         }
 
         @Override public Object inject(Object target,
                                        DependencySupplier dependencySupplier,
                                        ResolutionContext resolutionContext) {
-            if (!injectors.isEmpty()) {
-                for (Injector injector : injectors) {
-                    injector.inject(target, dependencySupplier, resolutionContext);
+            ProvisionStrategy[][] strategies = this.strategies;
+            if (strategies == null) {
+                strategies = link(dependencySupplier);
+            }
+            ProvisionStrategy[] fieldStrategies = strategies[0];
+            for (int i = 0; i < fieldSetters.length; i++) {
+                Object value = fieldStrategies[i].get(dependencySupplier, resolutionContext);
+                try {
+                    fieldSetters[i].set(target, value);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new RuntimeException("An unexpected exception has occurred", e);
+                }
+            }
+            for (int i = 0; i < methods.length; i++) {
+                ProvisionStrategy[] methodStrategies = strategies[i + 1];
+                Object[] parameters = new Object[methodStrategies.length];
+                for (int j = 0; j < parameters.length; j++) {
+                    parameters[j] = methodStrategies[j].get(dependencySupplier, resolutionContext);
+                }
+                try {
+                    methods[i].invoke(target, parameters);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new RuntimeException(e);
                 }
             }
             return null;
         }
 
         @Override public Injector replicateWith(ComponentContext context) {
-            List<Injector> newInjectors = new ArrayList<>();
-            for (Injector injector : injectors) {
-                newInjectors.add(injector.replicateWith(context));
-            }
-            return new CompositeInjector(newInjectors);
+            CompositeInjector injector = new CompositeInjector(
+                    fieldSetters, fieldDependencies, methods, methodDependencies, resourceMetadata);
+            context.linkers().addWiringLinker((OnDemandLinker) (supplier, linkingContext) -> injector.link(supplier));
+            return injector;
         }
 
         @Override public List<Dependency> dependencies() {
-            List<Dependency> dependencies = new LinkedList<>();
-            for (Injector injector : injectors) {
-                dependencies.addAll(injector.dependencies());
+            List<Dependency> dependencies = new ArrayList<>(Arrays.asList(fieldDependencies));
+            for (Dependency[] functionDependencies : methodDependencies) {
+                Collections.addAll(dependencies, functionDependencies);
             }
             return dependencies;
         }
@@ -454,98 +1036,65 @@ class InjectorFactoryImpl implements InjectorFactory {
 
     private static class LazyCompositeInjector implements Injector {
 
-        private final ClassWalker classWalker;
-        private final QualifierResolver qualifierResolver;
+        private final InjectorFactoryImpl injectorFactory;
         private final ResourceMetadata<?> resourceMetadata;
         private final ComponentContext context;
-        private volatile List<Injector> injectors;
+        private volatile CompositeInjector injector;
 
-        LazyCompositeInjector(ClassWalker classWalker,
-                              QualifierResolver qualifierResolver,
+        LazyCompositeInjector(InjectorFactoryImpl injectorFactory,
                               ResourceMetadata<?> resourceMetadata,
                               ComponentContext context) {
-            this.classWalker = classWalker;
-            this.qualifierResolver = qualifierResolver;
+            this.injectorFactory = injectorFactory;
             this.resourceMetadata = resourceMetadata;
             this.context = context;
         }
 
-        void init(Class<?> targetClass, final DependencySupplier dependencySupplier) {
-
-            injectors = new ArrayList<>();
-
-            classWalker.walk(targetClass,
-                    field -> {
-                        Dependency dependency = Dependency.from(
-                                qualifierResolver.resolveDependencyQualifier(
-                                        field,
-                                        resourceMetadata.moduleMetadata().qualifier()),
-                                field.getGenericType());
-                        ProvisionStrategy provisionStrategy = dependencySupplier.supply(
-                                DependencyRequest.create(resourceMetadata, dependency));
-                        injectors.add(new FieldInjector(field, resourceMetadata, dependency, provisionStrategy));
-                    },
-                    method -> {
-                        ParameterizedFunction function = new MethodFunction(method);
-                        Dependency[] dependencies =
-                                dependenciesForFunction(
-                                        resourceMetadata,
-                                        function,
-                                        qualifierResolver);
-                        ProvisionStrategy[] provisionStrategies = new ProvisionStrategy[dependencies.length];
-                        for (int i = 0; i < dependencies.length; i++) {
-                            provisionStrategies[i] = dependencySupplier.supply(
-                                    DependencyRequest.create(resourceMetadata, dependencies[i]));
-                        }
-                        injectors.add(new FunctionInjector(
-                                function,
-                                resourceMetadata,
-                                dependencies,
-                                provisionStrategies));
-                    },
-                    resourceMetadata,
-                    (error) -> context.errors().add(resourceMetadata, error));
-        }
-
         @Override public Object inject(
                 Object target, DependencySupplier dependencySupplier, ResolutionContext resolutionContext) {
-            if (injectors == null) {
+            if (target == null) {
+                // a provider returned null, there are no members to inject
+                return null;
+            }
+            CompositeInjector injector = this.injector;
+            if (injector == null) {
                 synchronized (this) {
-                    if (injectors == null) {
-                        init(target.getClass(), dependencySupplier);
+                    injector = this.injector;
+                    if (injector == null) {
+                        injector = new CompositeInjector(
+                                injectorFactory.members(target.getClass(), resourceMetadata, context),
+                                resourceMetadata,
+                                dependencySupplier);
+                        this.injector = injector;
                     }
                 }
             }
-            if (!injectors.isEmpty()) {
-                for (Injector injector : injectors) {
-                    injector.inject(target, dependencySupplier, resolutionContext);
-                }
-            }
-            return null;
+            return injector.inject(target, dependencySupplier, resolutionContext);
         }
 
         @Override public Injector replicateWith(ComponentContext context) {
-            if (injectors == null) {
-                return new LazyCompositeInjector(classWalker, qualifierResolver, resourceMetadata, context);
+            CompositeInjector injector = this.injector;
+            if (injector == null) {
+                return new LazyCompositeInjector(injectorFactory, resourceMetadata, context);
             }
-            List<Injector> newInjectors =
-                    injectors
-                            .stream()
-                            .map(injector -> injector.replicateWith(context))
-                            .collect(Collectors.toList());
-            return new CompositeInjector(newInjectors);
+            return injector.replicateWith(context);
         }
 
+        /**
+         * @return the dependencies of the injected members, taken from the declared type of the provider
+         * until the class of the provided instance is known
+         */
         @Override public List<Dependency> dependencies() {
-            if (injectors == null) {
-                throw new IllegalStateException("The provision [" + resourceMetadata.toString()
-                        + "] cannot have it's dependencies queried before it has been initialized.");
-            }
-            List<Dependency> dependencies = new LinkedList<>();
-            for (Injector injector : injectors) {
-                dependencies.addAll(injector.dependencies());
+            CompositeInjector injector = this.injector;
+            if (injector == null) {
+                AnnotatedElement provider = resourceMetadata.provider();
+                if (provider instanceof Method) {
+                    return injectorFactory.memberDependencies(((Method) provider).getReturnType(), resourceMetadata);
+                } else if (provider instanceof Field) {
+                    return injectorFactory.memberDependencies(((Field) provider).getType(), resourceMetadata);
+                }
+                return Collections.emptyList();
             }
-            return dependencies;
+            return injector.dependencies();
         }
 
     }
@@ -577,6 +1126,7 @@ class InjectorFactoryImpl implements InjectorFactory {
         private final Injector injector;
         private final ResourceMetadata<?> resourceMetadata;
         private final Dependency moduleDependency;
+        private volatile ProvisionStrategy provisionStrategy;
 
         StatefulInstantiator(Injector injector,
                              ResourceMetadata<?> resourceMetadata,
@@ -591,11 +1141,15 @@ class InjectorFactoryImpl implements InjectorFactory {
         }
 
         @Override public Object newInstance(DependencySupplier supplier, ResolutionContext resolutionContext) {
-            ProvisionStrategy provisionStrategy = supplier
-                    .supply(DependencyRequest.create(resourceMetadata, moduleDependency));
+            // the module is resolved on the first provision rather than looked up in the graph on each
+            ProvisionStrategy provisionStrategy = this.provisionStrategy;
             if (provisionStrategy == null) {
-                throw new IllegalStateException(
-                        "Missing stateful module defined by " + moduleDependency);
+                provisionStrategy = supplier.supply(DependencyRequest.create(resourceMetadata, moduleDependency));
+                if (provisionStrategy == null) {
+                    throw new IllegalStateException(
+                            "Missing stateful module defined by " + moduleDependency);
+                }
+                this.provisionStrategy = provisionStrategy;
             }
             return injector.inject(
                     provisionStrategy.get(supplier, resolutionContext), supplier, resolutionContext);
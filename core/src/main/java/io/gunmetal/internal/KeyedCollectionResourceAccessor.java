@@ -0,0 +1,234 @@
+package io.gunmetal.internal;
+
+import io.gunmetal.MapKey;
+import io.gunmetal.spi.Dependency;
+import io.gunmetal.spi.DependencyRequest;
+import io.gunmetal.spi.DependencySupplier;
+import io.gunmetal.spi.Errors;
+import io.gunmetal.spi.ProvisionStrategy;
+import io.gunmetal.spi.ResolutionContext;
+import io.gunmetal.spi.ResourceMetadata;
+import io.gunmetal.spi.Scopes;
+import io.gunmetal.spi.SupplierAdapter;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Provisions the elements of a multi-bind collection as a {@link KeyedMap}, keyed by the {@link MapKey}
+ * annotation of each element, for a {@code @MultiBind Map<K, T>} or {@code @MultiBind Map<K, Supplier<T>>}.
+ *
+ * The keys are checked when the map is linked, and the layout of the map and the provision strategies of
+ * the elements are resolved on the first request, and again, checking the keys, after an element is added.
+ * A map of suppliers, or of elements that are all singletons, is shared by the component across requests
+ * until an element is added.  Otherwise each request provisions the values into a new map over the same
+ * layout.
+ *
+ * @author rees.byars
+ */
+class KeyedCollectionResourceAccessor implements CollectionViewResourceAccessor {
+
+    private final CollectionResourceAccessor collectionAccessor;
+    private final Dependency collectionDependency;
+    private final Dependency mapDependency;
+    private final Class<?> keyType;
+    private final SupplierAdapter supplierAdapter;
+    private final Binding binding;
+    private final ProvisionStrategy provisionStrategy = this::provision;
+    private volatile Elements elements;
+
+    /**
+     * @param supplierAdapter the adapter to supply the values with, or null if the values are the elements
+     */
+    KeyedCollectionResourceAccessor(
+            CollectionResourceAccessor collectionAccessor,
+            Dependency collectionDependency,
+            Dependency mapDependency,
+            Class<?> keyType,
+            SupplierAdapter supplierAdapter) {
+        this.collectionAccessor = collectionAccessor;
+        this.collectionDependency = collectionDependency;
+        this.mapDependency = mapDependency;
+        this.keyType = keyType;
+        this.supplierAdapter = supplierAdapter;
+        binding = new BindingImpl(
+                collectionAccessor.binding().resource(),
+                Collections.singletonList(mapDependency));
+    }
+
+    @Override public ResourceAccessor replicateWith(ComponentContext context) {
+        return replicateWith((CollectionResourceAccessor) collectionAccessor.replicateWith(context));
+    }
+
+    @Override public CollectionViewResourceAccessor replicateWith(CollectionResourceAccessor collectionAccessor) {
+        return new KeyedCollectionResourceAccessor(
+                collectionAccessor,
+                collectionDependency,
+                mapDependency,
+                keyType,
+                supplierAdapter);
+    }
+
+    @Override public Binding binding() {
+        return binding;
+    }
+
+    @Override public Dependency collectionDependency() {
+        return collectionDependency;
+    }
+
+    @Override public CollectionResourceAccessor collectionAccessor() {
+        return collectionAccessor;
+    }
+
+    @Override public ProvisionStrategy process(DependencyRequest dependencyRequest, Errors errors) {
+        collectionAccessor.process(DependencyRequest.create(dependencyRequest, collectionDependency), errors);
+        Set<Object> keys = new HashSet<>();
+        for (ResourceAccessor element : collectionAccessor.elements()) {
+            ResourceMetadata<?> resourceMetadata = element.binding().resource().metadata();
+            String error = keyError(key(resourceMetadata), keys);
+            if (error != null) {
+                errors.add(resourceMetadata, error);
+            }
+        }
+        return force();
+    }
+
+    @Override public ProvisionStrategy force() {
+        return provisionStrategy;
+    }
+
+    private Object provision(DependencySupplier supplier, ResolutionContext resolutionContext) {
+        Elements elements = resolvedElements();
+        if (!elements.shared) {
+            return new KeyedMap(elements.layout, values(elements, supplier, resolutionContext));
+        }
+        ComponentContext componentContext = ComponentContext.of(resolutionContext);
+        SharedMap shared = (SharedMap) componentContext.sharedProvision(this);
+        if (shared != null && shared.elements == elements) {
+            return shared.map;
+        }
+        // the map shared before an element was added is replaced
+        SharedMap map = new SharedMap(elements, new KeyedMap(elements.layout, values(elements, supplier, resolutionContext)));
+        return ((SharedMap) componentContext.replaceSharedProvision(this, shared, map)).map;
+    }
+
+    private Object[] values(Elements elements,
+                            DependencySupplier supplier,
+                            ResolutionContext resolutionContext) {
+        Object[] values = new Object[elements.strategies.length];
+        if (supplierAdapter == null) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = elements.strategies[i].get(supplier, resolutionContext);
+            }
+            return values;
+        }
+        // the suppliers keep the requester rather than the requesting context and the instances it provisioned
+        ComponentContext.Requester requester = ComponentContext.requester(resolutionContext);
+        for (int i = 0; i < values.length; i++) {
+            ProvisionStrategy strategy = elements.strategies[i];
+            values[i] = supplierAdapter.supplier(() -> ComponentContext.resolve(strategy, supplier, requester));
+        }
+        return values;
+    }
+
+    private Elements resolvedElements() {
+        List<ResourceAccessor> elementAccessors = collectionAccessor.elements();
+        Elements elements = this.elements;
+        if (elements != null && elements.strategies.length == elementAccessors.size()) {
+            return elements;
+        }
+        synchronized (this) {
+            elements = this.elements;
+            if (elements != null && elements.strategies.length == elementAccessors.size()) {
+                return elements;
+            }
+            // the elements may have been added after linking, by just-in-time bindings, so the keys are checked again
+            Object[] keys = new Object[elementAccessors.size()];
+            ProvisionStrategy[] strategies = new ProvisionStrategy[keys.length];
+            Set<Object> distinctKeys = new HashSet<>();
+            boolean shared = true;
+            for (int i = 0; i < keys.length; i++) {
+                ResourceAccessor element = elementAccessors.get(i);
+                ResourceMetadata<?> resourceMetadata = element.binding().resource().metadata();
+                keys[i] = key(resourceMetadata);
+                String error = keyError(keys[i], distinctKeys);
+                if (error != null) {
+                    throw new IllegalStateException(error + " [" + resourceMetadata + "]");
+                }
+                strategies[i] = element.force();
+                shared &= supplierAdapter != null || resourceMetadata.scope() == Scopes.SINGLETON;
+            }
+            elements = new Elements(new KeyedMap.Layout(keys), strategies, shared);
+            this.elements = elements;
+            return elements;
+        }
+    }
+
+    /**
+     * @return why the key can not be in the map, or null if it can, in which case it is added to the keys
+     */
+    private String keyError(Object key, Set<Object> keys) {
+        if (key == null) {
+            return "A multi-bind element has no key for the map -> " + mapDependency;
+        } else if (!keyType.isInstance(key)) {
+            return "The key [" + key + "] is not a " + keyType.getName() + " -> " + mapDependency;
+        } else if (!keys.add(key)) {
+            return "More than one multi-bind element has the key [" + key + "] -> " + mapDependency;
+        }
+        return null;
+    }
+
+    /**
+     * @return the value of the {@link MapKey} annotation of the provider, or null if it has none
+     */
+    static Object key(ResourceMetadata<?> resourceMetadata) {
+        if (!(resourceMetadata.provider() instanceof AnnotatedElement)) {
+            return null;
+        }
+        for (Annotation annotation : ((AnnotatedElement) resourceMetadata.provider()).getAnnotations()) {
+            if (annotation.annotationType().isAnnotationPresent(MapKey.class)) {
+                try {
+                    Method value = annotation.annotationType().getDeclaredMethod("value");
+                    value.setAccessible(true);
+                    return value.invoke(annotation);
+                } catch (ReflectiveOperationException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static final class SharedMap {
+
+        final Elements elements;
+        final KeyedMap map;
+
+        SharedMap(Elements elements, KeyedMap map) {
+            this.elements = elements;
+            this.map = map;
+        }
+
+    }
+
+    private static final class Elements {
+
+        final KeyedMap.Layout layout;
+        final ProvisionStrategy[] strategies;
+        final boolean shared;
+
+        Elements(KeyedMap.Layout layout, ProvisionStrategy[] strategies, boolean shared) {
+            this.layout = layout;
+            this.strategies = strategies;
+            this.shared = shared;
+        }
+
+    }
+
+}
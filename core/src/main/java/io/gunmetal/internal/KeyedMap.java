@@ -0,0 +1,117 @@
+package io.gunmetal.internal;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An unmodifiable map over the values of a keyed multi-bind, iterated in the order the elements were bound.
+ *
+ * The keys and the table to find them are a {@link Layout} built once for the binding, so a map only
+ * holds its values.  The table is open addressed with linear probing and kept at most half full, and
+ * holds the index of each key plus one, so a lookup is a hash and usually a single probe.
+ *
+ * @author rees.byars
+ */
+final class KeyedMap extends AbstractMap<Object, Object> {
+
+    private final Layout layout;
+    private final Object[] values;
+
+    KeyedMap(Layout layout, Object[] values) {
+        this.layout = layout;
+        this.values = values;
+    }
+
+    @Override public Object get(Object key) {
+        int index = layout.indexOf(key);
+        return index < 0 ? null : values[index];
+    }
+
+    @Override public boolean containsKey(Object key) {
+        return layout.indexOf(key) >= 0;
+    }
+
+    @Override public int size() {
+        return values.length;
+    }
+
+    @Override public Set<Entry<Object, Object>> entrySet() {
+        return new AbstractSet<Entry<Object, Object>>() {
+
+            @Override public Iterator<Entry<Object, Object>> iterator() {
+                return new Iterator<Entry<Object, Object>>() {
+
+                    private int index;
+
+                    @Override public boolean hasNext() {
+                        return index < values.length;
+                    }
+
+                    @Override public Entry<Object, Object> next() {
+                        if (index >= values.length) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<Object, Object> entry = new SimpleImmutableEntry<>(layout.keys[index], values[index]);
+                        index++;
+                        return entry;
+                    }
+
+                };
+            }
+
+            @Override public int size() {
+                return values.length;
+            }
+
+        };
+    }
+
+    static final class Layout {
+
+        private final Object[] keys;
+        private final int[] slots;
+        private final int mask;
+
+        /**
+         * @param keys the keys of the elements in the order they were bound, none of them null or equal
+         */
+        Layout(Object[] keys) {
+            this.keys = keys;
+            int capacity = Integer.highestOneBit(Math.max(2, keys.length) * 2 - 1) << 1;
+            slots = new int[capacity];
+            mask = capacity - 1;
+            for (int i = 0; i < keys.length; i++) {
+                int slot = spread(keys[i].hashCode()) & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = i + 1;
+            }
+        }
+
+        int indexOf(Object key) {
+            if (key == null) {
+                return -1;
+            }
+            for (int slot = spread(key.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+                int index = slots[slot] - 1;
+                if (index < 0) {
+                    return -1;
+                }
+                Object candidate = keys[index];
+                if (candidate == key || candidate.equals(key)) {
+                    return index;
+                }
+            }
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+
+    }
+
+}
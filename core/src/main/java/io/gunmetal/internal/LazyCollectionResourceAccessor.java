@@ -0,0 +1,190 @@
+package io.gunmetal.internal;
+
+import io.gunmetal.spi.Dependency;
+import io.gunmetal.spi.DependencyRequest;
+import io.gunmetal.spi.DependencySupplier;
+import io.gunmetal.spi.Errors;
+import io.gunmetal.spi.ProvisionStrategy;
+import io.gunmetal.spi.ResolutionContext;
+import io.gunmetal.spi.SupplierAdapter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
+/**
+ * Provisions the elements of a multi-bind collection lazily, for a {@code @MultiBind Iterable<T>},
+ * {@code @MultiBind Stream<T>} or {@code @MultiBind List<Supplier<T>>}, so that an element is only
+ * provisioned once the consumer reaches it.
+ *
+ * The provision strategies of the elements are resolved on the first request, and again after an element
+ * is added.  The iterable and the list of suppliers are shared by the component until an element is added,
+ * and each iteration of the iterable only allocates its iterator.  Elements are provisioned with the requesting context while the request is resolving,
+ * and otherwise with a new context of the component, as for a supplier.
+ *
+ * @author rees.byars
+ */
+class LazyCollectionResourceAccessor implements CollectionViewResourceAccessor {
+
+    enum View {
+        ITERABLE, STREAM, SUPPLIERS
+    }
+
+    private final CollectionResourceAccessor collectionAccessor;
+    private final Dependency collectionDependency;
+    private final View view;
+    private final SupplierAdapter supplierAdapter;
+    private final Binding binding;
+    private final ProvisionStrategy provisionStrategy = this::provision;
+    private volatile ProvisionStrategy[] strategies;
+
+    LazyCollectionResourceAccessor(
+            CollectionResourceAccessor collectionAccessor,
+            Dependency collectionDependency,
+            Dependency viewDependency,
+            View view,
+            SupplierAdapter supplierAdapter) {
+        this.collectionAccessor = collectionAccessor;
+        this.collectionDependency = collectionDependency;
+        this.view = view;
+        this.supplierAdapter = supplierAdapter;
+        binding = new BindingImpl(
+                collectionAccessor.binding().resource(),
+                Collections.singletonList(viewDependency));
+    }
+
+    @Override public ResourceAccessor replicateWith(ComponentContext context) {
+        return replicateWith((CollectionResourceAccessor) collectionAccessor.replicateWith(context));
+    }
+
+    @Override public CollectionViewResourceAccessor replicateWith(CollectionResourceAccessor collectionAccessor) {
+        return new LazyCollectionResourceAccessor(
+                collectionAccessor,
+                collectionDependency,
+                binding.targets().get(0),
+                view,
+                supplierAdapter);
+    }
+
+    @Override public Binding binding() {
+        return binding;
+    }
+
+    @Override public Dependency collectionDependency() {
+        return collectionDependency;
+    }
+
+    @Override public CollectionResourceAccessor collectionAccessor() {
+        return collectionAccessor;
+    }
+
+    @Override public ProvisionStrategy process(DependencyRequest dependencyRequest, Errors errors) {
+        collectionAccessor.process(DependencyRequest.create(dependencyRequest, collectionDependency), errors);
+        return force();
+    }
+
+    @Override public ProvisionStrategy force() {
+        return provisionStrategy;
+    }
+
+    private Object provision(DependencySupplier supplier, ResolutionContext resolutionContext) {
+        ProvisionStrategy[] strategies = resolvedStrategies();
+        if (view == View.STREAM) {
+            ComponentContext.Requester requester = ComponentContext.requester(resolutionContext);
+            return IntStream.range(0, strategies.length)
+                    .mapToObj(i -> ComponentContext.resolve(strategies[i], supplier, requester));
+        }
+        ComponentContext componentContext = ComponentContext.of(resolutionContext);
+        SharedView shared = (SharedView) componentContext.sharedProvision(this);
+        if (shared != null && shared.strategies == strategies) {
+            return shared.provision;
+        }
+        // the views keep the requester rather than the requesting context and the instances it provisioned
+        ComponentContext.Requester requester = ComponentContext.requester(resolutionContext);
+        Object provision;
+        if (view == View.ITERABLE) {
+            provision = new ElementIterable(strategies, supplier, requester);
+        } else {
+            Object[] suppliers = new Object[strategies.length];
+            for (int i = 0; i < suppliers.length; i++) {
+                ProvisionStrategy strategy = strategies[i];
+                suppliers[i] = supplierAdapter.supplier(() -> ComponentContext.resolve(strategy, supplier, requester));
+            }
+            provision = Collections.unmodifiableList(Arrays.asList(suppliers));
+        }
+        // the view shared before an element was added is replaced
+        return ((SharedView) componentContext.replaceSharedProvision(
+                this, shared, new SharedView(strategies, provision))).provision;
+    }
+
+    private ProvisionStrategy[] resolvedStrategies() {
+        List<ResourceAccessor> elementAccessors = collectionAccessor.elements();
+        ProvisionStrategy[] strategies = this.strategies;
+        if (strategies != null && strategies.length == elementAccessors.size()) {
+            return strategies;
+        }
+        synchronized (this) {
+            strategies = this.strategies;
+            if (strategies != null && strategies.length == elementAccessors.size()) {
+                return strategies;
+            }
+            strategies = new ProvisionStrategy[elementAccessors.size()];
+            for (int i = 0; i < strategies.length; i++) {
+                strategies[i] = elementAccessors.get(i).force();
+            }
+            this.strategies = strategies;
+            return strategies;
+        }
+    }
+
+    private static final class SharedView {
+
+        final ProvisionStrategy[] strategies;
+        final Object provision;
+
+        SharedView(ProvisionStrategy[] strategies, Object provision) {
+            this.strategies = strategies;
+            this.provision = provision;
+        }
+
+    }
+
+    private static final class ElementIterable implements Iterable<Object> {
+
+        final ProvisionStrategy[] strategies;
+        final DependencySupplier supplier;
+        final ComponentContext.Requester requester;
+
+        ElementIterable(ProvisionStrategy[] strategies,
+                        DependencySupplier supplier,
+                        ComponentContext.Requester requester) {
+            this.strategies = strategies;
+            this.supplier = supplier;
+            this.requester = requester;
+        }
+
+        @Override public Iterator<Object> iterator() {
+            return new Iterator<Object>() {
+
+                private int index;
+
+                @Override public boolean hasNext() {
+                    return index < strategies.length;
+                }
+
+                @Override public Object next() {
+                    if (index >= strategies.length) {
+                        throw new NoSuchElementException();
+                    }
+                    return ComponentContext.resolve(strategies[index++], supplier, requester);
+                }
+
+            };
+        }
+
+    }
+
+}
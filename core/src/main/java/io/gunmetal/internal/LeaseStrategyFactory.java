@@ -0,0 +1,67 @@
+package io.gunmetal.internal;
+
+import io.gunmetal.Lease;
+import io.gunmetal.spi.DependencySupplier;
+import io.gunmetal.spi.LeasableStrategy;
+import io.gunmetal.spi.ProvisionStrategy;
+
+/**
+ * @author rees.byars
+ */
+class LeaseStrategyFactory implements ReferenceStrategyFactory {
+
+    @Override public ProvisionStrategy create(ProvisionStrategy provisionStrategy,
+                                              DependencySupplier dependencySupplier,
+                                              ComponentContext componentContext) {
+        return (p, c) -> new LeaseImpl(provisionStrategy, p, ComponentContext.requester(c));
+    }
+
+    private static final class LeaseImpl implements Lease<Object> {
+
+        private final ProvisionStrategy provisionStrategy;
+        private final DependencySupplier dependencySupplier;
+        private final ComponentContext.Requester requester;
+        private Object instance;
+        private boolean closed;
+
+        LeaseImpl(ProvisionStrategy provisionStrategy,
+                  DependencySupplier dependencySupplier,
+                  ComponentContext.Requester requester) {
+            this.provisionStrategy = provisionStrategy;
+            this.dependencySupplier = dependencySupplier;
+            this.requester = requester;
+        }
+
+        @Override public synchronized Object get() {
+            if (closed) {
+                throw new IllegalStateException("The lease is closed");
+            }
+            if (instance == null) {
+                instance = ComponentContext.resolve(provisionStrategy, dependencySupplier, requester);
+            }
+            return instance;
+        }
+
+        @Override public void close() {
+            Object released;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                released = instance;
+                instance = null;
+            }
+            ProvisionStrategy strategy = provisionStrategy;
+            if (strategy instanceof ScopeDecorator.ComponentStrategy) {
+                // the instance goes back to the pool of the component it was taken from
+                strategy = ((ScopeDecorator.ComponentStrategy) strategy).strategyOf(requester.componentContext());
+            }
+            if (released != null && strategy instanceof LeasableStrategy) {
+                ((LeasableStrategy) strategy).release(released);
+            }
+        }
+
+    }
+
+}
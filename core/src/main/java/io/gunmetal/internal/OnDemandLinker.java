@@ -0,0 +1,12 @@
+package io.gunmetal.internal;
+
+import io.gunmetal.spi.Linker;
+
+/**
+ * A wiring linker whose target also links itself the first time it is used, so that a lazy
+ * {@link ComponentLinker} can skip it and leave unreachable parts of a graph unlinked.
+ *
+ * @author rees.byars
+ */
+interface OnDemandLinker extends Linker {
+}
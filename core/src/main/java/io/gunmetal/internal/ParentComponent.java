@@ -0,0 +1,73 @@
+package io.gunmetal.internal;
+
+import io.gunmetal.spi.Dependency;
+import io.gunmetal.spi.DependencyRequest;
+import io.gunmetal.spi.DependencySupplier;
+import io.gunmetal.spi.ProvisionStrategy;
+import io.gunmetal.spi.ResolutionContext;
+import io.gunmetal.spi.ResourceMetadata;
+
+import java.util.Arrays;
+
+/**
+ * The component that its sub-components, those created through its {@code plus} methods, provision the
+ * bindings of the parent with.  Those bindings are provisioned with the linked strategies and the
+ * singletons of the parent instance, so its sub-components only allocate their own bindings.
+ *
+ * @author rees.byars
+ */
+class ParentComponent {
+
+    private final ComponentGraph componentGraph;
+    private final DependencySupplier dependencySupplier;
+    private final ComponentContext componentContext;
+    private final ResourceMetadata<?> componentMetadata;
+    // the strategies of the bindings of the parent, indexed by their ids in its graph
+    private volatile ProvisionStrategy[] strategies = new ProvisionStrategy[0];
+
+    ParentComponent(ComponentGraph componentGraph,
+                    DependencySupplier dependencySupplier,
+                    ComponentContext componentContext,
+                    ResourceMetadata<?> componentMetadata) {
+        this.componentGraph = componentGraph;
+        this.dependencySupplier = dependencySupplier;
+        this.componentContext = componentContext;
+        this.componentMetadata = componentMetadata;
+    }
+
+    /**
+     * @param id the id of the dependency in the graph of the parent, see {@link ComponentGraph#idOf}
+     * @param requestingContext the context of the sub-component, which the context of the parent is forked
+     *                          from so that cycles across the components are detected
+     */
+    Object provision(int id, Dependency dependency, ResolutionContext requestingContext) {
+        ProvisionStrategy[] strategies = this.strategies;
+        ProvisionStrategy strategy = id < strategies.length ? strategies[id] : null;
+        if (strategy == null) {
+            strategy = link(id, dependency);
+        }
+        return componentContext.resolveForSubComponent(strategy, dependencySupplier, requestingContext);
+    }
+
+    private synchronized ProvisionStrategy link(int id, Dependency dependency) {
+        ProvisionStrategy[] strategies = this.strategies;
+        if (id < strategies.length && strategies[id] != null) {
+            return strategies[id];
+        }
+        ProvisionStrategy strategy = strategy(id, dependency);
+        strategies = Arrays.copyOf(strategies, Math.max(id + 1, strategies.length));
+        strategies[id] = strategy;
+        this.strategies = strategies;
+        return strategy;
+    }
+
+    private ProvisionStrategy strategy(int id, Dependency dependency) {
+        ResourceAccessor resourceAccessor = componentGraph.get(id);
+        if (resourceAccessor != null) {
+            return resourceAccessor.force();
+        }
+        // a just-in-time binding of the template that this replica of its graph was not created with
+        return dependencySupplier.supply(DependencyRequest.create(componentMetadata, dependency));
+    }
+
+}
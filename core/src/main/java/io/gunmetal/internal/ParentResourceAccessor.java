@@ -0,0 +1,80 @@
+package io.gunmetal.internal;
+
+import io.gunmetal.spi.Dependency;
+import io.gunmetal.spi.DependencyRequest;
+import io.gunmetal.spi.Errors;
+import io.gunmetal.spi.ProvisionStrategy;
+import io.gunmetal.spi.ResourceMetadata;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A binding of the graph of a sub-component that is provided by its {@link ParentComponent}.  It keeps
+ * no state, the parent being taken from the context of each request, so it is the same in every replica
+ * of the graph.
+ *
+ * @author rees.byars
+ */
+class ParentResourceAccessor implements ResourceAccessor {
+
+    private final ResourceAccessor parentAccessor;
+    private final ProvisionStrategy provisionStrategy;
+    private final Binding binding;
+
+    /**
+     * @param parentId the id of the dependency in the graph of the parent, see {@link ComponentGraph#idOf}
+     */
+    ParentResourceAccessor(Dependency dependency, int parentId, ResourceAccessor parentAccessor) {
+        this.parentAccessor = parentAccessor;
+        provisionStrategy = (dependencySupplier, resolutionContext) -> {
+            ParentComponent parent = ComponentContext.of(resolutionContext).parent();
+            if (parent == null) {
+                throw new IllegalStateException("The dependency [" + dependency
+                        + "] is provided by the parent component, which the context was not created with");
+            }
+            return parent.provision(parentId, dependency, resolutionContext);
+        };
+        binding = new BindingImpl(new ParentResource(), Collections.singletonList(dependency));
+    }
+
+    @Override public Binding binding() {
+        return binding;
+    }
+
+    @Override public ProvisionStrategy process(DependencyRequest dependencyRequest, Errors errors) {
+        // the request is checked against the binding of the parent, which decides whether it is accessible
+        parentAccessor.process(dependencyRequest, errors);
+        return provisionStrategy;
+    }
+
+    @Override public ProvisionStrategy force() {
+        return provisionStrategy;
+    }
+
+    @Override public ResourceAccessor replicateWith(ComponentContext context) {
+        return this;
+    }
+
+    private class ParentResource implements Resource {
+
+        @Override public ResourceMetadata<?> metadata() {
+            return parentAccessor.binding().resource().metadata();
+        }
+
+        @Override public ProvisionStrategy provisionStrategy() {
+            return provisionStrategy;
+        }
+
+        @Override public List<Dependency> dependencies() {
+            // the dependencies belong to the graph of the parent
+            return Collections.emptyList();
+        }
+
+        @Override public Resource replicateWith(ComponentContext context) {
+            return this;
+        }
+
+    }
+
+}
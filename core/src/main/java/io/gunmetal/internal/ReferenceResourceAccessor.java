@@ -55,6 +55,10 @@ class ReferenceResourceAccessor implements ResourceAccessor {
         return binding;
     }
 
+    Dependency provisionDependency() {
+        return provisionDependency;
+    }
+
     @Override public ProvisionStrategy process(DependencyRequest dependencyRequest, Errors errors) {
         provisionAccessor.process(DependencyRequest.create(referenceRequest, provisionDependency), errors);
         return force();
@@ -66,18 +70,26 @@ class ReferenceResourceAccessor implements ResourceAccessor {
 
     private class DelegatingProvisionStrategy implements ProvisionStrategy {
 
-        ProvisionStrategy delegateStrategy;
+        volatile ProvisionStrategy delegateStrategy;
 
         DelegatingProvisionStrategy(Linkers linkers) {
-            linkers.addWiringLinker((reference, context) -> {
-                ProvisionStrategy provisionStrategy =
-                        reference.supply(DependencyRequest.create(referenceRequest, provisionDependency));
-                delegateStrategy = referenceStrategyFactory.create(
-                        provisionStrategy, reference, componentContext);
-            });
+            linkers.addWiringLinker((OnDemandLinker) (reference, context) -> link(reference));
+        }
+
+        private ProvisionStrategy link(DependencySupplier reference) {
+            ProvisionStrategy provisionStrategy =
+                    reference.supply(DependencyRequest.create(referenceRequest, provisionDependency));
+            ProvisionStrategy delegateStrategy = referenceStrategyFactory.create(
+                    provisionStrategy, reference, componentContext);
+            this.delegateStrategy = delegateStrategy;
+            return delegateStrategy;
         }
 
         @Override public Object get(DependencySupplier dependencySupplier, ResolutionContext resolutionContext) {
+            ProvisionStrategy delegateStrategy = this.delegateStrategy;
+            if (delegateStrategy == null) {
+                delegateStrategy = link(dependencySupplier);
+            }
             return delegateStrategy.get(dependencySupplier, resolutionContext);
         }
 
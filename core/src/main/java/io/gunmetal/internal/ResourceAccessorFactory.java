@@ -4,6 +4,7 @@ import io.gunmetal.spi.Converter;
 import io.gunmetal.spi.Dependency;
 import io.gunmetal.spi.DependencyRequest;
 import io.gunmetal.spi.ProvisionStrategy;
+import io.gunmetal.spi.SupplierAdapter;
 
 import java.lang.reflect.Parameter;
 import java.util.List;
@@ -34,6 +35,20 @@ interface ResourceAccessorFactory {
             Dependency collectionDependency,
             Dependency collectionElementDependency);
 
+    ResourceAccessor createForKeyedCollection(
+            CollectionResourceAccessor collectionAccessor,
+            Dependency collectionDependency,
+            Dependency mapDependency,
+            Class<?> keyType,
+            SupplierAdapter supplierAdapter);
+
+    ResourceAccessor createForLazyCollection(
+            CollectionResourceAccessor collectionAccessor,
+            Dependency collectionDependency,
+            Dependency viewDependency,
+            LazyCollectionResourceAccessor.View view,
+            SupplierAdapter supplierAdapter);
+
     ResourceAccessor createForConversion(
             ResourceAccessor fromAccessor,
             Converter converter,
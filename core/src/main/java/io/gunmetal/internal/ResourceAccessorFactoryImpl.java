@@ -6,6 +6,7 @@ import io.gunmetal.spi.DependencyRequest;
 import io.gunmetal.spi.Errors;
 import io.gunmetal.spi.ProvisionStrategy;
 import io.gunmetal.spi.ResourceMetadata;
+import io.gunmetal.spi.SupplierAdapter;
 
 import java.lang.reflect.Parameter;
 import java.util.ArrayList;
@@ -79,6 +80,26 @@ class ResourceAccessorFactoryImpl implements ResourceAccessorFactory {
                 collectionElementDependency);
     }
 
+    @Override public ResourceAccessor createForKeyedCollection(
+            CollectionResourceAccessor collectionAccessor,
+            Dependency collectionDependency,
+            Dependency mapDependency,
+            Class<?> keyType,
+            SupplierAdapter supplierAdapter) {
+        return new KeyedCollectionResourceAccessor(
+                collectionAccessor, collectionDependency, mapDependency, keyType, supplierAdapter);
+    }
+
+    @Override public ResourceAccessor createForLazyCollection(
+            CollectionResourceAccessor collectionAccessor,
+            Dependency collectionDependency,
+            Dependency viewDependency,
+            LazyCollectionResourceAccessor.View view,
+            SupplierAdapter supplierAdapter) {
+        return new LazyCollectionResourceAccessor(
+                collectionAccessor, collectionDependency, viewDependency, view, supplierAdapter);
+    }
+
     @Override public ResourceAccessor createForConversion(
             ResourceAccessor fromAccessor,
             Converter converter,
@@ -53,6 +53,7 @@ class ResourceFactoryImpl implements ResourceFactory {
     @Override public Resource withClassProvider(Class<?> providerClass,
                                                 ResourceMetadata<?> resourceMetadata,
                                                 ComponentContext context) {
+        ComponentShutdown.checkPreDestroyMethods(providerClass, resourceMetadata, context.errors());
         return resource(
                 resourceMetadata,
                 context,
@@ -63,6 +64,8 @@ class ResourceFactoryImpl implements ResourceFactory {
 
     @Override public Resource withMethodProvider(
             ResourceMetadata<Method> resourceMetadata, Dependency moduleDependency, ComponentContext context) {
+        ComponentShutdown.checkPreDestroyMethods(
+                resourceMetadata.provider().getReturnType(), resourceMetadata, context.errors());
         return resource(
                 resourceMetadata,
                 context,
@@ -72,6 +75,8 @@ class ResourceFactoryImpl implements ResourceFactory {
 
     @Override public Resource withFieldProvider(
             ResourceMetadata<Field> resourceMetadata, Dependency moduleDependency, ComponentContext context) {
+        ComponentShutdown.checkPreDestroyMethods(
+                resourceMetadata.provider().getType(), resourceMetadata, context.errors());
         return resource(
                 resourceMetadata,
                 context,
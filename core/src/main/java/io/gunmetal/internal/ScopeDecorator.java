@@ -16,6 +16,8 @@
 
 package io.gunmetal.internal;
 
+import io.gunmetal.RequestScope;
+import io.gunmetal.ThreadScope;
 import io.gunmetal.spi.DependencySupplier;
 import io.gunmetal.spi.Linkers;
 import io.gunmetal.spi.ProvisionStrategy;
@@ -24,17 +26,40 @@ import io.gunmetal.spi.ResolutionContext;
 import io.gunmetal.spi.ResourceMetadata;
 import io.gunmetal.spi.Scope;
 import io.gunmetal.spi.ScopeBindings;
+import io.gunmetal.spi.ScopedInstances;
 import io.gunmetal.spi.Scopes;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * @author rees.byars
  */
 class ScopeDecorator implements ProvisionStrategyDecorator {
 
+    // held in place of a scoped instance that is null, so that its provider is not called again
+    private static final Object NULL = new Object();
+
     private final ScopeBindings scopeBindings;
+    private final AtomicInteger singletonSlots;
+    // thread and request scoped bindings keep their slot when the graph is replicated
+    private final ConcurrentMap<ResourceMetadata<?>, Integer> scopedSlots = new ConcurrentHashMap<>();
+    private final AtomicInteger scopedSlotCount = new AtomicInteger();
 
     ScopeDecorator(ScopeBindings scopeBindings) {
+        this(scopeBindings, null);
+    }
+
+    /**
+     * @param singletonSlots if not null, singletons are kept in a {@link SingletonCell} of the component
+     *                       that requests them, at a slot taken from this counter, so that the decorated
+     *                       strategies can be shared by the components of a template.  The strategies
+     *                       of other scopes are then decorated for each component on its first request
+     */
+    ScopeDecorator(ScopeBindings scopeBindings, AtomicInteger singletonSlots) {
         this.scopeBindings = scopeBindings;
+        this.singletonSlots = singletonSlots;
     }
 
     @Override
@@ -50,27 +75,86 @@ class ScopeDecorator implements ProvisionStrategyDecorator {
         }
 
         if (scope == Scopes.SINGLETON) {
-            return new ProvisionStrategy() {
-                volatile Object singleton;
-
-                {
-                    if (resourceMetadata.eager()) linkers.addEagerLinker(this::get);
-                }
+            ProvisionStrategy strategy;
+            if (singletonSlots != null) {
+                int slot = singletonSlots.getAndIncrement();
+                strategy = (dependencySupplier, resolutionContext) -> ComponentContext
+                        .of(resolutionContext)
+                        .singletonCell(slot)
+                        .get(resourceMetadata, delegateStrategy, dependencySupplier, resolutionContext);
+            } else {
+                SingletonCell cell = new SingletonCell();
+                strategy = (dependencySupplier, resolutionContext) ->
+                        cell.get(resourceMetadata, delegateStrategy, dependencySupplier, resolutionContext);
+            }
+            if (resourceMetadata.eager()) {
+                linkers.addEagerLinker(new ComponentLinker.EagerSingletonLinker(resourceMetadata, strategy));
+            }
+            return strategy;
+        }
 
-                @Override public Object get(DependencySupplier dependencySupplier, ResolutionContext resolutionContext) {
-                    if (singleton == null) {
-                        synchronized (this) {
-                            if (singleton == null) {
-                                singleton = delegateStrategy.get(dependencySupplier, resolutionContext);
-                            }
-                        }
-                    }
-                    return singleton;
+        if (scope == Scopes.THREAD || scope == Scopes.REQUEST) {
+            int slot = scopedSlots.computeIfAbsent(resourceMetadata, metadata -> scopedSlotCount.getAndIncrement());
+            boolean threadScoped = scope == Scopes.THREAD;
+            return (dependencySupplier, resolutionContext) -> {
+                ScopedInstances instances = threadScoped ? ThreadScope.instances() : RequestScope.instances();
+                ComponentContext owner = ComponentContext.of(resolutionContext);
+                Object instance = instances.get(owner, slot);
+                if (instance == null) {
+                    instance = delegateStrategy.get(dependencySupplier, resolutionContext);
+                    instance = instances.putIfAbsent(owner, slot, instance == null ? NULL : instance);
                 }
+                return instance == NULL ? null : instance;
             };
         }
 
-        return scopeBindings.decoratorFor(scope).decorate(resourceMetadata, delegateStrategy, linkers);
+        ProvisionStrategyDecorator decorator = scopeBindings.decoratorFor(scope);
+        if (singletonSlots == null) {
+            return decorator.decorate(resourceMetadata, delegateStrategy, linkers);
+        }
+        return new ComponentStrategy(decorator, resourceMetadata, delegateStrategy, linkers);
+
+    }
+
+    /**
+     * Decorates the strategy of a shared graph for each component, so that the state the decorator keeps
+     * in the strategies it creates, such as a cache entry or a pool, belongs to that component.  The
+     * decoration happens on the first request of each component, after linking, so the decorator must
+     * not rely on the linkers, as the built-in scopes do not.
+     */
+    static final class ComponentStrategy implements ProvisionStrategy {
+
+        private final ProvisionStrategyDecorator decorator;
+        private final ResourceMetadata<?> resourceMetadata;
+        private final ProvisionStrategy delegateStrategy;
+        private final Linkers linkers;
+
+        ComponentStrategy(ProvisionStrategyDecorator decorator,
+                          ResourceMetadata<?> resourceMetadata,
+                          ProvisionStrategy delegateStrategy,
+                          Linkers linkers) {
+            this.decorator = decorator;
+            this.resourceMetadata = resourceMetadata;
+            this.delegateStrategy = delegateStrategy;
+            this.linkers = linkers;
+        }
+
+        @Override public Object get(DependencySupplier dependencySupplier, ResolutionContext resolutionContext) {
+            return strategyOf(ComponentContext.of(resolutionContext)).get(dependencySupplier, resolutionContext);
+        }
+
+        /**
+         * @return the strategy decorated for the component
+         */
+        ProvisionStrategy strategyOf(ComponentContext componentContext) {
+            ProvisionStrategy strategy = (ProvisionStrategy) componentContext.sharedProvision(this);
+            if (strategy != null) {
+                return strategy;
+            }
+            // a strategy decorated by a racing thread is dropped along with its empty state
+            return (ProvisionStrategy) componentContext.shareProvision(
+                    this, decorator.decorate(resourceMetadata, delegateStrategy, linkers));
+        }
 
     }
 
@@ -0,0 +1,166 @@
+package io.gunmetal.internal;
+
+import io.gunmetal.spi.DependencySupplier;
+import io.gunmetal.spi.ProvisionStrategy;
+import io.gunmetal.spi.ResolutionContext;
+import io.gunmetal.spi.ResourceMetadata;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Holds the instance of one singleton.
+ *
+ * The state moves from empty, to a {@link Construction} owned by the constructing thread, to the
+ * instance, and is only ever swapped in by compare and set.  Once the instance is published, reading
+ * it is a single volatile read.  Other threads requesting the singleton during construction wait for
+ * it rather than contend on a monitor, and before waiting they follow the chain of constructions the
+ * owning threads are themselves waiting on.  If that chain leads back to the waiting thread, the
+ * threads would deadlock, so a {@link SingletonCycleException} describing the chain is thrown instead.
+ *
+ * A request from the constructing thread itself is passed to the delegate, leaving cycles within a
+ * thread to the cyclic resolution of the delegate as before.
+ *
+ * @author rees.byars
+ */
+final class SingletonCell {
+
+    private static final AtomicReferenceFieldUpdater<SingletonCell, Object> STATE =
+            AtomicReferenceFieldUpdater.newUpdater(SingletonCell.class, Object.class, "state");
+    private static final Object NULL = new Object();
+    private static final Map<Thread, Construction> WAITING = new ConcurrentHashMap<>();
+
+    private volatile Object state;
+
+    Object get(ResourceMetadata<?> resourceMetadata,
+               ProvisionStrategy delegateStrategy,
+               DependencySupplier dependencySupplier,
+               ResolutionContext resolutionContext) {
+        Object state = this.state;
+        if (state != null && !(state instanceof Construction)) {
+            return state == NULL ? null : state;
+        }
+        return construct(resourceMetadata, delegateStrategy, dependencySupplier, resolutionContext);
+    }
+
+    private Object construct(ResourceMetadata<?> resourceMetadata,
+                             ProvisionStrategy delegateStrategy,
+                             DependencySupplier dependencySupplier,
+                             ResolutionContext resolutionContext) {
+        Thread thread = Thread.currentThread();
+        while (true) {
+            Object state = this.state;
+            if (state == null) {
+                Construction construction = new Construction(resourceMetadata, thread, resolutionContext, false);
+                if (!STATE.compareAndSet(this, null, construction)) {
+                    continue;
+                }
+                try {
+                    Object singleton = delegateStrategy.get(dependencySupplier, resolutionContext);
+                    this.state = singleton == null ? NULL : singleton;
+                    if (singleton != null) {
+                        ComponentContext.of(resolutionContext).singletonConstructed(resourceMetadata, singleton);
+                    }
+                    return singleton;
+                } catch (Throwable e) {
+                    // another request may try again
+                    this.state = null;
+                    throw e;
+                } finally {
+                    construction.done.countDown();
+                }
+            } else if (state instanceof Construction) {
+                Construction construction = (Construction) state;
+                // resolutions forked from the construction wait on it, so they take part in its cyclic resolution
+                if (construction.thread == thread
+                        || ComponentContext.isForkedFrom(resolutionContext, construction.resolutionContext)) {
+                    return delegateStrategy.get(dependencySupplier, resolutionContext);
+                }
+                await(construction, thread);
+            } else {
+                return state == NULL ? null : state;
+            }
+        }
+    }
+
+    /**
+     * Waits for an argument of a resource that is being resolved by another thread, taking part in the
+     * detection of cycles like a wait for a singleton.
+     */
+    static void awaitArgument(ResourceMetadata<?> resourceMetadata, Thread resolvingThread, CountDownLatch resolved) {
+        Construction construction = new Construction(resourceMetadata, resolvingThread, null, true, resolved);
+        await(construction, Thread.currentThread());
+    }
+
+    private static void await(Construction construction, Thread thread) {
+        WAITING.put(thread, construction);
+        try {
+            checkForCycle(construction, thread);
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    construction.done.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                thread.interrupt();
+            }
+        } finally {
+            WAITING.remove(thread);
+        }
+    }
+
+    private static void checkForCycle(Construction awaited, Thread thread) {
+        List<Construction> chain = new ArrayList<>();
+        // bounded in case the waiting threads move on while the chain is followed
+        for (Construction construction = awaited;
+             construction != null && construction.done.getCount() > 0 && chain.size() <= WAITING.size();
+             construction = WAITING.get(construction.thread)) {
+            chain.add(construction);
+            if (construction.thread == thread) {
+                throw new SingletonCycleException(thread, chain);
+            }
+        }
+    }
+
+    /**
+     * The construction of a singleton by a thread, which the state of the cell holds until the
+     * instance is published, or the resolution of an argument that a thread waits for.
+     */
+    static final class Construction {
+
+        final ResourceMetadata<?> resourceMetadata;
+        final Thread thread;
+        final ResolutionContext resolutionContext;
+        final boolean argument;
+        final CountDownLatch done;
+
+        Construction(ResourceMetadata<?> resourceMetadata,
+                     Thread thread,
+                     ResolutionContext resolutionContext,
+                     boolean argument) {
+            this(resourceMetadata, thread, resolutionContext, argument, new CountDownLatch(1));
+        }
+
+        Construction(ResourceMetadata<?> resourceMetadata,
+                     Thread thread,
+                     ResolutionContext resolutionContext,
+                     boolean argument,
+                     CountDownLatch done) {
+            this.resourceMetadata = resourceMetadata;
+            this.thread = thread;
+            this.resolutionContext = resolutionContext;
+            this.argument = argument;
+            this.done = done;
+        }
+
+    }
+
+}
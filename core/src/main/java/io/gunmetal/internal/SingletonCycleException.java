@@ -0,0 +1,32 @@
+package io.gunmetal.internal;
+
+import java.util.List;
+
+/**
+ * Thrown instead of deadlocking when singletons are being constructed by threads that each wait
+ * for a singleton another of them is constructing.
+ *
+ * @author rees.byars
+ */
+class SingletonCycleException extends RuntimeException {
+
+    private static final long serialVersionUID = 2460125785512743381L;
+
+    SingletonCycleException(Thread thread, List<SingletonCell.Construction> chain) {
+        super(message(thread, chain));
+    }
+
+    private static String message(Thread thread, List<SingletonCell.Construction> chain) {
+        StringBuilder builder = new StringBuilder("Singletons are being constructed by threads waiting on each other -> ");
+        Thread waiting = thread;
+        for (SingletonCell.Construction construction : chain) {
+            builder.append("\n    thread [").append(waiting.getName())
+                    .append(construction.argument ? "] waits for an argument of " : "] waits for ")
+                    .append(construction.resourceMetadata)
+                    .append(construction.argument ? " being resolved by thread [" : " being constructed by thread [").append(construction.thread.getName()).append("]");
+            waiting = construction.thread;
+        }
+        return builder.toString();
+    }
+
+}
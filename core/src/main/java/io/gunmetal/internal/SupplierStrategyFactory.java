@@ -3,14 +3,12 @@ package io.gunmetal.internal;
 import io.gunmetal.spi.DependencySupplier;
 import io.gunmetal.spi.SupplierAdapter;
 import io.gunmetal.spi.ProvisionStrategy;
-import io.gunmetal.spi.ResolutionContext;
 
 /**
  * @author rees.byars
  */
 class SupplierStrategyFactory implements ReferenceStrategyFactory {
 
-    private static final ThreadLocal<ResolutionContext> contextThreadLocal = new ThreadLocal<>();
     private final SupplierAdapter supplierAdapter;
 
     SupplierStrategyFactory(SupplierAdapter supplierAdapter) {
@@ -22,24 +20,13 @@ class SupplierStrategyFactory implements ReferenceStrategyFactory {
             final DependencySupplier dependencySupplier,
             ComponentContext componentContext) {
 
-        return (p, c) -> supplierAdapter.supplier(() -> {
-
-            ResolutionContext context = contextThreadLocal.get();
-
-            if (context != null) {
-                return provisionStrategy.get(
-                        dependencySupplier, context);
-            }
-
-            try {
-                context = componentContext.newResolutionContext();
-                contextThreadLocal.set(context);
-                return provisionStrategy.get(dependencySupplier, context);
-            } finally {
-                contextThreadLocal.remove();
-            }
-
-        });
+        // the supplier and context are taken from the request rather than captured here, as the strategy
+        // may be shared by every component of a template.  The supplier keeps only the requester, not the
+        // requesting context and the instances it provisioned.
+        return (p, c) -> {
+            ComponentContext.Requester requester = ComponentContext.requester(c);
+            return supplierAdapter.supplier(() -> ComponentContext.resolve(provisionStrategy, p, requester));
+        };
 
     }
 
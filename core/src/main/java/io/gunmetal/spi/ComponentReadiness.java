@@ -0,0 +1,32 @@
+package io.gunmetal.spi;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The progress of the eager singletons of a component that was returned before they were initialized,
+ * see {@link Option#BACKGROUND_EAGER_INITIALIZATION}.  Requests for a singleton that is not yet
+ * initialized do not wait on the others, only on the singleton and what it depends on.
+ *
+ * @author rees.byars
+ */
+public interface ComponentReadiness {
+
+    /**
+     * @return a future completed once every eager singleton is initialized, or completed exceptionally
+     * with the first failure.  A singleton that failed is constructed again when it is next requested.
+     */
+    CompletableFuture<Void> future();
+
+    boolean isReady();
+
+    /**
+     * @return a snapshot of the state of each eager singleton
+     */
+    Map<ResourceMetadata<?>, State> progress();
+
+    enum State {
+        PENDING, INITIALIZING, READY, FAILED
+    }
+
+}
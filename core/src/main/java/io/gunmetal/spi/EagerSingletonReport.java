@@ -0,0 +1,75 @@
+package io.gunmetal.spi;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Describes the eager initialization of the singletons of a component.
+ *
+ * The critical path is the chain of eager singletons, each depending on the next, whose summed
+ * initialization time is the longest.  No amount of parallelism initializes the singletons faster
+ * than it, so it is where startup time is best spent.
+ *
+ * @author rees.byars
+ */
+public final class EagerSingletonReport {
+
+    private final Map<ResourceMetadata<?>, Long> initializationNanos;
+    private final List<ResourceMetadata<?>> criticalPath;
+    private final long criticalPathNanos;
+    private final long totalNanos;
+
+    public EagerSingletonReport(Map<ResourceMetadata<?>, Long> initializationNanos,
+                                List<ResourceMetadata<?>> criticalPath,
+                                long criticalPathNanos,
+                                long totalNanos) {
+        this.initializationNanos = Collections.unmodifiableMap(initializationNanos);
+        this.criticalPath = Collections.unmodifiableList(criticalPath);
+        this.criticalPathNanos = criticalPathNanos;
+        this.totalNanos = totalNanos;
+    }
+
+    /**
+     * @return the time taken to initialize each eager singleton, in the order they were started
+     */
+    public Map<ResourceMetadata<?>, Long> initializationNanos() {
+        return initializationNanos;
+    }
+
+    /**
+     * @return the eager singletons of the critical path, each depending on the one before it
+     */
+    public List<ResourceMetadata<?>> criticalPath() {
+        return criticalPath;
+    }
+
+    public long criticalPathNanos() {
+        return criticalPathNanos;
+    }
+
+    /**
+     * @return the wall time taken to initialize all of the eager singletons
+     */
+    public long totalNanos() {
+        return totalNanos;
+    }
+
+    @Override public String toString() {
+        StringBuilder builder = new StringBuilder("Eager singletons initialized in ")
+                .append(TimeUnit.NANOSECONDS.toMillis(totalNanos))
+                .append("ms, critical path of ")
+                .append(TimeUnit.NANOSECONDS.toMillis(criticalPathNanos))
+                .append("ms:");
+        for (ResourceMetadata<?> resourceMetadata : criticalPath) {
+            builder.append("\n    ")
+                    .append(resourceMetadata)
+                    .append(" -> ")
+                    .append(TimeUnit.NANOSECONDS.toMillis(initializationNanos.get(resourceMetadata)))
+                    .append("ms");
+        }
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,39 @@
+package io.gunmetal.spi;
+
+/**
+ * Implemented by the {@code <Type>$$GunmetalAccessor} classes that the gunmetal annotation processor
+ * writes next to each covered type.  When such a class is present, constructors, provider methods
+ * and injected members of the type are invoked through it instead of through reflection.  The metadata
+ * of the type is still read reflectively, and the class is found by its name, the name of the type
+ * followed by {@link #SUFFIX}, which the processor reads from here.
+ *
+ * Members are identified by a key: {@code <init>(params)} for constructors, {@code name(params)type}
+ * for methods and {@code name:type} for fields, where {@code params} is the comma separated list of
+ * the erased parameter types and {@code type} the erased return or field type, each as returned by
+ * {@link Class#getName()}.  An accessor left from a previous compile of a changed type therefore
+ * lacks the keys of the changed members, which are then invoked reflectively.
+ *
+ * @author rees.byars
+ */
+public interface GeneratedAccessor {
+
+    String SUFFIX = "$$GunmetalAccessor";
+
+    /**
+     * @return the keys of the accessible members, in the order used by {@link #invoke}
+     */
+    String[] members();
+
+    /**
+     * Invokes a constructor or method, or reads or writes a field.  A field is read when
+     * {@code parameters} is null and otherwise set to {@code parameters[0]}.
+     *
+     * @param member the index of the member in {@link #members()}
+     * @param target the instance, ignored for constructors and static members
+     * @param parameters the arguments
+     * @return the constructed instance, the method result or the field value
+     * @throws Throwable whatever the member throws
+     */
+    Object invoke(int member, Object target, Object[] parameters) throws Throwable;
+
+}
@@ -4,7 +4,9 @@ import io.gunmetal.AccessLevel;
 import io.gunmetal.Inject;
 import io.gunmetal.Lazy;
 import io.gunmetal.Module;
+import io.gunmetal.RequestScoped;
 import io.gunmetal.Singleton;
+import io.gunmetal.ThreadScoped;
 import io.gunmetal.spi.impl.AnnotationInjectionResolver;
 import io.gunmetal.spi.impl.ConfigurableMetadataResolver;
 import io.gunmetal.spi.impl.DefaultSupplierAdapter;
@@ -20,6 +22,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * @author rees.byars
@@ -47,6 +51,39 @@ public interface GunmetalComponent {
 
     List<RequestVisitor> requestVisitors();
 
+    /**
+     * @return if not null, the executor on which eager singletons are initialized, those that do not
+     * depend on each other in parallel.  Otherwise they are initialized one at a time on the thread
+     * creating the component.
+     */
+    default Executor eagerSingletonExecutor() {
+        return null;
+    }
+
+    /**
+     * @return if not null, receives a report of the initialization of the eager singletons of each component
+     */
+    default Consumer<EagerSingletonReport> eagerSingletonReportConsumer() {
+        return null;
+    }
+
+    /**
+     * @return the executor on which {@link java.util.concurrent.CompletableFuture} requests are provisioned,
+     * resolving the arguments of each constructor and provider in parallel.  If null, the common
+     * fork join pool is used.
+     */
+    default Executor asyncExecutor() {
+        return null;
+    }
+
+    /**
+     * @return the executor on which the singletons of closed components are closed, those that do not
+     * depend on each other in parallel.  If null, the common fork join pool is used.
+     */
+    default Executor shutdownExecutor() {
+        return null;
+    }
+
     class Default implements GunmetalComponent {
 
         private final InjectionResolver injectionResolver = new AnnotationInjectionResolver(Inject.class);
@@ -59,6 +96,10 @@ public interface GunmetalComponent {
         private final List<ProvisionStrategyDecorator> strategyDecorators = new ArrayList<>();
         private final List<RequestVisitor> requestVisitors = new ArrayList<>();
         private final Map<Class<? extends Annotation>, Scope> scopeMap = new HashMap<>();
+        private Executor eagerSingletonExecutor;
+        private Consumer<EagerSingletonReport> eagerSingletonReportConsumer;
+        private Executor asyncExecutor;
+        private Executor shutdownExecutor;
 
         public Default(Option ... options) {
 
@@ -69,6 +110,8 @@ public interface GunmetalComponent {
             scopeDecorators.put(Scopes.UNDEFINED, ProvisionStrategyDecorator::none);
 
             scopeMap.put(Singleton.class, Scopes.SINGLETON);
+            scopeMap.put(ThreadScoped.class, Scopes.THREAD);
+            scopeMap.put(RequestScoped.class, Scopes.REQUEST);
             scopeMap.put(null, Scopes.PROTOTYPE);
 
             metadataResolver =
@@ -123,6 +166,49 @@ public interface GunmetalComponent {
             return requestVisitors;
         }
 
+        @Override public Executor eagerSingletonExecutor() {
+            return eagerSingletonExecutor;
+        }
+
+        @Override public Consumer<EagerSingletonReport> eagerSingletonReportConsumer() {
+            return eagerSingletonReportConsumer;
+        }
+
+        public Default eagerSingletonExecutor(Executor eagerSingletonExecutor) {
+            this.eagerSingletonExecutor = eagerSingletonExecutor;
+            return this;
+        }
+
+        public Default eagerSingletonReportConsumer(Consumer<EagerSingletonReport> eagerSingletonReportConsumer) {
+            this.eagerSingletonReportConsumer = eagerSingletonReportConsumer;
+            return this;
+        }
+
+        @Override public Executor asyncExecutor() {
+            return asyncExecutor;
+        }
+
+        public Default asyncExecutor(Executor asyncExecutor) {
+            this.asyncExecutor = asyncExecutor;
+            return this;
+        }
+
+        @Override public Executor shutdownExecutor() {
+            return shutdownExecutor;
+        }
+
+        public Default shutdownExecutor(Executor shutdownExecutor) {
+            this.shutdownExecutor = shutdownExecutor;
+            return this;
+        }
+
+        /**
+         * Registers a scope annotation along with the decorator of the strategies of the resources it
+         * annotates.  The components of a template share its graph when the decorators are those of
+         * {@link io.gunmetal.spi.impl}, which are then applied for each component on its first request.
+         * Any other decorator may rely on the linkers or keep state in its strategies, so the graph is
+         * instead replicated, and decorated again, for each component.
+         */
         public Default addScope(
                 Class<? extends Annotation> scopeAnnotationType,
                 Scope scope,
@@ -145,6 +231,10 @@ public interface GunmetalComponent {
         private final Map<Scope, ProvisionStrategyDecorator> scopeDecorators;
         private final List<ProvisionStrategyDecorator> strategyDecorators;
         private final List<RequestVisitor> requestVisitors = new ArrayList<>();
+        private Executor eagerSingletonExecutor;
+        private Consumer<EagerSingletonReport> eagerSingletonReportConsumer;
+        private Executor asyncExecutor;
+        private Executor shutdownExecutor;
 
         public Jsr330(Option ... options) {
 
@@ -213,6 +303,42 @@ public interface GunmetalComponent {
             return requestVisitors;
         }
 
+        @Override public Executor eagerSingletonExecutor() {
+            return eagerSingletonExecutor;
+        }
+
+        @Override public Consumer<EagerSingletonReport> eagerSingletonReportConsumer() {
+            return eagerSingletonReportConsumer;
+        }
+
+        public Jsr330 eagerSingletonExecutor(Executor eagerSingletonExecutor) {
+            this.eagerSingletonExecutor = eagerSingletonExecutor;
+            return this;
+        }
+
+        public Jsr330 eagerSingletonReportConsumer(Consumer<EagerSingletonReport> eagerSingletonReportConsumer) {
+            this.eagerSingletonReportConsumer = eagerSingletonReportConsumer;
+            return this;
+        }
+
+        @Override public Executor asyncExecutor() {
+            return asyncExecutor;
+        }
+
+        public Jsr330 asyncExecutor(Executor asyncExecutor) {
+            this.asyncExecutor = asyncExecutor;
+            return this;
+        }
+
+        @Override public Executor shutdownExecutor() {
+            return shutdownExecutor;
+        }
+
+        public Jsr330 shutdownExecutor(Executor shutdownExecutor) {
+            this.shutdownExecutor = shutdownExecutor;
+            return this;
+        }
+
     }
     
 }
@@ -0,0 +1,13 @@
+package io.gunmetal.spi;
+
+/**
+ * A strategy whose instances are lent out, and are given back through {@link #release(Object)} by
+ * whoever requested them once they are done with them, such as by closing an {@link io.gunmetal.Lease}.
+ *
+ * @author rees.byars
+ */
+public interface LeasableStrategy extends ProvisionStrategy {
+
+    void release(Object instance);
+
+}
@@ -11,6 +11,38 @@ public enum Option {
     REQUIRE_ACYCLIC,
     REQUIRE_EXPLICIT_MODULE_DEPENDENCIES,
     RESTRICT_FIELD_INJECTION,
-    RESTRICT_SETTER_INJECTION
+    RESTRICT_SETTER_INJECTION,
+    /**
+     * Components are instances of a class generated for the component interface, whose methods call the
+     * component methods directly, rather than of a {@link java.lang.reflect.Proxy}.  Interfaces that can not
+     * be implemented from outside their package, or whose methods use types that can not be seen from there,
+     * are still implemented by a proxy.
+     */
+    GENERATE_COMPONENT_CLASSES,
+    /**
+     * Constructors, provider methods and injected members are invoked through core reflection rather than
+     * through generated accessors, lambdas or method handles.  Linking is faster, but each call is slower,
+     * so this suits components that are short lived or seldom used.
+     */
+    REFLECTIVE_INVOCATION,
+    /**
+     * Only the bindings reached by the component methods, eager singletons and injections are linked, each
+     * the first time it is used.  Creating the component is faster, but a binding that can not be resolved
+     * is only reported when it is first requested, rather than when the template is built.
+     */
+    LAZY_LINKING,
+    /**
+     * Bindings that the component methods, multi-bind collections, modules and eager singletons can not
+     * reach are dropped from the template graph, so that it and each replica of it hold less.  The instances
+     * passed to void inject methods are not known in advance, so they can only rely on bindings that remain
+     * reachable otherwise, and injecting one that needs a dropped provider method fails.
+     */
+    PRUNE_UNREACHABLE_BINDINGS,
+    /**
+     * Components are returned before their eager singletons are initialized, which continues on the
+     * {@link GunmetalComponent#eagerSingletonExecutor()}, or the common fork join pool if there is none.
+     * The progress is available from {@link io.gunmetal.Component#readiness(Object)}.
+     */
+    BACKGROUND_EAGER_INITIALIZATION
 
 }
@@ -29,6 +29,16 @@ public interface ResolutionContext {
 
     boolean hasParam(Dependency dependency);
 
+    /**
+     * @return a new context of the same component, for resolving independently of this one, such as on
+     * another thread, as contexts are not thread safe
+     * @throws UnsupportedOperationException if the context can not create one, which is the default for
+     * contexts that are not created by gunmetal
+     */
+    default ResolutionContext newResolutionContext() {
+        throw new UnsupportedOperationException("The resolution context [" + this + "] can not create a new one");
+    }
+
     interface States {
         byte NEW = 0;
         byte PRE_INSTANTIATION = 1;
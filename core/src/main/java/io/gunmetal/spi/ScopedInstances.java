@@ -0,0 +1,106 @@
+package io.gunmetal.spi;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The instances of a thread or request scope.  Instances are kept in a slot array per owning
+ * component, indexed by the slot the component assigned to the binding.  The slot arrays of the owners
+ * are themselves held in a small array that is copied when an owner is added, so a lookup by any owner,
+ * including when several components share a request, is a scan by identity and a couple of volatile
+ * reads, without locking, hashing or allocating.  Releasing the scope drops all of its instances at once.
+ *
+ * @author rees.byars
+ */
+public final class ScopedInstances {
+
+    private static final Slots[] NO_SLOTS = new Slots[0];
+
+    // written under the lock, read without it
+    private volatile Slots[] owners = NO_SLOTS;
+    private boolean released;
+
+    /**
+     * @return the instance at the slot of the owner, or null if it has not been created in this scope
+     */
+    public Object get(Object owner, int slot) {
+        Slots slots = slots(owners, owner);
+        if (slots == null) {
+            return null;
+        }
+        AtomicReferenceArray<Object> values = slots.values;
+        if (slot >= values.length()) {
+            return null;
+        }
+        return values.get(slot);
+    }
+
+    /**
+     * Stores the instance unless another was stored at the slot first, which can happen when a
+     * request is attached to several threads at once.
+     *
+     * @return the instance held at the slot
+     * @throws IllegalStateException if the scope has been released
+     */
+    public synchronized Object putIfAbsent(Object owner, int slot, Object instance) {
+        if (released) {
+            throw new IllegalStateException("The scope has already ended, its instances have been released");
+        }
+        Slots[] owners = this.owners;
+        Slots slots = slots(owners, owner);
+        if (slots == null) {
+            slots = new Slots(owner);
+            Slots[] grown = Arrays.copyOf(owners, owners.length + 1);
+            grown[owners.length] = slots;
+            this.owners = grown;
+        }
+        AtomicReferenceArray<Object> values = slots.values;
+        if (slot >= values.length()) {
+            AtomicReferenceArray<Object> grown = new AtomicReferenceArray<>(Math.max(slot + 1, values.length() * 2));
+            for (int i = 0; i < values.length(); i++) {
+                grown.set(i, values.get(i));
+            }
+            values = grown;
+            slots.values = grown;
+        }
+        Object existing = values.get(slot);
+        if (existing == null) {
+            values.set(slot, instance);
+            return instance;
+        }
+        return existing;
+    }
+
+    /**
+     * Drops every instance of the scope.  Instances can no longer be created in a released scope.
+     */
+    public synchronized void release() {
+        released = true;
+        owners = NO_SLOTS;
+    }
+
+    public synchronized boolean isReleased() {
+        return released;
+    }
+
+    private static Slots slots(Slots[] owners, Object owner) {
+        for (Slots slots : owners) {
+            if (slots.owner == owner) {
+                return slots;
+            }
+        }
+        return null;
+    }
+
+    private static final class Slots {
+
+        final Object owner;
+        volatile AtomicReferenceArray<Object> values = new AtomicReferenceArray<>(8);
+
+        Slots(Object owner) {
+            this.owner = owner;
+        }
+
+    }
+
+}
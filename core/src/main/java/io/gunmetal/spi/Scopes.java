@@ -21,7 +21,7 @@ package io.gunmetal.spi;
  */
 public enum Scopes implements Scope {
 
-    SINGLETON, PROTOTYPE, UNDEFINED;
+    SINGLETON, PROTOTYPE, THREAD, REQUEST, UNDEFINED;
 
     public boolean canInject(Scope o) {
         return true;
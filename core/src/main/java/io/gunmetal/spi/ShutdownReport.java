@@ -0,0 +1,89 @@
+package io.gunmetal.spi;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The outcome of closing a component, see {@link io.gunmetal.Component#close(Object, long, TimeUnit)}.
+ *
+ * @author rees.byars
+ */
+public final class ShutdownReport {
+
+    private final Map<ResourceMetadata<?>, Long> closeNanos;
+    private final Map<ResourceMetadata<?>, Throwable> failures;
+    private final List<ResourceMetadata<?>> unfinished;
+    private final long totalNanos;
+
+    public ShutdownReport(Map<ResourceMetadata<?>, Long> closeNanos,
+                          Map<ResourceMetadata<?>, Throwable> failures,
+                          List<ResourceMetadata<?>> unfinished,
+                          long totalNanos) {
+        this.closeNanos = Collections.unmodifiableMap(closeNanos);
+        this.failures = Collections.unmodifiableMap(failures);
+        this.unfinished = Collections.unmodifiableList(unfinished);
+        this.totalNanos = totalNanos;
+    }
+
+    /**
+     * @return the time taken to close each singleton, including those that failed, in the order they
+     * were due to be closed
+     */
+    public Map<ResourceMetadata<?>, Long> closeNanos() {
+        return closeNanos;
+    }
+
+    /**
+     * @return the failures of the pre-destroy hooks or of the close of each singleton that failed
+     */
+    public Map<ResourceMetadata<?>, Throwable> failures() {
+        return failures;
+    }
+
+    /**
+     * @return the singletons that were not closed by the deadline
+     */
+    public List<ResourceMetadata<?>> unfinished() {
+        return unfinished;
+    }
+
+    /**
+     * @return the wall time taken to close the component, up to the deadline
+     */
+    public long totalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return whether every singleton was closed by the deadline without failing
+     */
+    public boolean isComplete() {
+        return failures.isEmpty() && unfinished.isEmpty();
+    }
+
+    @Override public String toString() {
+        StringBuilder builder = new StringBuilder("Component closed in ")
+                .append(TimeUnit.NANOSECONDS.toMillis(totalNanos))
+                .append("ms:");
+        for (Map.Entry<ResourceMetadata<?>, Long> entry : closeNanos.entrySet()) {
+            builder.append("\n    ")
+                    .append(entry.getKey())
+                    .append(" -> ")
+                    .append(TimeUnit.NANOSECONDS.toMillis(entry.getValue()))
+                    .append("ms");
+            Throwable failure = failures.get(entry.getKey());
+            if (failure != null) {
+                builder.append(" failed: ").append(failure);
+            }
+        }
+        for (ResourceMetadata<?> resourceMetadata : unfinished) {
+            builder.append("\n    ")
+                    .append(resourceMetadata)
+                    .append(" -> unfinished");
+        }
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,383 @@
+package io.gunmetal.spi.impl;
+
+import io.gunmetal.spi.DependencySupplier;
+import io.gunmetal.spi.Linkers;
+import io.gunmetal.spi.ProvisionStrategy;
+import io.gunmetal.spi.ProvisionStrategyDecorator;
+import io.gunmetal.spi.ResolutionContext;
+import io.gunmetal.spi.ResourceMetadata;
+import io.gunmetal.spi.Scope;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * A scope that keeps instances for a while, between a singleton that is kept for the life of its
+ * component and a prototype that is built for every request.  It is registered with a scope annotation
+ * of its own, and decorates the resources so annotated:
+ *
+ * <pre>
+ * CachingScope rates = new CachingScope().expireAfterWrite(10, TimeUnit.MINUTES).maximumSize(100);
+ * new GunmetalComponent.Default().addScope(RateTable.class, rates, rates);
+ * </pre>
+ *
+ * Each resource of each component has one entry.  A request for an entry that has expired builds it
+ * again, while an entry that is due for a refresh is rebuilt on the refresh executor and served as it is
+ * in the meantime.  When the scope holds more entries than its maximum size, those least recently used
+ * are evicted.  Replaced and evicted instances that are {@link AutoCloseable} are closed, and failures
+ * to close them are passed to the uncaught exception handler of the thread rather than failing the
+ * request that caused the eviction.  An instance may be closed while a request that read it just before
+ * is still using it.
+ *
+ * The order in which the entries were used is only approximate.  A request records its entry in a small
+ * buffer rather than reordering the entries, which would serialize the requests, and the buffer is
+ * drained into the order when an entry is admitted or the scope is cleaned up.  An access that finds the
+ * buffer slot it picked taken replaces the access there, so that the buffer never blocks.
+ *
+ * Expired entries are dropped when a request finds them, when they are the least recently used of a
+ * full scope, and otherwise by {@link #cleanUp()}.  The scope only holds the entries of its components
+ * weakly, and the instances of the entries of components that are no longer reachable are evicted the
+ * next time the scope admits an entry or is cleaned up.
+ *
+ * @author rees.byars
+ */
+public final class CachingScope implements Scope, ProvisionStrategyDecorator {
+
+    private static final int ACCESS_BUFFER_SIZE = 64;
+
+    private long expireAfterWriteNanos;
+    private long expireAfterAccessNanos;
+    private long refreshAfterWriteNanos;
+    private int maximumSize;
+    private Executor refreshExecutor = ForkJoinPool.commonPool();
+    private LongSupplier ticker = System::nanoTime;
+    // the nodes of the entries holding an instance, least recently used first
+    private final Map<Node, Node> nodes = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReferenceQueue<Entry> collected = new ReferenceQueue<>();
+    // the nodes used since the last drain, slots are picked at random and overwritten
+    private final AtomicReferenceArray<Node> accesses = new AtomicReferenceArray<>(ACCESS_BUFFER_SIZE);
+
+    public CachingScope expireAfterWrite(long duration, TimeUnit unit) {
+        expireAfterWriteNanos = nanos(duration, unit);
+        return this;
+    }
+
+    public CachingScope expireAfterAccess(long duration, TimeUnit unit) {
+        expireAfterAccessNanos = nanos(duration, unit);
+        return this;
+    }
+
+    public CachingScope refreshAfterWrite(long duration, TimeUnit unit) {
+        refreshAfterWriteNanos = nanos(duration, unit);
+        return this;
+    }
+
+    public CachingScope maximumSize(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("The maximum size must be positive -> " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        return this;
+    }
+
+    public CachingScope refreshExecutor(Executor refreshExecutor) {
+        this.refreshExecutor = refreshExecutor;
+        return this;
+    }
+
+    /**
+     * @param ticker the source of the current time in nanoseconds, {@link System#nanoTime()} by default
+     */
+    public CachingScope ticker(LongSupplier ticker) {
+        this.ticker = ticker;
+        return this;
+    }
+
+    @Override public boolean canInject(Scope scope) {
+        return true;
+    }
+
+    @Override public ProvisionStrategy decorate(ResourceMetadata<?> resourceMetadata,
+                                                ProvisionStrategy delegateStrategy,
+                                                Linkers linkers) {
+        return new Entry(delegateStrategy);
+    }
+
+    /**
+     * @return the number of entries holding an instance
+     */
+    public int size() {
+        List<Object> evicted = new ArrayList<>();
+        int size;
+        synchronized (this) {
+            evictCollected(evicted);
+            size = nodes.size();
+        }
+        closeAll(evicted);
+        return size;
+    }
+
+    /**
+     * Evicts the entries that have expired, and those of components that are no longer reachable.
+     */
+    public void cleanUp() {
+        List<Object> evicted = new ArrayList<>();
+        long now = ticker.getAsLong();
+        synchronized (this) {
+            evictCollected(evicted);
+            drainAccesses();
+            nodes.keySet().removeIf(node -> node.evictIf(now, true, evicted));
+        }
+        closeAll(evicted);
+    }
+
+    /**
+     * Evicts every entry.
+     */
+    public void invalidateAll() {
+        List<Object> evicted = new ArrayList<>();
+        synchronized (this) {
+            evictCollected(evicted);
+            drainAccesses();
+            nodes.keySet().removeIf(node -> node.evictIf(0, false, evicted));
+        }
+        closeAll(evicted);
+    }
+
+    private static long nanos(long duration, TimeUnit unit) {
+        if (duration <= 0) {
+            throw new IllegalArgumentException("The duration must be positive -> " + duration);
+        }
+        return unit.toNanos(duration);
+    }
+
+    private boolean isExpired(Value value, long now) {
+        return (expireAfterWriteNanos > 0 && now - value.written >= expireAfterWriteNanos)
+                || (expireAfterAccessNanos > 0 && now - value.accessed >= expireAfterAccessNanos);
+    }
+
+    private void admit(Node node) {
+        if (maximumSize == 0 && expireAfterWriteNanos == 0 && expireAfterAccessNanos == 0) {
+            return;
+        }
+        List<Object> evicted = new ArrayList<>();
+        synchronized (this) {
+            evictCollected(evicted);
+            drainAccesses();
+            nodes.put(node, node);
+            if (maximumSize > 0) {
+                // the admitted node is the most recently used, so it is reached last
+                Iterator<Node> leastRecentlyUsed = nodes.keySet().iterator();
+                while (nodes.size() > maximumSize && leastRecentlyUsed.hasNext()) {
+                    Node other = leastRecentlyUsed.next();
+                    if (other != node) {
+                        other.evictIf(0, false, evicted);
+                        leastRecentlyUsed.remove();
+                    }
+                }
+            }
+        }
+        closeAll(evicted);
+    }
+
+    /**
+     * Records the use of the node, if the scope bounds its size, to be moved to the most recently used
+     * end when the accesses are drained.
+     */
+    private void touch(Node node) {
+        if (maximumSize > 0) {
+            int slot = ThreadLocalRandom.current().nextInt() & (ACCESS_BUFFER_SIZE - 1);
+            if (accesses.get(slot) != node) {
+                accesses.lazySet(slot, node);
+            }
+        }
+    }
+
+    /**
+     * Moves the nodes recorded by {@link #touch} to the most recently used end, while holding the lock.
+     */
+    private void drainAccesses() {
+        for (int i = 0; i < ACCESS_BUFFER_SIZE; i++) {
+            Node node = accesses.getAndSet(i, null);
+            if (node != null) {
+                // only reorders the node if it is still held
+                nodes.get(node);
+            }
+        }
+    }
+
+    private void evictCollected(List<Object> evicted) {
+        for (Reference<? extends Entry> reference = collected.poll();
+             reference != null;
+             reference = collected.poll()) {
+            Node node = (Node) reference;
+            node.evictIf(0, false, evicted);
+            nodes.remove(node);
+        }
+    }
+
+    private static void closeAll(List<Object> instances) {
+        for (Object instance : instances) {
+            close(instance);
+        }
+    }
+
+    private static void close(Object instance) {
+        if (instance instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) instance).close();
+            } catch (Exception e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+    }
+
+    private static final class Value {
+
+        final Object instance;
+        final long written;
+        volatile long accessed;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Value(Object instance, long written) {
+            this.instance = instance;
+            this.written = written;
+            accessed = written;
+        }
+
+    }
+
+    /**
+     * Holds the instance of an entry, and is kept by the scope in its place so that the entries of
+     * components that are no longer reachable can be collected and their instances evicted.
+     */
+    private final class Node extends WeakReference<Entry> {
+
+        final AtomicReference<Value> value = new AtomicReference<>();
+
+        Node(Entry entry) {
+            super(entry, collected);
+        }
+
+        /**
+         * @return whether the node no longer holds an instance
+         */
+        boolean evictIf(long now, boolean expiredOnly, List<Object> evicted) {
+            Value current = value.get();
+            if (current == null) {
+                return true;
+            }
+            if (expiredOnly && !isExpired(current, now)) {
+                return false;
+            }
+            if (value.compareAndSet(current, null)) {
+                evicted.add(current.instance);
+                return true;
+            }
+            return value.get() == null;
+        }
+
+    }
+
+    private final class Entry implements ProvisionStrategy {
+
+        final ProvisionStrategy delegateStrategy;
+        final Node node = new Node(this);
+        final AtomicReference<Value> value = node.value;
+
+        Entry(ProvisionStrategy delegateStrategy) {
+            this.delegateStrategy = delegateStrategy;
+        }
+
+        @Override public Object get(DependencySupplier dependencySupplier, ResolutionContext resolutionContext) {
+            long now = ticker.getAsLong();
+            Value value = this.value.get();
+            if (value == null || isExpired(value, now)) {
+                return load(dependencySupplier, resolutionContext);
+            }
+            value.accessed = now;
+            touch(node);
+            if (refreshAfterWriteNanos > 0
+                    && now - value.written >= refreshAfterWriteNanos
+                    && value.refreshing.compareAndSet(false, true)) {
+                refresh(value, dependencySupplier, resolutionContext);
+            }
+            return value.instance;
+        }
+
+        private Object load(DependencySupplier dependencySupplier, ResolutionContext resolutionContext) {
+            Value replaced;
+            Value loaded;
+            synchronized (this) {
+                replaced = value.get();
+                if (replaced != null && !isExpired(replaced, ticker.getAsLong())) {
+                    return replaced.instance;
+                }
+                loaded = new Value(delegateStrategy.get(dependencySupplier, resolutionContext), ticker.getAsLong());
+                value.set(loaded);
+            }
+            if (replaced != null) {
+                close(replaced.instance);
+            }
+            admit(node);
+            return loaded.instance;
+        }
+
+        private void refresh(Value stale, DependencySupplier dependencySupplier, ResolutionContext requestContext) {
+            ResolutionContext resolutionContext = newResolutionContext(requestContext);
+            // a context that can not be used by another thread refreshes on the requesting one
+            Executor executor = resolutionContext == requestContext ? Runnable::run : refreshExecutor;
+            try {
+                executor.execute(() -> {
+                    Object instance;
+                    try {
+                        instance = delegateStrategy.get(dependencySupplier, resolutionContext);
+                    } catch (RuntimeException | Error e) {
+                        // the stale instance is served until a later refresh succeeds
+                        stale.refreshing.set(false);
+                        throw e;
+                    }
+                    if (value.compareAndSet(stale, new Value(instance, ticker.getAsLong()))) {
+                        close(stale.instance);
+                        admit(node);
+                    } else {
+                        // evicted or replaced in the meantime
+                        close(instance);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                stale.refreshing.set(false);
+            }
+        }
+
+    }
+
+    /**
+     * @return a new context of the component of the request, or the context of the request if it can not
+     * create one
+     */
+    private static ResolutionContext newResolutionContext(ResolutionContext requestContext) {
+        try {
+            return requestContext.newResolutionContext();
+        } catch (UnsupportedOperationException e) {
+            return requestContext;
+        }
+    }
+
+}
@@ -0,0 +1,173 @@
+package io.gunmetal.spi.impl;
+
+import io.gunmetal.spi.DependencySupplier;
+import io.gunmetal.spi.LeasableStrategy;
+import io.gunmetal.spi.Linkers;
+import io.gunmetal.spi.ProvisionStrategy;
+import io.gunmetal.spi.ProvisionStrategyDecorator;
+import io.gunmetal.spi.ResolutionContext;
+import io.gunmetal.spi.ResourceMetadata;
+import io.gunmetal.spi.Scope;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A scope for prototypes that are costly to construct but cheap to reset.  It is registered with a scope
+ * annotation of its own, and the resources so annotated are requested through an {@link io.gunmetal.Lease}
+ * that gives the instance back to the pool once it is closed:
+ *
+ * <pre>
+ * PoolingScope parsers = new PoolingScope().maximumSize(32).reset(parser -&gt; ((Parser) parser).reset());
+ * new GunmetalComponent.Default().addScope(Pooled.class, parsers, parsers);
+ *
+ * try (Lease&lt;Parser&gt; parser = component.parser()) {
+ *     parser.get().parse(message);
+ * }
+ * </pre>
+ *
+ * Each resource of each component has a pool of its own, which is split into stripes so that threads
+ * on different cores seldom contend for the same slots.  Each thread is given a stripe when it first uses
+ * a pool, and moves to another when it loses a slot of its stripe to another thread.  A lease takes an
+ * instance from the stripe of its thread, or from another stripe if that one is empty, and constructs
+ * one if the pool is empty.  Instances given back are reset and then kept in the stripe of their thread,
+ * or in another if that one is full, and are otherwise dropped, being closed if they are
+ * {@link AutoCloseable}.  An instance whose reset fails is dropped as well, and the failure is passed to
+ * the uncaught exception handler of the thread.  Requests for the resource itself rather than for a
+ * lease take an instance that is never given back.
+ *
+ * @author rees.byars
+ */
+public final class PoolingScope implements Scope, ProvisionStrategyDecorator {
+
+    private int maximumSize = Runtime.getRuntime().availableProcessors() * 2;
+    private Consumer<Object> reset = instance -> { };
+
+    /**
+     * @param maximumSize the number of idle instances kept by the pool of each resource
+     */
+    public PoolingScope maximumSize(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("The maximum size must be positive -> " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        return this;
+    }
+
+    /**
+     * @param reset called with each instance given back to a pool, before it is lent out again
+     */
+    public PoolingScope reset(Consumer<Object> reset) {
+        this.reset = reset;
+        return this;
+    }
+
+    @Override public boolean canInject(Scope scope) {
+        return true;
+    }
+
+    @Override public ProvisionStrategy decorate(ResourceMetadata<?> resourceMetadata,
+                                                ProvisionStrategy delegateStrategy,
+                                                Linkers linkers) {
+        return new Pool(delegateStrategy, maximumSize, reset);
+    }
+
+    // the stripe of each thread, which the core it runs on would better stand for but is not available
+    private static final AtomicInteger NEXT_PROBE = new AtomicInteger();
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(() -> {
+        int probe = NEXT_PROBE.getAndAdd(0x9e3779b9);
+        return new int[]{probe == 0 ? 1 : probe};
+    });
+
+    private static final class Pool implements LeasableStrategy {
+
+        final ProvisionStrategy delegateStrategy;
+        final Consumer<Object> reset;
+        final AtomicReferenceArray<Object> slots;
+        final int stripeSize;
+        final int stripeMask;
+
+        Pool(ProvisionStrategy delegateStrategy, int maximumSize, Consumer<Object> reset) {
+            this.delegateStrategy = delegateStrategy;
+            this.reset = reset;
+            int stripes = Integer.highestOneBit(Math.min(Runtime.getRuntime().availableProcessors(), maximumSize));
+            stripeSize = (maximumSize + stripes - 1) / stripes;
+            stripeMask = stripes - 1;
+            slots = new AtomicReferenceArray<>(stripes * stripeSize);
+        }
+
+        @Override public Object get(DependencySupplier dependencySupplier, ResolutionContext resolutionContext) {
+            int[] probe = PROBE.get();
+            int stripe = probe[0] & stripeMask;
+            for (int i = 0; i <= stripeMask; i++) {
+                int start = ((stripe + i) & stripeMask) * stripeSize;
+                for (int slot = start; slot < start + stripeSize; slot++) {
+                    Object instance = slots.get(slot);
+                    if (instance != null) {
+                        if (slots.compareAndSet(slot, instance, null)) {
+                            return instance;
+                        }
+                        contended(probe, i);
+                    }
+                }
+            }
+            return delegateStrategy.get(dependencySupplier, resolutionContext);
+        }
+
+        @Override public void release(Object instance) {
+            try {
+                reset.accept(instance);
+            } catch (RuntimeException e) {
+                report(e);
+                drop(instance);
+                return;
+            }
+            int[] probe = PROBE.get();
+            int stripe = probe[0] & stripeMask;
+            for (int i = 0; i <= stripeMask; i++) {
+                int start = ((stripe + i) & stripeMask) * stripeSize;
+                for (int slot = start; slot < start + stripeSize; slot++) {
+                    if (slots.get(slot) == null) {
+                        if (slots.compareAndSet(slot, null, instance)) {
+                            return;
+                        }
+                        contended(probe, i);
+                    }
+                }
+            }
+            drop(instance);
+        }
+
+        /**
+         * Moves the thread to another stripe if it lost a slot of its own stripe to another thread, so that
+         * threads that keep meeting on a stripe spread out.
+         */
+        private static void contended(int[] probe, int stripeOffset) {
+            if (stripeOffset == 0) {
+                int next = probe[0];
+                next ^= next << 13;
+                next ^= next >>> 17;
+                next ^= next << 5;
+                probe[0] = next;
+            }
+        }
+
+        private static void drop(Object instance) {
+            if (instance instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) instance).close();
+                } catch (Exception e) {
+                    report(e);
+                }
+            }
+        }
+
+        private static void report(Exception e) {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+
+    }
+
+}
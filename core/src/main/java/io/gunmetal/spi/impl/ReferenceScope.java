@@ -0,0 +1,95 @@
+package io.gunmetal.spi.impl;
+
+import io.gunmetal.spi.DependencySupplier;
+import io.gunmetal.spi.Linkers;
+import io.gunmetal.spi.ProvisionStrategy;
+import io.gunmetal.spi.ProvisionStrategyDecorator;
+import io.gunmetal.spi.ResolutionContext;
+import io.gunmetal.spi.ResourceMetadata;
+import io.gunmetal.spi.Scope;
+
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.function.Function;
+
+/**
+ * A scope for large instances that can be constructed again, such as lookup tables, which are kept
+ * through a {@link SoftReference} or a {@link WeakReference} so that the garbage collector may reclaim
+ * them.  It is registered with a scope annotation of its own:
+ *
+ * <pre>
+ * ReferenceScope tables = ReferenceScope.soft();
+ * new GunmetalComponent.Default().addScope(Reclaimable.class, tables, tables);
+ * </pre>
+ *
+ * Each resource of each component is kept like a singleton until it is reclaimed, and is constructed
+ * again by the next request for it.  Requests that find it reclaimed at once wait on the one that
+ * constructs it rather than constructing a copy each.
+ *
+ * @author rees.byars
+ */
+public final class ReferenceScope implements Scope, ProvisionStrategyDecorator {
+
+    private final Function<Object, Reference<Object>> referenceFactory;
+
+    private ReferenceScope(Function<Object, Reference<Object>> referenceFactory) {
+        this.referenceFactory = referenceFactory;
+    }
+
+    /**
+     * @return a scope whose instances are reclaimed only when memory runs low
+     */
+    public static ReferenceScope soft() {
+        return new ReferenceScope(SoftReference::new);
+    }
+
+    /**
+     * @return a scope whose instances are reclaimed once nothing else refers to them
+     */
+    public static ReferenceScope weak() {
+        return new ReferenceScope(WeakReference::new);
+    }
+
+    @Override public boolean canInject(Scope scope) {
+        return true;
+    }
+
+    @Override public ProvisionStrategy decorate(ResourceMetadata<?> resourceMetadata,
+                                                ProvisionStrategy delegateStrategy,
+                                                Linkers linkers) {
+        return new Entry(delegateStrategy);
+    }
+
+    private final class Entry implements ProvisionStrategy {
+
+        final ProvisionStrategy delegateStrategy;
+        volatile Reference<Object> reference;
+
+        Entry(ProvisionStrategy delegateStrategy) {
+            this.delegateStrategy = delegateStrategy;
+        }
+
+        @Override public Object get(DependencySupplier dependencySupplier, ResolutionContext resolutionContext) {
+            Object instance = dereference();
+            if (instance != null) {
+                return instance;
+            }
+            synchronized (this) {
+                instance = dereference();
+                if (instance == null) {
+                    instance = delegateStrategy.get(dependencySupplier, resolutionContext);
+                    reference = referenceFactory.apply(instance);
+                }
+                return instance;
+            }
+        }
+
+        private Object dereference() {
+            Reference<Object> reference = this.reference;
+            return reference == null ? null : reference.get();
+        }
+
+    }
+
+}
@@ -0,0 +1,161 @@
+package io.gunmetal.integration;
+
+import io.gunmetal.Component;
+import io.gunmetal.Inject;
+import io.gunmetal.Module;
+import io.gunmetal.Supplies;
+import io.gunmetal.spi.GunmetalComponent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author rees.byars
+ */
+public class AsyncProvisioningIntegrationTest {
+
+    public static class Connection {
+    }
+
+    public static class Catalog {
+    }
+
+    public static class Report {
+        final Connection connection;
+        final Catalog catalog;
+
+        Report(Connection connection, Catalog catalog) {
+            this.connection = connection;
+            this.catalog = catalog;
+        }
+    }
+
+    public static class Cyclic {
+        @Inject Cyclic(Dependent dependent, Catalog catalog) {
+        }
+    }
+
+    public static class Dependent {
+        @Inject Dependent(Cyclic cyclic) {
+        }
+    }
+
+    @Module
+    public static class AsyncModule {
+
+        static volatile CountDownLatch started;
+        static volatile CountDownLatch released;
+        static final AtomicBoolean REPORTED = new AtomicBoolean();
+
+        static void await() {
+            started.countDown();
+            try {
+                // only completes immediately if the connection and catalog are set up at the same time
+                started.await(5, TimeUnit.SECONDS);
+                released.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Supplies static Connection connection() {
+            await();
+            return new Connection();
+        }
+
+        @Supplies static Catalog catalog() {
+            await();
+            return new Catalog();
+        }
+
+        @Supplies static Report report(Connection connection, Catalog catalog) {
+            REPORTED.set(true);
+            return new Report(connection, catalog);
+        }
+
+    }
+
+    @Module(dependsOn = AsyncModule.class, component = true)
+    public interface AsyncComponent {
+
+        CompletableFuture<Report> report();
+
+        CompletableFuture<Cyclic> cyclic();
+
+    }
+
+    public interface Factory {
+        AsyncComponent create();
+    }
+
+    private ExecutorService executor;
+    private AsyncComponent component;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        component = Component.buildTemplate(
+                new GunmetalComponent.Default().asyncExecutor(executor), Factory.class).create();
+        AsyncModule.started = new CountDownLatch(2);
+        AsyncModule.released = new CountDownLatch(0);
+        AsyncModule.REPORTED.set(false);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test(timeout = 10000)
+    public void testArgumentsAreResolvedInParallel() throws Exception {
+        long start = System.nanoTime();
+        Report report = component.report().get();
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(4));
+        assertNotNull(report.connection);
+        assertNotNull(report.catalog);
+    }
+
+    @Test(timeout = 10000)
+    public void testCyclesAreDetected() throws Exception {
+        AsyncModule.started = new CountDownLatch(0);
+        try {
+            component.cyclic().get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RuntimeException);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testCancellation() throws Exception {
+        AsyncModule.released = new CountDownLatch(1);
+        CompletableFuture<Report> report = component.report();
+        AsyncModule.started.await();
+        assertTrue(report.cancel(true));
+        AsyncModule.released.countDown();
+        try {
+            report.get();
+            fail();
+        } catch (CancellationException e) {
+            // expected
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertFalse(AsyncModule.REPORTED.get());
+    }
+
+}
@@ -0,0 +1,169 @@
+package io.gunmetal.integration;
+
+import io.gunmetal.Component;
+import io.gunmetal.Module;
+import io.gunmetal.Singleton;
+import io.gunmetal.Supplies;
+import io.gunmetal.spi.ComponentReadiness;
+import io.gunmetal.spi.GunmetalComponent;
+import io.gunmetal.spi.Option;
+import io.gunmetal.spi.ResourceMetadata;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author rees.byars
+ */
+public class BackgroundInitializationIntegrationTest {
+
+    public static class Slow {
+    }
+
+    public static class Fast {
+    }
+
+    @Module
+    public static class StartupModule {
+
+        static volatile CountDownLatch released;
+        static volatile boolean fail;
+
+        @Supplies @Singleton static Slow slow() {
+            try {
+                released.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            if (fail) {
+                throw new IllegalStateException("slow failed");
+            }
+            return new Slow();
+        }
+
+        @Supplies @Singleton static Fast fast() {
+            return new Fast();
+        }
+
+    }
+
+    @Module(dependsOn = StartupModule.class, component = true)
+    public interface StartupComponent {
+
+        Slow slow();
+
+        Fast fast();
+
+    }
+
+    public interface Factory {
+        StartupComponent create();
+    }
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+        StartupModule.released = new CountDownLatch(1);
+        StartupModule.fail = false;
+    }
+
+    @After
+    public void tearDown() {
+        StartupModule.released.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test(timeout = 10000)
+    public void testBackgroundInitialization() throws Exception {
+        verify(new GunmetalComponent.Default(Option.BACKGROUND_EAGER_INITIALIZATION));
+    }
+
+    @Test(timeout = 10000)
+    public void testBackgroundInitializationOfReplicatedGraphs() throws Exception {
+        GunmetalComponent.Default gunmetalComponent = new GunmetalComponent.Default(Option.BACKGROUND_EAGER_INITIALIZATION);
+        gunmetalComponent.strategyDecorators().add((resourceMetadata, delegateStrategy, linkers) -> delegateStrategy);
+        verify(gunmetalComponent);
+    }
+
+    private void verify(GunmetalComponent.Default gunmetalComponent) throws Exception {
+
+        StartupComponent component = Component.buildTemplate(
+                gunmetalComponent.eagerSingletonExecutor(executor), Factory.class).create();
+
+        ComponentReadiness readiness = Component.readiness(component);
+        assertFalse(readiness.isReady());
+        // does not wait on the slow singleton
+        assertNotNull(component.fast());
+        assertEquals(2, readiness.progress().size());
+        while (state(readiness, "fast") != ComponentReadiness.State.READY) {
+            Thread.sleep(10);
+        }
+        assertFalse(readiness.isReady());
+
+        StartupModule.released.countDown();
+        readiness.future().get(5, TimeUnit.SECONDS);
+        assertTrue(readiness.isReady());
+        assertEquals(ComponentReadiness.State.READY, state(readiness, "slow"));
+        assertSame(component.slow(), component.slow());
+
+    }
+
+    @Test(timeout = 10000)
+    public void testFailureIsReported() throws Exception {
+
+        StartupModule.fail = true;
+        StartupComponent component = Component.buildTemplate(
+                new GunmetalComponent.Default(Option.BACKGROUND_EAGER_INITIALIZATION).eagerSingletonExecutor(executor),
+                Factory.class).create();
+        StartupModule.released.countDown();
+
+        ComponentReadiness readiness = Component.readiness(component);
+        try {
+            readiness.future().get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertEquals("slow failed", e.getCause().getMessage());
+        }
+        assertFalse(readiness.isReady());
+        assertEquals(ComponentReadiness.State.FAILED, state(readiness, "slow"));
+
+        // constructed again on request
+        StartupModule.fail = false;
+        assertNotNull(component.slow());
+
+    }
+
+    @Test
+    public void testComponentsAreReadyByDefault() {
+        StartupModule.released.countDown();
+        StartupComponent component = Component.buildTemplate(Factory.class).create();
+        assertTrue(Component.readiness(component).isReady());
+    }
+
+    private static ComponentReadiness.State state(ComponentReadiness readiness, String provider) {
+        for (Map.Entry<ResourceMetadata<?>, ComponentReadiness.State> entry : readiness.progress().entrySet()) {
+            if (((Method) entry.getKey().provider()).getName().equals(provider)) {
+                return entry.getValue();
+            }
+        }
+        throw new AssertionError(provider);
+    }
+
+}
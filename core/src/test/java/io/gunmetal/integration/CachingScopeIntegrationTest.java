@@ -0,0 +1,196 @@
+package io.gunmetal.integration;
+
+import io.gunmetal.Component;
+import io.gunmetal.Module;
+import io.gunmetal.Scope;
+import io.gunmetal.Supplies;
+import io.gunmetal.spi.GunmetalComponent;
+import io.gunmetal.spi.impl.CachingScope;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author rees.byars
+ */
+public class CachingScopeIntegrationTest {
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Scope
+    public @interface Cached {
+    }
+
+    public static class Connection implements AutoCloseable {
+
+        boolean closed;
+
+        @Override public void close() {
+            closed = true;
+        }
+
+    }
+
+    public static class Rates {
+    }
+
+    @Module
+    public static class CachedModule {
+
+        @Supplies @Cached static Connection connection() {
+            return new Connection();
+        }
+
+        @Supplies @Cached static Rates rates() {
+            return new Rates();
+        }
+
+    }
+
+    @Module(dependsOn = CachedModule.class, component = true)
+    public interface CachedComponent {
+
+        Connection connection();
+
+        Rates rates();
+
+    }
+
+    public interface Factory {
+        CachedComponent create();
+    }
+
+    private final AtomicLong time = new AtomicLong();
+    private final List<Runnable> refreshes = new ArrayList<>();
+    private CachingScope scope;
+
+    @Before
+    public void setUp() {
+        scope = new CachingScope().ticker(time::get).refreshExecutor(refreshes::add);
+    }
+
+    private CachedComponent component() {
+        return Component.buildTemplate(new GunmetalComponent.Default().addScope(Cached.class, scope, scope), Factory.class).create();
+    }
+
+    @Test
+    public void testExpiry() {
+
+        CachedComponent component = component();
+        scope.expireAfterWrite(10, TimeUnit.SECONDS);
+
+        Connection connection = component.connection();
+        time.addAndGet(TimeUnit.SECONDS.toNanos(9));
+        assertSame(connection, component.connection());
+        assertFalse(connection.closed);
+
+        time.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        Connection rebuilt = component.connection();
+        assertNotSame(connection, rebuilt);
+        assertTrue(connection.closed);
+
+        time.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertEquals(1, scope.size());
+        scope.cleanUp();
+        assertEquals(0, scope.size());
+        assertTrue(rebuilt.closed);
+
+    }
+
+    @Test
+    public void testMaximumSize() {
+
+        CachedComponent component = component();
+        scope.maximumSize(1);
+
+        Connection connection = component.connection();
+        time.incrementAndGet();
+        Rates rates = component.rates();
+        assertEquals(1, scope.size());
+        assertTrue(connection.closed);
+        assertSame(rates, component.rates());
+
+        time.incrementAndGet();
+        assertNotSame(connection, component.connection());
+        assertNotSame(rates, component.rates());
+
+        scope.invalidateAll();
+        assertEquals(0, scope.size());
+
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+
+        scope.maximumSize(2);
+        CachedComponent component = component();
+
+        Connection connection = component.connection();
+        Rates rates = component.rates();
+        assertSame(connection, component.connection());
+        // the rates are now the least recently used
+        Connection other = component().connection();
+        assertEquals(2, scope.size());
+        assertFalse(connection.closed);
+        assertFalse(other.closed);
+        assertSame(connection, component.connection());
+        assertNotSame(rates, component.rates());
+
+    }
+
+    @Test(timeout = 10000)
+    public void testEntriesOfUnreachableComponentsAreEvicted() throws Exception {
+
+        scope.maximumSize(2);
+        Connection connection = component().connection();
+        assertEquals(1, scope.size());
+
+        while (scope.size() > 0) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertTrue(connection.closed);
+
+        CachedComponent component = component();
+        Connection live = component.connection();
+        Rates rates = component.rates();
+        assertEquals(2, scope.size());
+        assertSame(live, component.connection());
+        assertSame(rates, component.rates());
+
+    }
+
+    @Test
+    public void testRefresh() {
+
+        CachedComponent component = component();
+        scope.refreshAfterWrite(1, TimeUnit.MINUTES);
+
+        Connection connection = component.connection();
+        time.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        // the stale instance is served while it is refreshed
+        assertSame(connection, component.connection());
+        assertSame(connection, component.connection());
+        assertEquals(1, refreshes.size());
+
+        refreshes.remove(0).run();
+        assertTrue(connection.closed);
+        Connection refreshed = component.connection();
+        assertNotSame(connection, refreshed);
+        assertSame(refreshed, component.connection());
+        assertTrue(refreshes.isEmpty());
+
+    }
+
+}
@@ -0,0 +1,178 @@
+package io.gunmetal.integration;
+
+import io.gunmetal.Component;
+import io.gunmetal.Module;
+import io.gunmetal.Singleton;
+import io.gunmetal.Supplies;
+import io.gunmetal.spi.GunmetalComponent;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author rees.byars
+ */
+public class ChildComponentIntegrationTest {
+
+    public static class Service {
+    }
+
+    public static class Handler {
+
+        final Service service;
+        final String request;
+
+        Handler(Service service, String request) {
+            this.service = service;
+            this.request = request;
+        }
+
+    }
+
+    @Module
+    public static class ServiceModule {
+
+        static final AtomicInteger constructed = new AtomicInteger();
+
+        @Supplies @Singleton static Service service() {
+            constructed.incrementAndGet();
+            return new Service();
+        }
+
+    }
+
+    @Module
+    public static class RequestModule {
+
+        private final String request;
+
+        public RequestModule(String request) {
+            this.request = request;
+        }
+
+        @Supplies @Singleton Handler handler(Service service) {
+            return new Handler(service, request);
+        }
+
+    }
+
+    @Module(component = true)
+    public interface RequestComponent {
+
+        Handler handler();
+
+        Service service();
+
+        Supplier<Service> serviceSupplier();
+
+    }
+
+    @Module(dependsOn = ServiceModule.class, component = true)
+    public interface ApplicationComponent {
+
+        Service service();
+
+        RequestComponent plus(RequestModule requestModule);
+
+    }
+
+    public interface Factory {
+        ApplicationComponent create();
+    }
+
+    @Module
+    public static class TenantModule {
+
+        private final String tenant;
+
+        public TenantModule(String tenant) {
+            this.tenant = tenant;
+        }
+
+        @Supplies String tenant() {
+            return tenant;
+        }
+
+    }
+
+    @Module(component = true)
+    public interface TenantRequestComponent {
+
+        String tenant();
+
+        Handler handler();
+
+    }
+
+    @Module(dependsOn = ServiceModule.class, component = true)
+    public interface TenantComponent {
+
+        TenantRequestComponent plus(RequestModule requestModule);
+
+    }
+
+    public interface TenantFactory {
+        TenantComponent create(TenantModule tenantModule);
+    }
+
+    @Test
+    public void testChildComponentsShareTheParentGraph() {
+        verify(new GunmetalComponent.Default());
+    }
+
+    @Test
+    public void testChildComponentsOfReplicatedGraphs() {
+        GunmetalComponent.Default gunmetalComponent = new GunmetalComponent.Default();
+        gunmetalComponent.strategyDecorators().add((resourceMetadata, delegateStrategy, linkers) -> delegateStrategy);
+        verify(gunmetalComponent);
+    }
+
+    @Test
+    public void testChildComponentsProvisionWithTheStateOfTheParent() {
+
+        TenantFactory factory = Component.buildTemplate(TenantFactory.class);
+
+        // the prototype of the parent is provisioned with a context forked from that of the child, which
+        // still takes the stateful modules of the parent
+        TenantRequestComponent request = factory.create(new TenantModule("tenant")).plus(new RequestModule("request"));
+        assertEquals("tenant", request.tenant());
+        assertEquals("tenant", request.tenant());
+        assertEquals("request", request.handler().request);
+
+    }
+
+    private void verify(GunmetalComponent gunmetalComponent) {
+
+        Factory factory = Component.buildTemplate(gunmetalComponent, Factory.class);
+        ServiceModule.constructed.set(0);
+
+        ApplicationComponent application = factory.create();
+        RequestComponent first = application.plus(new RequestModule("first"));
+        RequestComponent second = application.plus(new RequestModule("second"));
+
+        Service service = application.service();
+        assertSame(service, first.service());
+        assertSame(service, second.service());
+        assertSame(service, first.serviceSupplier().get());
+        assertSame(service, first.handler().service);
+        assertEquals(1, ServiceModule.constructed.get());
+
+        // the bindings of the child belong to each child
+        assertSame(first.handler(), first.handler());
+        assertNotSame(first.handler(), second.handler());
+        assertEquals("first", first.handler().request);
+        assertEquals("second", second.handler().request);
+
+        // and the singletons of the parent to each parent
+        ApplicationComponent other = factory.create();
+        assertNotSame(service, other.plus(new RequestModule("other")).handler().service);
+        assertSame(other.service(), other.plus(new RequestModule("other")).service());
+
+    }
+
+}
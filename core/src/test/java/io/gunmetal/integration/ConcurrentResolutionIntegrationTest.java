@@ -0,0 +1,79 @@
+package io.gunmetal.integration;
+
+import io.gunmetal.Component;
+import io.gunmetal.Inject;
+import io.gunmetal.Module;
+import io.gunmetal.Singleton;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author rees.byars
+ */
+public class ConcurrentResolutionIntegrationTest {
+
+    @Singleton
+    public static class JitSingleton {
+    }
+
+    public static class Holder {
+        @Inject JitSingleton singleton;
+        @Inject Supplier<JitSingleton> supplier;
+    }
+
+    @Module(component = true)
+    public interface TestComponent {
+
+        void inject(Object o);
+
+    }
+
+    public interface Factory {
+        TestComponent create();
+    }
+
+    @Test
+    public void testConcurrentJustInTimeBindingsAreCreatedOnce() throws Exception {
+
+        int threads = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int run = 0; run < 10; run++) {
+                TestComponent component = Component.buildTemplate(Factory.class).create();
+                CountDownLatch start = new CountDownLatch(1);
+                Set<Object> singletons = ConcurrentHashMap.newKeySet();
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        Holder holder = new Holder();
+                        component.inject(holder);
+                        singletons.add(holder.singleton);
+                        singletons.add(holder.supplier.get());
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                assertEquals(1, singletons.size());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+    }
+
+}
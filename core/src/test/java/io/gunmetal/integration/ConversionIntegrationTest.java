@@ -0,0 +1,109 @@
+package io.gunmetal.integration;
+
+import io.gunmetal.Component;
+import io.gunmetal.Module;
+import io.gunmetal.Supplies;
+import io.gunmetal.spi.Converter;
+import io.gunmetal.spi.ConverterSupplier;
+import io.gunmetal.spi.GunmetalComponent;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author rees.byars
+ */
+public class ConversionIntegrationTest {
+
+    @Module
+    public static class NumberModule {
+
+        @Supplies static Integer number() {
+            return 42;
+        }
+
+    }
+
+    public interface Amount {
+        int cents();
+    }
+
+    public interface Label {
+        String text();
+    }
+
+    public interface Receipt {
+        String line();
+    }
+
+    @Module(dependsOn = NumberModule.class, component = true)
+    public interface ConversionComponent {
+
+        Receipt receipt();
+
+        Label label();
+
+        Amount amount();
+
+    }
+
+    public interface Factory {
+        ConversionComponent create();
+    }
+
+    static Converter converter(Class<?> fromType, Function<Object, Object> conversion) {
+        return new Converter() {
+            @Override public List<Class<?>> supportedFromTypes() {
+                return Collections.singletonList(fromType);
+            }
+
+            @Override public Object convert(Object from) {
+                return conversion.apply(from);
+            }
+        };
+    }
+
+    @Test
+    public void testConversionsAreComposed() {
+
+        Map<Class<?>, AtomicInteger> lookups = new ConcurrentHashMap<>();
+        ConverterSupplier converterSupplier = to -> {
+            lookups.computeIfAbsent(to.raw(), type -> new AtomicInteger()).incrementAndGet();
+            if (to.raw() == Amount.class) {
+                return Collections.singletonList(converter(Integer.class, from -> (Amount) () -> (Integer) from * 100));
+            } else if (to.raw() == Label.class) {
+                return Collections.singletonList(converter(Amount.class, from -> (Label) () -> "$" + ((Amount) from).cents() / 100));
+            } else if (to.raw() == Receipt.class) {
+                return Collections.singletonList(converter(Label.class, from -> (Receipt) () -> "total " + ((Label) from).text()));
+            }
+            return Collections.emptyList();
+        };
+
+        GunmetalComponent gunmetalComponent = new GunmetalComponent.Default() {
+
+            @Override public ConverterSupplier converterSupplier() {
+                return converterSupplier;
+            }
+
+        };
+
+        ConversionComponent component = Component.buildTemplate(gunmetalComponent, Factory.class).create();
+
+        assertEquals("total $42", component.receipt().line());
+        assertEquals("total $42", component.receipt().line());
+        assertEquals("$42", component.label().text());
+        assertEquals(4200, component.amount().cents());
+        assertEquals(1, lookups.get(Receipt.class).get());
+        assertEquals(1, lookups.get(Label.class).get());
+        assertEquals(1, lookups.get(Amount.class).get());
+
+    }
+
+}
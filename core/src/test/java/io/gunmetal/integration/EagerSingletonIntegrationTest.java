@@ -0,0 +1,178 @@
+package io.gunmetal.integration;
+
+import io.gunmetal.Component;
+import io.gunmetal.Module;
+import io.gunmetal.Singleton;
+import io.gunmetal.Supplies;
+import io.gunmetal.spi.EagerSingletonReport;
+import io.gunmetal.spi.GunmetalComponent;
+import io.gunmetal.spi.ResourceMetadata;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author rees.byars
+ */
+public class EagerSingletonIntegrationTest {
+
+    public static class Pool {
+    }
+
+    public static class Cache {
+    }
+
+    public static class Warmer {
+        final Pool pool;
+        final Cache cache;
+
+        Warmer(Pool pool, Cache cache) {
+            this.pool = pool;
+            this.cache = cache;
+        }
+    }
+
+    public static class Client {
+        final Pool pool;
+
+        Client(Pool pool) {
+            this.pool = pool;
+        }
+    }
+
+    @Module
+    public static class StartupModule {
+
+        static volatile CountDownLatch started;
+        static final List<String> INITIALIZED = new ArrayList<>();
+
+        static void await() {
+            started.countDown();
+            try {
+                // only completes immediately if the pool and cache are initialized at the same time
+                started.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        static synchronized void initialized(String name) {
+            INITIALIZED.add(name);
+        }
+
+        @Supplies @Singleton static Pool pool() {
+            await();
+            initialized("pool");
+            return new Pool();
+        }
+
+        @Supplies @Singleton static Cache cache() {
+            await();
+            initialized("cache");
+            return new Cache();
+        }
+
+        // prototype in between the warmer and its eager dependencies
+        @Supplies static Client client(Pool pool) {
+            return new Client(pool);
+        }
+
+        @Supplies @Singleton static Warmer warmer(Client client, Cache cache) {
+            initialized("warmer");
+            return new Warmer(client.pool, cache);
+        }
+
+    }
+
+    @Module(dependsOn = StartupModule.class, component = true)
+    public interface StartupComponent {
+
+        Pool pool();
+
+        Warmer warmer();
+
+    }
+
+    public interface Factory {
+        StartupComponent create();
+    }
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        StartupModule.started = new CountDownLatch(2);
+        StartupModule.INITIALIZED.clear();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testParallelInitialization() {
+        verify(new GunmetalComponent.Default());
+    }
+
+    @Test
+    public void testParallelInitializationOfReplicatedGraphs() {
+        GunmetalComponent.Default gunmetalComponent = new GunmetalComponent.Default();
+        gunmetalComponent.strategyDecorators().add((resourceMetadata, delegateStrategy, linkers) -> delegateStrategy);
+        verify(gunmetalComponent);
+    }
+
+    private void verify(GunmetalComponent.Default gunmetalComponent) {
+
+        AtomicReference<EagerSingletonReport> report = new AtomicReference<>();
+        Factory factory = Component.buildTemplate(
+                gunmetalComponent.eagerSingletonExecutor(executor).eagerSingletonReportConsumer(report::set),
+                Factory.class);
+
+        long start = System.nanoTime();
+        StartupComponent component = factory.create();
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(4));
+
+        assertEquals(3, StartupModule.INITIALIZED.size());
+        assertEquals("warmer", StartupModule.INITIALIZED.get(2));
+        assertSame(component.pool(), component.warmer().pool);
+
+        assertEquals(3, report.get().initializationNanos().size());
+        List<ResourceMetadata<?>> criticalPath = report.get().criticalPath();
+        assertEquals(2, criticalPath.size());
+        assertEquals("warmer", ((Method) criticalPath.get(1).provider()).getName());
+        assertTrue(report.get().criticalPathNanos() <= report.get().totalNanos());
+
+    }
+
+    @Test
+    public void testSequentialInitializationIsReported() {
+
+        StartupModule.started = new CountDownLatch(0);
+        AtomicReference<EagerSingletonReport> report = new AtomicReference<>();
+        Factory factory = Component.buildTemplate(
+                new GunmetalComponent.Default().eagerSingletonReportConsumer(report::set),
+                Factory.class);
+
+        factory.create();
+        assertEquals("warmer", StartupModule.INITIALIZED.get(2));
+        assertEquals(3, report.get().initializationNanos().size());
+        assertEquals("warmer", ((Method) report.get().criticalPath().get(1).provider()).getName());
+
+    }
+
+}
@@ -0,0 +1,138 @@
+package io.gunmetal.integration;
+
+import io.gunmetal.Component;
+import io.gunmetal.Inject;
+import io.gunmetal.Module;
+import io.gunmetal.Supplies;
+import io.gunmetal.spi.GeneratedAccessor;
+import io.gunmetal.spi.GunmetalComponent;
+import io.gunmetal.spi.Option;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author rees.byars
+ */
+public class GeneratedAccessorIntegrationTest {
+
+    static boolean calledThroughAccessor() {
+        return Arrays.stream(new Throwable().getStackTrace())
+                .anyMatch(element -> element.getClassName().endsWith(GeneratedAccessor.SUFFIX));
+    }
+
+    public static class Service {
+        @Inject String name;
+        @Inject private int count;
+        boolean methodCalledThroughAccessor;
+
+        @Inject void init(String name) {
+            methodCalledThroughAccessor = calledThroughAccessor();
+        }
+    }
+
+    static boolean calledThroughLambda() {
+        return Arrays.stream(new Throwable().getStackTrace())
+                .anyMatch(element -> element.getClassName().endsWith("$LambdaFunction"));
+    }
+
+    // not annotated, so the processor writes no accessor for it
+    public static class Plain {
+        final boolean constructedThroughLambda = calledThroughLambda();
+    }
+
+    @Module
+    public static class AccessorModule {
+
+        static boolean supplierCalledThroughAccessor;
+
+        @Supplies static String name() {
+            supplierCalledThroughAccessor = calledThroughAccessor();
+            return "name";
+        }
+
+        @Supplies static int count() {
+            return 3;
+        }
+
+        @Supplies static Service service() {
+            return new Service();
+        }
+
+    }
+
+    @Module(dependsOn = AccessorModule.class, component = true)
+    public interface TestComponent {
+
+        void inject(Object o);
+
+        String name();
+
+        Plain plain();
+
+    }
+
+    public interface Factory {
+        TestComponent create();
+    }
+
+    @Test
+    public void testAccessorsAreGenerated() throws Exception {
+        GeneratedAccessor accessor = (GeneratedAccessor) Class.forName(
+                AccessorModule.class.getName() + GeneratedAccessor.SUFFIX).getConstructor().newInstance();
+        assertEquals(
+                Arrays.asList("<init>()", "name()java.lang.String", "count()int",
+                        "service()" + Service.class.getName()),
+                Arrays.asList(accessor.members()));
+        accessor = (GeneratedAccessor) Class.forName(
+                Service.class.getName() + GeneratedAccessor.SUFFIX).getConstructor().newInstance();
+        // the private field is left to reflection
+        assertEquals(
+                Arrays.asList("<init>()", "name:java.lang.String", "init(java.lang.String)void"),
+                Arrays.asList(accessor.members()));
+    }
+
+    @Test
+    public void testGeneratedAccessorsAreUsed() {
+
+        TestComponent component = Component.buildTemplate(Factory.class).create();
+        assertEquals("name", component.name());
+        assertTrue(AccessorModule.supplierCalledThroughAccessor);
+
+        Service service = new Service();
+        component.inject(service);
+        assertEquals("name", service.name);
+        assertEquals(3, service.count);
+        assertTrue(service.methodCalledThroughAccessor);
+
+    }
+
+    @Test
+    public void testPublicMembersWithoutAccessorsAreCalledThroughLambdas() {
+
+        TestComponent component = Component.buildTemplate(Factory.class).create();
+        assertTrue(component.plain().constructedThroughLambda);
+
+        component = Component.buildTemplate(
+                new GunmetalComponent.Default(Option.REFLECTIVE_INVOCATION),
+                Factory.class).create();
+        assertFalse(component.plain().constructedThroughLambda);
+
+    }
+
+    @Test
+    public void testReflectiveInvocationIgnoresAccessors() {
+
+        TestComponent component = Component.buildTemplate(
+                new GunmetalComponent.Default(Option.REFLECTIVE_INVOCATION),
+                Factory.class).create();
+        assertEquals("name", component.name());
+        assertFalse(AccessorModule.supplierCalledThroughAccessor);
+
+    }
+
+}
@@ -0,0 +1,190 @@
+package io.gunmetal.integration;
+
+import io.gunmetal.Component;
+import io.gunmetal.Inject;
+import io.gunmetal.Module;
+import io.gunmetal.Param;
+import io.gunmetal.Supplies;
+import io.gunmetal.sandbox.testmocks.D;
+import io.gunmetal.sandbox.testmocks.E;
+import io.gunmetal.sandbox.testmocks.SlimGunmetalBenchMarkModule;
+import io.gunmetal.spi.GunmetalComponent;
+import io.gunmetal.spi.Option;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author rees.byars
+ */
+public class GeneratedComponentIntegrationTest {
+
+    @Module
+    public static class PrimitiveModule {
+        @Supplies static int count() {
+            return 3;
+        }
+    }
+
+    @Module(dependsOn = PrimitiveModule.class)
+    public static class RepeatModule {
+        @Supplies static String repeated(@Param String value, int count) {
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < count; i++) {
+                builder.append(value);
+            }
+            return builder.toString();
+        }
+    }
+
+    @Module(dependsOn = {SlimGunmetalBenchMarkModule.class, RepeatModule.class}, component = true)
+    public interface TestComponent {
+
+        void inject(Object o);
+
+        Supplier<D> dSupplier();
+
+        E e();
+
+        int count();
+
+        String repeated(@Param String value);
+
+    }
+
+    public interface Factory {
+        TestComponent create();
+    }
+
+    static class InjectTest {
+        @Inject E e;
+    }
+
+    @Module(component = true, dependsOn = PrimitiveModule.class)
+    interface HiddenComponent {
+
+        int count();
+
+        default String describe() {
+            return "hidden";
+        }
+
+    }
+
+    interface HiddenFactory {
+        HiddenComponent create();
+    }
+
+    static class Enclosing {
+
+        public static class Nested {
+        }
+
+        @Module(component = true, dependsOn = PrimitiveModule.class)
+        public interface NestedComponent {
+            int count();
+        }
+
+        public interface NestedFactory {
+            NestedComponent create();
+        }
+
+    }
+
+    @Module
+    public static class NestedModule {
+        @Supplies static Enclosing.Nested nested() {
+            return new Enclosing.Nested();
+        }
+    }
+
+    @Module(component = true, dependsOn = NestedModule.class)
+    public interface NestedTypeComponent {
+        Enclosing.Nested nested();
+    }
+
+    public interface NestedTypeFactory {
+        NestedTypeComponent create();
+    }
+
+    @Test
+    public void testGeneratedComponent() {
+
+        TestComponent component = Component.buildTemplate(
+                new GunmetalComponent.Default(Option.GENERATE_COMPONENT_CLASSES),
+                Factory.class).create();
+
+        assertFalse(Proxy.isProxyClass(component.getClass()));
+        assertTrue(component instanceof Component);
+
+        InjectTest injectTest = new InjectTest();
+        component.inject(injectTest);
+
+        assertTrue(injectTest.e == component.e());
+        assertFalse(component.dSupplier().get() == component.dSupplier().get());
+        assertEquals(3, component.count());
+        assertEquals("abcabcabc", component.repeated("abc"));
+
+        assertTrue(Component.readiness(component).isReady());
+        assertTrue(Component.close(component).failures().isEmpty());
+
+    }
+
+    @Test
+    public void testInaccessibleComponentFallsBackToProxy() {
+
+        HiddenComponent component = Component.buildTemplate(
+                new GunmetalComponent.Default(Option.GENERATE_COMPONENT_CLASSES),
+                HiddenFactory.class).create();
+
+        assertTrue(Proxy.isProxyClass(component.getClass()));
+        assertEquals(3, component.count());
+
+    }
+
+    @Test
+    public void testComponentNestedInNonPublicClassFallsBackToProxy() {
+
+        Enclosing.NestedComponent component = Component.buildTemplate(
+                new GunmetalComponent.Default(Option.GENERATE_COMPONENT_CLASSES),
+                Enclosing.NestedFactory.class).create();
+
+        assertTrue(Proxy.isProxyClass(component.getClass()));
+        assertEquals(3, component.count());
+
+    }
+
+    @Test
+    public void testSignatureTypeNestedInNonPublicClassFallsBackToProxy() {
+
+        NestedTypeComponent component = Component.buildTemplate(
+                new GunmetalComponent.Default(Option.GENERATE_COMPONENT_CLASSES),
+                NestedTypeFactory.class).create();
+
+        assertTrue(Proxy.isProxyClass(component.getClass()));
+        assertTrue(component.nested() != null);
+
+    }
+
+    @Test
+    public void testProxyRejectsMethodsThatAreNotComponentMethods() {
+
+        HiddenComponent component = Component.buildTemplate(HiddenFactory.class).create();
+
+        try {
+            component.describe();
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("describe"));
+        }
+        assertEquals(3, component.count());
+
+    }
+
+}
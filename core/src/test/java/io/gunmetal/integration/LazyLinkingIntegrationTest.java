@@ -0,0 +1,112 @@
+package io.gunmetal.integration;
+
+import io.gunmetal.Component;
+import io.gunmetal.Inject;
+import io.gunmetal.Module;
+import io.gunmetal.Singleton;
+import io.gunmetal.Supplies;
+import io.gunmetal.spi.GunmetalComponent;
+import io.gunmetal.spi.Option;
+import org.junit.Test;
+
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author rees.byars
+ */
+public class LazyLinkingIntegrationTest {
+
+    public interface Missing {
+    }
+
+    public static class Unreachable {
+        @Inject Missing missing;
+    }
+
+    public static class Service {
+        @Inject String name;
+    }
+
+    @Module
+    public static class LibraryModule {
+
+        @Supplies static String name() {
+            return "name";
+        }
+
+        @Supplies @Singleton static Service service(Supplier<Service> unused) {
+            return new Service();
+        }
+
+        @Supplies static Unreachable unreachable(Missing missing) {
+            return new Unreachable();
+        }
+
+    }
+
+    @Module(dependsOn = LibraryModule.class, component = true)
+    public interface TestComponent {
+
+        void inject(Object o);
+
+        Service service();
+
+    }
+
+    public interface Factory {
+        TestComponent create();
+    }
+
+    static class InjectTest {
+        @Inject Service service;
+    }
+
+    @Test
+    public void testEagerLinkingValidatesUnreachableBindings() {
+        try {
+            Component.buildTemplate(Factory.class);
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains(Missing.class.getName()));
+        }
+    }
+
+    @Test
+    public void testLazyLinking() {
+        verify(new GunmetalComponent.Default(Option.LAZY_LINKING));
+    }
+
+    @Test
+    public void testLazyLinkingOfReplicatedGraphs() {
+        GunmetalComponent gunmetalComponent = new GunmetalComponent.Default(Option.LAZY_LINKING);
+        gunmetalComponent.strategyDecorators().add((resourceMetadata, delegateStrategy, linkers) -> delegateStrategy);
+        verify(gunmetalComponent);
+    }
+
+    private void verify(GunmetalComponent gunmetalComponent) {
+
+        Factory factory = Component.buildTemplate(gunmetalComponent, Factory.class);
+
+        TestComponent component = factory.create();
+        Service service = component.service();
+        assertSame(service, component.service());
+
+        InjectTest injectTest = new InjectTest();
+        component.inject(injectTest);
+        assertSame(service, injectTest.service);
+
+        Unreachable unreachable = new Unreachable();
+        try {
+            component.inject(unreachable);
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains(Missing.class.getName()));
+        }
+
+    }
+
+}
@@ -0,0 +1,143 @@
+package io.gunmetal.integration;
+
+import io.gunmetal.Component;
+import io.gunmetal.Module;
+import io.gunmetal.MultiBind;
+import io.gunmetal.Supplies;
+import io.gunmetal.spi.GunmetalComponent;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author rees.byars
+ */
+public class LazyMultiBindIntegrationTest {
+
+    static final AtomicInteger constructed = new AtomicInteger();
+
+    public static class Handler {
+
+        final String name;
+
+        Handler(String name) {
+            constructed.incrementAndGet();
+            this.name = name;
+        }
+
+    }
+
+    @Module
+    public static class HandlerModule {
+
+        @Supplies @MultiBind static Handler first() {
+            return new Handler("first");
+        }
+
+        @Supplies @MultiBind static Handler second() {
+            return new Handler("second");
+        }
+
+        @Supplies @MultiBind static Handler third() {
+            return new Handler("third");
+        }
+
+    }
+
+    @Module(dependsOn = HandlerModule.class, component = true)
+    public interface HandlerComponent {
+
+        @MultiBind Iterable<Handler> handlers();
+
+        @MultiBind Stream<Handler> handlerStream();
+
+        @MultiBind List<Supplier<Handler>> handlerSuppliers();
+
+        @MultiBind Supplier<Iterable<Handler>> handlersSupplier();
+
+    }
+
+    @Module(component = true)
+    public interface EmptyComponent {
+
+        @MultiBind Iterable<Handler> handlers();
+
+        @MultiBind Stream<Handler> handlerStream();
+
+    }
+
+    public interface Factory {
+        HandlerComponent create();
+    }
+
+    public interface EmptyFactory {
+        EmptyComponent create();
+    }
+
+    @Before
+    public void setUp() {
+        constructed.set(0);
+    }
+
+    @Test
+    public void testElementsAreProvisionedAsTheyAreReached() {
+        verify(new GunmetalComponent.Default());
+    }
+
+    @Test
+    public void testElementsOfReplicatedGraphsAreProvisionedAsTheyAreReached() {
+        GunmetalComponent.Default gunmetalComponent = new GunmetalComponent.Default();
+        gunmetalComponent.strategyDecorators().add((resourceMetadata, delegateStrategy, linkers) -> delegateStrategy);
+        verify(gunmetalComponent);
+    }
+
+    private void verify(GunmetalComponent gunmetalComponent) {
+
+        HandlerComponent component = Component.buildTemplate(gunmetalComponent, Factory.class).create();
+        constructed.set(0);
+
+        Iterable<Handler> handlers = component.handlers();
+        assertSame(handlers, component.handlers());
+        assertSame(handlers, component.handlersSupplier().get());
+        Iterator<Handler> iterator = handlers.iterator();
+        assertEquals(0, constructed.get());
+        assertEquals("first", iterator.next().name);
+        assertEquals(1, constructed.get());
+        List<String> names = new ArrayList<>();
+        handlers.forEach(handler -> names.add(handler.name));
+        assertEquals("[first, second, third]", names.toString());
+
+        constructed.set(0);
+        assertEquals("second", component.handlerStream().filter(h -> !h.name.equals("first")).findFirst().get().name);
+        assertEquals(2, constructed.get());
+        assertEquals(3, component.handlerStream().collect(Collectors.toList()).size());
+
+        constructed.set(0);
+        List<Supplier<Handler>> suppliers = component.handlerSuppliers();
+        assertSame(suppliers, component.handlerSuppliers());
+        assertEquals(3, suppliers.size());
+        assertEquals(0, constructed.get());
+        assertEquals("third", suppliers.get(2).get().name);
+        assertEquals(1, constructed.get());
+
+    }
+
+    @Test
+    public void testEmpty() {
+        EmptyComponent component = Component.buildTemplate(EmptyFactory.class).create();
+        assertFalse(component.handlers().iterator().hasNext());
+        assertEquals(0, component.handlerStream().count());
+    }
+
+}
@@ -0,0 +1,169 @@
+package io.gunmetal.integration;
+
+import io.gunmetal.ClassKey;
+import io.gunmetal.Component;
+import io.gunmetal.Module;
+import io.gunmetal.MultiBind;
+import io.gunmetal.Singleton;
+import io.gunmetal.StringKey;
+import io.gunmetal.Supplies;
+import io.gunmetal.spi.GunmetalComponent;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author rees.byars
+ */
+public class MapMultiBindIntegrationTest {
+
+    public interface Handler {
+    }
+
+    public static class Order {
+    }
+
+    public static class Refund {
+    }
+
+    public static class Invoice {
+    }
+
+    @Module
+    public static class HandlerModule {
+
+        @Supplies @Singleton @MultiBind @ClassKey(Order.class) static Handler order() {
+            return new Handler() { };
+        }
+
+        @Supplies @Singleton @MultiBind @ClassKey(Refund.class) static Handler refund() {
+            return new Handler() { };
+        }
+
+    }
+
+    @Module
+    public static class ReportModule {
+
+        @Supplies @MultiBind @StringKey("daily") static Handler daily() {
+            return new Handler() { };
+        }
+
+        @Supplies @Singleton @MultiBind @StringKey("monthly") static Handler monthly() {
+            return new Handler() { };
+        }
+
+    }
+
+    @Module
+    public static class DuplicateKeyModule {
+
+        @Supplies @MultiBind @StringKey("daily") static Handler daily() {
+            return new Handler() { };
+        }
+
+        @Supplies @MultiBind @StringKey("daily") static Handler alsoDaily() {
+            return new Handler() { };
+        }
+
+    }
+
+    @Module(dependsOn = HandlerModule.class, component = true)
+    public interface RouterComponent {
+
+        @MultiBind Map<Class<?>, Handler> handlers();
+
+        @MultiBind List<Handler> handlerList();
+
+        @MultiBind Supplier<Map<Class<?>, Handler>> handlersSupplier();
+
+    }
+
+    @Module(dependsOn = ReportModule.class, component = true)
+    public interface ReportComponent {
+
+        @MultiBind Map<String, Handler> reports();
+
+        @MultiBind Map<String, Supplier<Handler>> reportSuppliers();
+
+    }
+
+    @Module(dependsOn = DuplicateKeyModule.class, component = true)
+    public interface DuplicateKeyComponent {
+
+        @MultiBind Map<String, Handler> reports();
+
+    }
+
+    public interface RouterFactory {
+        RouterComponent create();
+    }
+
+    public interface ReportFactory {
+        ReportComponent create();
+    }
+
+    public interface DuplicateKeyFactory {
+        DuplicateKeyComponent create();
+    }
+
+    @Test
+    public void testSingletonElementsAreSharedByKey() {
+        verifyRouter(new GunmetalComponent.Default());
+    }
+
+    @Test
+    public void testSingletonElementsOfReplicatedGraphsAreSharedByKey() {
+        GunmetalComponent.Default gunmetalComponent = new GunmetalComponent.Default();
+        gunmetalComponent.strategyDecorators().add((resourceMetadata, delegateStrategy, linkers) -> delegateStrategy);
+        verifyRouter(gunmetalComponent);
+    }
+
+    private void verifyRouter(GunmetalComponent gunmetalComponent) {
+        RouterFactory factory = Component.buildTemplate(gunmetalComponent, RouterFactory.class);
+        RouterComponent component = factory.create();
+        Map<Class<?>, Handler> handlers = component.handlers();
+        assertEquals(2, handlers.size());
+        assertSame(handlers, component.handlers());
+        assertSame(handlers, component.handlersSupplier().get());
+        assertEquals(component.handlerList(), new ArrayList<>(handlers.values()));
+        assertEquals(Arrays.asList(Order.class, Refund.class), new ArrayList<>(handlers.keySet()));
+        assertSame(component.handlerList().get(1), handlers.get(Refund.class));
+        assertTrue(handlers.containsKey(Order.class));
+        assertNull(handlers.get(Invoice.class));
+        assertFalse(handlers.containsKey(null));
+        assertNotSame(handlers.get(Order.class), factory.create().handlers().get(Order.class));
+    }
+
+    @Test
+    public void testMixedElementsAndSuppliers() {
+        ReportComponent component = Component.buildTemplate(ReportFactory.class).create();
+        Map<String, Handler> reports = component.reports();
+        Map<String, Handler> nextReports = component.reports();
+        assertNotSame(reports, nextReports);
+        assertNotSame(reports.get("daily"), nextReports.get("daily"));
+        assertSame(reports.get("monthly"), nextReports.get("monthly"));
+
+        Map<String, Supplier<Handler>> suppliers = component.reportSuppliers();
+        assertSame(suppliers, component.reportSuppliers());
+        assertNotSame(suppliers.get("daily").get(), suppliers.get("daily").get());
+        assertSame(reports.get("monthly"), suppliers.get("monthly").get());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testDuplicateKeysAreRejected() {
+        Component.buildTemplate(DuplicateKeyFactory.class).create().reports();
+    }
+
+}
@@ -3,6 +3,7 @@ package io.gunmetal.integration;
 import io.gunmetal.Component;
 import io.gunmetal.Module;
 import io.gunmetal.MultiBind;
+import io.gunmetal.Singleton;
 import io.gunmetal.Supplies;
 import org.junit.Test;
 
@@ -10,6 +11,9 @@ import java.util.List;
 import java.util.function.Supplier;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 
 /**
  * @author rees.byars
@@ -29,6 +33,53 @@ public class MultiBindIntegrationTest {
         @MultiBind List<Object> objects();
     }
 
+    public interface Handler {
+    }
+
+    @Module
+    public static class SingletonHandlerModule {
+
+        @Supplies @Singleton @MultiBind static Handler first() {
+            return new Handler() { };
+        }
+
+        @Supplies @Singleton @MultiBind static Handler second() {
+            return new Handler() { };
+        }
+
+    }
+
+    @Module
+    public static class PrototypeHandlerModule {
+
+        @Supplies @MultiBind static Handler prototype() {
+            return new Handler() { };
+        }
+
+    }
+
+    @Module(dependsOn = SingletonHandlerModule.class, component = true)
+    public interface SingletonHandlerComponent {
+
+        @MultiBind List<Handler> handlers();
+
+    }
+
+    @Module(dependsOn = {SingletonHandlerModule.class, PrototypeHandlerModule.class}, component = true)
+    public interface MixedHandlerComponent {
+
+        @MultiBind List<Handler> handlers();
+
+    }
+
+    public interface SingletonHandlerFactory {
+        SingletonHandlerComponent create();
+    }
+
+    public interface MixedHandlerFactory {
+        MixedHandlerComponent create();
+    }
+
     interface EmptyComponentFactory {
         TestComponent create();
     }
@@ -57,4 +108,33 @@ public class MultiBindIntegrationTest {
         assertEquals("test", Component.buildTemplate(NonEmptyComponentFactory.class).create(new NonEmptyModule()).objectsSupplier().get().get(0));
     }
 
+    @Test
+    public void testSingletonElementsAreSharedPerComponent() {
+        SingletonHandlerFactory factory = Component.buildTemplate(SingletonHandlerFactory.class);
+        SingletonHandlerComponent component = factory.create();
+        List<Handler> handlers = component.handlers();
+        assertEquals(2, handlers.size());
+        assertSame(handlers, component.handlers());
+        List<Handler> otherHandlers = factory.create().handlers();
+        assertNotSame(handlers, otherHandlers);
+        assertNotSame(handlers.get(0), otherHandlers.get(0));
+        try {
+            handlers.clear();
+            fail();
+        } catch (UnsupportedOperationException e) {
+            assertEquals(2, component.handlers().size());
+        }
+    }
+
+    @Test
+    public void testMixedElementsAreProvisionedPerRequest() {
+        MixedHandlerComponent component = Component.buildTemplate(MixedHandlerFactory.class).create();
+        List<Handler> handlers = component.handlers();
+        List<Handler> nextHandlers = component.handlers();
+        assertEquals(3, handlers.size());
+        assertNotSame(handlers, nextHandlers);
+        nextHandlers.removeAll(handlers);
+        assertEquals(1, nextHandlers.size());
+    }
+
 }
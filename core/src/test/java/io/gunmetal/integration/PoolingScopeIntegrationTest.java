@@ -0,0 +1,191 @@
+package io.gunmetal.integration;
+
+import io.gunmetal.Component;
+import io.gunmetal.Lease;
+import io.gunmetal.Module;
+import io.gunmetal.Scope;
+import io.gunmetal.Supplies;
+import io.gunmetal.spi.GunmetalComponent;
+import io.gunmetal.spi.impl.PoolingScope;
+import org.junit.Test;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author rees.byars
+ */
+public class PoolingScopeIntegrationTest {
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Scope
+    public @interface Pooled {
+    }
+
+    public static class Parser implements AutoCloseable {
+
+        int resets;
+        boolean closed;
+
+        @Override public void close() {
+            closed = true;
+        }
+
+    }
+
+    @Module
+    public static class PooledModule {
+
+        @Supplies @Pooled static Parser parser() {
+            return new Parser();
+        }
+
+    }
+
+    @Module(dependsOn = PooledModule.class, component = true)
+    public interface PooledComponent {
+
+        Lease<Parser> parser();
+
+    }
+
+    public interface Factory {
+        PooledComponent create();
+    }
+
+    private static PooledComponent component(PoolingScope scope) {
+        return Component.buildTemplate(new GunmetalComponent.Default().addScope(Pooled.class, scope, scope), Factory.class).create();
+    }
+
+    @Test
+    public void testLeasesAreGivenBack() {
+
+        PooledComponent component = component(new PoolingScope().reset(parser -> ((Parser) parser).resets++));
+
+        Parser parser;
+        try (Lease<Parser> lease = component.parser()) {
+            parser = lease.get();
+            assertSame(parser, lease.get());
+            assertEquals(0, parser.resets);
+        }
+        assertEquals(1, parser.resets);
+
+        try (Lease<Parser> lease = component.parser(); Lease<Parser> other = component.parser()) {
+            assertSame(parser, lease.get());
+            assertNotSame(parser, other.get());
+        }
+
+        Lease<Parser> closed = component.parser();
+        closed.close();
+        try {
+            closed.get();
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("The lease is closed", e.getMessage());
+        }
+
+    }
+
+    @Test
+    public void testInstancesBeyondTheMaximumSizeAreDropped() {
+
+        PooledComponent component = component(new PoolingScope().maximumSize(1));
+
+        Lease<Parser> first = component.parser();
+        Lease<Parser> second = component.parser();
+        Parser kept = first.get();
+        Parser dropped = second.get();
+        first.close();
+        second.close();
+        assertFalse(kept.closed);
+        assertTrue(dropped.closed);
+
+        try (Lease<Parser> lease = component.parser()) {
+            assertSame(kept, lease.get());
+        }
+
+    }
+
+    @Test
+    public void testInstancesThatFailToResetAreDropped() {
+
+        PooledComponent component = component(new PoolingScope().reset(parser -> {
+            throw new IllegalStateException("reset failed");
+        }));
+
+        Thread thread = Thread.currentThread();
+        Thread.UncaughtExceptionHandler handler = thread.getUncaughtExceptionHandler();
+        Throwable[] reported = new Throwable[1];
+        thread.setUncaughtExceptionHandler((t, e) -> reported[0] = e);
+        try {
+            Parser parser;
+            try (Lease<Parser> lease = component.parser()) {
+                parser = lease.get();
+            }
+            assertTrue(parser.closed);
+            assertEquals("reset failed", reported[0].getMessage());
+            try (Lease<Parser> lease = component.parser()) {
+                assertNotSame(parser, lease.get());
+            }
+        } finally {
+            thread.setUncaughtExceptionHandler(handler);
+        }
+
+    }
+
+    @Test
+    public void testInstancesGivenBackOnOtherThreadsAreLentOut() throws Exception {
+
+        PooledComponent component = component(new PoolingScope().maximumSize(64));
+
+        // each thread gives back to its own stripe, which the others fall back to once theirs are empty
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        Set<Parser> released = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> {
+                    try (Lease<Parser> lease = component.parser()) {
+                        released.add(lease.get());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        List<Lease<Parser>> leases = new ArrayList<>();
+        for (int i = 0; i < released.size(); i++) {
+            leases.add(component.parser());
+        }
+        Set<Parser> lent = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Lease<Parser> lease : leases) {
+            lent.add(lease.get());
+        }
+        assertEquals(released.size(), lent.size());
+        assertTrue(lent.containsAll(released));
+        leases.forEach(Lease::close);
+
+    }
+
+}
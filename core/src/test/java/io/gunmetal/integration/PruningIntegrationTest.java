@@ -0,0 +1,125 @@
+package io.gunmetal.integration;
+
+import io.gunmetal.Component;
+import io.gunmetal.Inject;
+import io.gunmetal.Module;
+import io.gunmetal.MultiBind;
+import io.gunmetal.Singleton;
+import io.gunmetal.Supplies;
+import io.gunmetal.spi.GunmetalComponent;
+import io.gunmetal.spi.Option;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author rees.byars
+ */
+public class PruningIntegrationTest {
+
+    public static class Service {
+        @Inject String name;
+    }
+
+    public static class Helper {
+    }
+
+    public static class Warmer {
+    }
+
+    public static class Plugin {
+    }
+
+    public static class Unused {
+    }
+
+    @Module
+    public static class LibraryModule {
+
+        @Supplies static String name() {
+            return "name";
+        }
+
+        @Supplies static Service service() {
+            return new Service();
+        }
+
+        @Supplies static Helper helper() {
+            return new Helper();
+        }
+
+        @Supplies @Singleton static Warmer warmer(Helper helper) {
+            return new Warmer();
+        }
+
+        @Supplies @MultiBind static Plugin plugin() {
+            return new Plugin();
+        }
+
+        @Supplies static Unused unused(Helper helper) {
+            return new Unused();
+        }
+
+    }
+
+    @Module(dependsOn = LibraryModule.class, component = true)
+    public interface TestComponent {
+
+        Supplier<Service> service();
+
+        @MultiBind List<Plugin> plugins();
+
+    }
+
+    public interface Factory {
+        TestComponent create();
+    }
+
+    @Test
+    public void testPruning() {
+        Set<String> replicated = replicated(new GunmetalComponent.Default(Option.PRUNE_UNREACHABLE_BINDINGS));
+        assertTrue(replicated.contains("service"));
+        // reached through the injected members of the supplied service
+        assertTrue(replicated.contains("name"));
+        assertTrue(replicated.contains("warmer"));
+        assertTrue(replicated.contains("helper"));
+        assertTrue(replicated.contains("plugin"));
+        assertFalse(replicated.contains("unused"));
+    }
+
+    @Test
+    public void testNoPruningByDefault() {
+        assertTrue(replicated(new GunmetalComponent.Default()).contains("unused"));
+    }
+
+    private Set<String> replicated(GunmetalComponent gunmetalComponent) {
+
+        Set<String> decorated = ConcurrentHashMap.newKeySet();
+        gunmetalComponent.strategyDecorators().add((resourceMetadata, delegateStrategy, linkers) -> {
+            if (resourceMetadata.provider() instanceof Method) {
+                decorated.add(((Method) resourceMetadata.provider()).getName());
+            }
+            return delegateStrategy;
+        });
+
+        Factory factory = Component.buildTemplate(gunmetalComponent, Factory.class);
+        decorated.clear();
+
+        TestComponent component = factory.create();
+        assertEquals("name", component.service().get().name);
+        assertEquals(1, component.plugins().size());
+        assertNotNull(component.plugins().get(0));
+
+        return decorated;
+    }
+
+}
@@ -0,0 +1,121 @@
+package io.gunmetal.integration;
+
+import io.gunmetal.Component;
+import io.gunmetal.Module;
+import io.gunmetal.Scope;
+import io.gunmetal.Supplies;
+import io.gunmetal.spi.GunmetalComponent;
+import io.gunmetal.spi.impl.ReferenceScope;
+import org.junit.Test;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author rees.byars
+ */
+public class ReferenceScopeIntegrationTest {
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Scope
+    public @interface Reclaimable {
+    }
+
+    public static class Table {
+    }
+
+    @Module
+    public static class TableModule {
+
+        static final AtomicInteger constructed = new AtomicInteger();
+        static volatile CountDownLatch released = new CountDownLatch(0);
+
+        @Supplies @Reclaimable static Table table() {
+            constructed.incrementAndGet();
+            try {
+                released.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return new Table();
+        }
+
+    }
+
+    @Module(dependsOn = TableModule.class, component = true)
+    public interface TableComponent {
+
+        Table table();
+
+    }
+
+    public interface Factory {
+        TableComponent create();
+    }
+
+    private static TableComponent component() {
+        ReferenceScope scope = ReferenceScope.weak();
+        return Component.buildTemplate(new GunmetalComponent.Default().addScope(Reclaimable.class, scope, scope), Factory.class).create();
+    }
+
+    @Test(timeout = 10000)
+    public void testReclaimedInstancesAreConstructedAgain() throws Exception {
+
+        TableComponent component = component();
+        TableModule.constructed.set(0);
+        Table table = component.table();
+        assertSame(table, component.table());
+
+        WeakReference<Table> reference = new WeakReference<>(table);
+        table = null;
+        while (reference.get() != null) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        table = component.table();
+        assertEquals(2, TableModule.constructed.get());
+        assertSame(table, component.table());
+
+    }
+
+    @Test(timeout = 10000)
+    public void testConcurrentRequestsConstructOnce() throws Exception {
+
+        TableComponent component = component();
+        TableModule.constructed.set(0);
+        TableModule.released = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Table>> tables = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                tables.add(executor.submit(component::table));
+            }
+            while (TableModule.constructed.get() == 0) {
+                Thread.sleep(10);
+            }
+            TableModule.released.countDown();
+            Table table = tables.get(0).get();
+            for (Future<Table> other : tables) {
+                assertSame(table, other.get());
+            }
+            assertEquals(1, TableModule.constructed.get());
+        } finally {
+            TableModule.released.countDown();
+            executor.shutdownNow();
+        }
+
+    }
+
+}
@@ -0,0 +1,202 @@
+package io.gunmetal.integration;
+
+import io.gunmetal.Component;
+import io.gunmetal.Module;
+import io.gunmetal.RequestScope;
+import io.gunmetal.RequestScoped;
+import io.gunmetal.Supplies;
+import io.gunmetal.ThreadScope;
+import io.gunmetal.ThreadScoped;
+import io.gunmetal.spi.GunmetalComponent;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author rees.byars
+ */
+public class ScopedIntegrationTest {
+
+    public static class Session {
+    }
+
+    public static class Buffer {
+    }
+
+    public static class Token {
+    }
+
+    static final AtomicInteger tokenCalls = new AtomicInteger();
+
+    @Module
+    public static class ScopedModule {
+
+        @Supplies @RequestScoped static Session session() {
+            return new Session();
+        }
+
+        @Supplies @ThreadScoped static Buffer buffer() {
+            return new Buffer();
+        }
+
+        @Supplies @RequestScoped static Token token() {
+            tokenCalls.incrementAndGet();
+            return null;
+        }
+
+    }
+
+    @Module(dependsOn = ScopedModule.class, component = true)
+    public interface TestComponent {
+
+        Session session();
+
+        Buffer buffer();
+
+        Token token();
+
+    }
+
+    public interface Factory {
+        TestComponent create();
+    }
+
+    @Test
+    public void testRequestScope() throws Exception {
+
+        TestComponent component = Component.buildTemplate(Factory.class).create();
+
+        Session session;
+        try (RequestScope request = RequestScope.begin()) {
+            session = component.session();
+            assertSame(session, component.session());
+
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                assertSame(session, executor.submit(() -> {
+                    try (RequestScope.Attachment attachment = request.attach()) {
+                        return component.session();
+                    }
+                }).get());
+            } finally {
+                executor.shutdownNow();
+            }
+
+            // components of the same template do not share request instances
+            assertNotSame(session, Component.buildTemplate(Factory.class).create().session());
+        }
+
+        assertTrue(RequestScope.current() == null);
+        try (RequestScope request = RequestScope.begin()) {
+            assertNotSame(session, component.session());
+        }
+
+        try {
+            component.session();
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("RequestScope.begin()"));
+        }
+
+    }
+
+    @Test
+    public void testThreadScope() {
+
+        TestComponent component = Component.buildTemplate(Factory.class).create();
+
+        Buffer buffer;
+        ThreadScope.enter();
+        try {
+            buffer = component.buffer();
+            try (ThreadScope nested = ThreadScope.enter()) {
+                assertSame(buffer, component.buffer());
+            }
+            assertTrue(ThreadScope.isActive());
+            assertSame(buffer, component.buffer());
+        } finally {
+            ThreadScope.exit();
+        }
+        assertFalse(ThreadScope.isActive());
+
+        try (ThreadScope scope = ThreadScope.enter()) {
+            assertNotSame(buffer, component.buffer());
+        }
+
+        try {
+            component.buffer();
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("ThreadScope.enter()"));
+        }
+
+    }
+
+    @Test
+    public void testNullInstancesAreScoped() {
+
+        TestComponent component = Component.buildTemplate(Factory.class).create();
+        tokenCalls.set(0);
+
+        try (RequestScope request = RequestScope.begin()) {
+            assertNull(component.token());
+            assertNull(component.token());
+            assertEquals(1, tokenCalls.get());
+        }
+
+    }
+
+    @Test
+    public void testRequestSharedByManyComponents() {
+
+        Factory factory = Component.buildTemplate(Factory.class);
+        List<TestComponent> components = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            components.add(factory.create());
+        }
+
+        try (RequestScope request = RequestScope.begin()) {
+            List<Session> sessions = new ArrayList<>();
+            for (TestComponent component : components) {
+                sessions.add(component.session());
+            }
+            for (int i = 0; i < components.size(); i++) {
+                assertSame(sessions.get(i), components.get(i).session());
+                for (int j = 0; j < i; j++) {
+                    assertNotSame(sessions.get(i), sessions.get(j));
+                }
+            }
+        }
+
+    }
+
+    @Test
+    public void testScopesOfReplicatedGraphs() {
+
+        GunmetalComponent.Default gunmetalComponent = new GunmetalComponent.Default();
+        gunmetalComponent.strategyDecorators().add((resourceMetadata, delegateStrategy, linkers) -> delegateStrategy);
+        Factory factory = Component.buildTemplate(gunmetalComponent, Factory.class);
+        TestComponent first = factory.create();
+        TestComponent second = factory.create();
+
+        try (RequestScope request = RequestScope.begin(); ThreadScope scope = ThreadScope.enter()) {
+            assertSame(first.session(), first.session());
+            assertNotSame(first.session(), second.session());
+            assertSame(second.buffer(), second.buffer());
+        }
+
+    }
+
+}
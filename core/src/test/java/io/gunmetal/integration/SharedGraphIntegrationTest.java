@@ -0,0 +1,215 @@
+package io.gunmetal.integration;
+
+import io.gunmetal.Component;
+import io.gunmetal.Inject;
+import io.gunmetal.Module;
+import io.gunmetal.Scope;
+import io.gunmetal.Singleton;
+import io.gunmetal.Supplies;
+import io.gunmetal.spi.GunmetalComponent;
+import io.gunmetal.spi.ProvisionStrategyDecorator;
+import io.gunmetal.spi.impl.CachingScope;
+import org.junit.Test;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * tests that components sharing a template graph each keep their own singletons and stateful modules
+ *
+ * @author rees.byars
+ */
+public class SharedGraphIntegrationTest {
+
+    static final AtomicInteger EAGER_COUNT = new AtomicInteger();
+
+    public static class Eager {
+        Eager() {
+            EAGER_COUNT.incrementAndGet();
+        }
+    }
+
+    @Singleton
+    public static class JitSingleton {
+    }
+
+    @Module
+    public static class TenantModule {
+
+        final String tenant;
+
+        public TenantModule(String tenant) {
+            this.tenant = tenant;
+        }
+
+        @Supplies @Singleton String tenant() {
+            return tenant;
+        }
+
+        @Supplies @Singleton Eager eager() {
+            return new Eager();
+        }
+
+        @Supplies @Singleton StringBuilder builder(String tenant) {
+            return new StringBuilder(tenant);
+        }
+
+    }
+
+    @Module(component = true)
+    public interface TenantComponent {
+
+        void inject(Object o);
+
+        String tenant();
+
+        StringBuilder builder();
+
+        Supplier<StringBuilder> builderSupplier();
+
+    }
+
+    public interface Factory {
+        TenantComponent create(TenantModule tenantModule);
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Scope
+    public @interface Cached {
+    }
+
+    public static class Rates {
+    }
+
+    @Module
+    public static class RatesModule {
+
+        @Supplies @Cached static Rates rates() {
+            return new Rates();
+        }
+
+    }
+
+    @Module(dependsOn = RatesModule.class, component = true)
+    public interface RatesComponent {
+
+        Rates rates();
+
+    }
+
+    public interface RatesFactory {
+        RatesComponent create();
+    }
+
+    static class InjectTest {
+        @Inject JitSingleton jitSingleton;
+        @Inject StringBuilder builder;
+    }
+
+    @Test
+    public void testComponentsKeepTheirOwnState() {
+
+        Factory factory = Component.buildTemplate(Factory.class);
+        int eagerCount = EAGER_COUNT.get();
+
+        TenantComponent a = factory.create(new TenantModule("a"));
+        TenantComponent b = factory.create(new TenantModule("b"));
+
+        assertEquals(eagerCount + 2, EAGER_COUNT.get());
+
+        assertEquals("a", a.tenant());
+        assertEquals("b", b.tenant());
+        assertSame(a.builder(), a.builder());
+        assertSame(a.builder(), a.builderSupplier().get());
+        assertSame(b.builder(), b.builderSupplier().get());
+        assertNotSame(a.builder(), b.builder());
+        assertEquals("b", b.builderSupplier().get().toString());
+
+        InjectTest a1 = new InjectTest();
+        InjectTest a2 = new InjectTest();
+        InjectTest b1 = new InjectTest();
+        a.inject(a1);
+        a.inject(a2);
+        b.inject(b1);
+        assertSame(a1.jitSingleton, a2.jitSingleton);
+        assertNotSame(a1.jitSingleton, b1.jitSingleton);
+        assertSame(a.builder(), a1.builder);
+        assertSame(b.builder(), b1.builder);
+
+        // created after the just-in-time binding of JitSingleton
+        TenantComponent c = factory.create(new TenantModule("c"));
+        InjectTest c1 = new InjectTest();
+        c.inject(c1);
+        assertNotSame(a1.jitSingleton, c1.jitSingleton);
+
+    }
+
+    @Test
+    public void testCustomDecoratorsReplicateTheGraph() {
+
+        AtomicInteger decorations = new AtomicInteger();
+        GunmetalComponent gunmetalComponent = new GunmetalComponent.Default();
+        gunmetalComponent.strategyDecorators().add((resourceMetadata, delegateStrategy, linkers) -> {
+            decorations.incrementAndGet();
+            return delegateStrategy;
+        });
+
+        Factory factory = Component.buildTemplate(gunmetalComponent, Factory.class);
+
+        TenantComponent a = factory.create(new TenantModule("a"));
+        int instanceDecorations = decorations.get();
+        TenantComponent b = factory.create(new TenantModule("b"));
+
+        assertTrue(instanceDecorations > 0);
+        assertEquals(instanceDecorations * 2, decorations.get());
+        assertEquals("a", a.tenant());
+        assertEquals("b", b.tenant());
+        assertNotSame(a.builder(), b.builder());
+
+    }
+
+    @Test
+    public void testBuiltInScopesKeepTheStateOfEachComponent() {
+
+        CachingScope scope = new CachingScope();
+        RatesFactory factory = Component.buildTemplate(
+                new GunmetalComponent.Default().addScope(Cached.class, scope, scope), RatesFactory.class);
+
+        RatesComponent a = factory.create();
+        RatesComponent b = factory.create();
+
+        assertSame(a.rates(), a.rates());
+        assertSame(b.rates(), b.rates());
+        assertNotSame(a.rates(), b.rates());
+
+    }
+
+    @Test
+    public void testCustomScopesReplicateTheGraph() {
+
+        AtomicInteger decorations = new AtomicInteger();
+        ProvisionStrategyDecorator decorator = (resourceMetadata, delegateStrategy, linkers) -> {
+            decorations.incrementAndGet();
+            return delegateStrategy;
+        };
+        RatesFactory factory = Component.buildTemplate(
+                new GunmetalComponent.Default().addScope(Cached.class, scope -> true, decorator), RatesFactory.class);
+
+        RatesComponent a = factory.create();
+        int instanceDecorations = decorations.get();
+        factory.create();
+
+        assertTrue(instanceDecorations > 0);
+        assertEquals(instanceDecorations * 2, decorations.get());
+        assertNotSame(a.rates(), a.rates());
+
+    }
+
+}
@@ -0,0 +1,239 @@
+package io.gunmetal.integration;
+
+import io.gunmetal.Component;
+import io.gunmetal.Module;
+import io.gunmetal.PreDestroy;
+import io.gunmetal.Singleton;
+import io.gunmetal.Supplies;
+import io.gunmetal.spi.GunmetalComponent;
+import io.gunmetal.spi.ResourceMetadata;
+import io.gunmetal.spi.ShutdownReport;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author rees.byars
+ */
+public class ShutdownIntegrationTest {
+
+    static final List<String> closed = Collections.synchronizedList(new ArrayList<>());
+    static volatile CountDownLatch released = new CountDownLatch(0);
+
+    public static class Pool implements AutoCloseable {
+        @Override public void close() {
+            closed.add("pool");
+        }
+    }
+
+    public static class Cache implements AutoCloseable {
+        @Override public void close() throws InterruptedException {
+            released.await();
+            closed.add("cache");
+        }
+    }
+
+    public static class Server {
+        @PreDestroy void stop() {
+            closed.add("server");
+        }
+    }
+
+    public static class Metrics implements AutoCloseable {
+        @PreDestroy void flush() {
+            closed.add("flush");
+        }
+        @Override public void close() {
+            throw new IllegalStateException("metrics failed");
+        }
+    }
+
+    public static class ExtendedServer extends Server {
+        @Override @PreDestroy void stop() {
+            closed.add("extended");
+            super.stop();
+        }
+    }
+
+    public static class Hook {
+        @PreDestroy void stop(String reason) {
+            closed.add(reason);
+        }
+    }
+
+    @Module
+    public static class ServerModule {
+
+        @Supplies @Singleton static Pool pool() {
+            return new Pool();
+        }
+
+        @Supplies @Singleton static Cache cache(Pool pool) {
+            return new Cache();
+        }
+
+        @Supplies @Singleton static Server server(Cache cache) {
+            return new Server();
+        }
+
+        @Supplies @Singleton static Metrics metrics() {
+            return new Metrics();
+        }
+
+    }
+
+    @Module(dependsOn = ServerModule.class, component = true)
+    public interface ServerComponent extends AutoCloseable {
+
+        Server server();
+
+        Metrics metrics();
+
+        Pool pool();
+
+        @Override void close();
+
+    }
+
+    public interface Factory {
+        ServerComponent create();
+    }
+
+    @Module
+    public static class ExtendedServerModule {
+        @Supplies @Singleton static Server server() {
+            return new ExtendedServer();
+        }
+    }
+
+    @Module(dependsOn = ExtendedServerModule.class, component = true)
+    public interface ExtendedServerComponent {
+        Server server();
+    }
+
+    public interface ExtendedServerFactory {
+        ExtendedServerComponent create();
+    }
+
+    @Module
+    public static class HookModule {
+        @Supplies @Singleton static Hook hook() {
+            return new Hook();
+        }
+    }
+
+    @Module(dependsOn = HookModule.class, component = true)
+    public interface HookComponent {
+        Hook hook();
+    }
+
+    public interface HookFactory {
+        HookComponent create();
+    }
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        closed.clear();
+        released = new CountDownLatch(0);
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        released.countDown();
+        executor.shutdownNow();
+    }
+
+    private ServerComponent component() {
+        return Component.buildTemplate(new GunmetalComponent.Default().shutdownExecutor(executor), Factory.class).create();
+    }
+
+    @Test(timeout = 10000)
+    public void testSingletonsAreClosedInReverseDependencyOrder() {
+
+        ServerComponent component = component();
+        component.server();
+        component.metrics();
+
+        ShutdownReport report = Component.close(component);
+
+        assertEquals(4, closed.size());
+        assertTrue(closed.indexOf("server") < closed.indexOf("cache"));
+        assertTrue(closed.indexOf("cache") < closed.indexOf("pool"));
+        assertTrue(closed.contains("flush"));
+
+        assertEquals(4, report.closeNanos().size());
+        assertEquals(1, report.failures().size());
+        assertEquals("metrics failed", report.failures().get(metadata(report, "metrics")).getMessage());
+        assertTrue(report.unfinished().isEmpty());
+        assertFalse(report.isComplete());
+
+        // only what was constructed since is closed again
+        component.close();
+        assertEquals(4, closed.size());
+
+    }
+
+    @Test(timeout = 10000)
+    public void testSingletonsNotClosedByTheDeadlineAreReported() {
+
+        ServerComponent component = component();
+        component.server();
+        released = new CountDownLatch(1);
+
+        ShutdownReport report = Component.close(component, 100, TimeUnit.MILLISECONDS);
+
+        assertTrue(closed.contains("server"));
+        assertFalse(closed.contains("cache"));
+        assertEquals(2, report.unfinished().size());
+        assertTrue(report.unfinished().contains(metadata(report, "cache")));
+        assertTrue(report.unfinished().contains(metadata(report, "pool")));
+        assertFalse(report.isComplete());
+
+    }
+
+    @Test(timeout = 10000)
+    public void testOverriddenPreDestroyMethodsAreCalledOnce() {
+
+        ExtendedServerComponent component = Component.buildTemplate(
+                new GunmetalComponent.Default().shutdownExecutor(executor), ExtendedServerFactory.class).create();
+        component.server();
+
+        assertTrue(Component.close(component).isComplete());
+        assertEquals(Arrays.asList("extended", "server"), closed);
+
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testPreDestroyMethodsWithParametersAreRejected() {
+        Component.buildTemplate(HookFactory.class);
+    }
+
+    private static ResourceMetadata<?> metadata(ShutdownReport report, String provider) {
+        List<ResourceMetadata<?>> metadata = new ArrayList<>(report.closeNanos().keySet());
+        metadata.addAll(report.unfinished());
+        for (ResourceMetadata<?> resourceMetadata : metadata) {
+            if (((Method) resourceMetadata.provider()).getName().equals(provider)) {
+                return resourceMetadata;
+            }
+        }
+        throw new AssertionError(provider);
+    }
+
+}
@@ -0,0 +1,111 @@
+package io.gunmetal.integration;
+
+import io.gunmetal.Component;
+import io.gunmetal.Inject;
+import io.gunmetal.Lazy;
+import io.gunmetal.Module;
+import io.gunmetal.Singleton;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author rees.byars
+ */
+public class SingletonConcurrencyIntegrationTest {
+
+    static volatile CountDownLatch constructed;
+
+    static void awaitBoth() {
+        constructed.countDown();
+        try {
+            constructed.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Singleton @Lazy
+    public static class A {
+        @Inject B b;
+
+        A() {
+            awaitBoth();
+        }
+    }
+
+    @Singleton @Lazy
+    public static class B {
+        @Inject A a;
+
+        B() {
+            awaitBoth();
+        }
+    }
+
+    @Module(component = true)
+    public interface TestComponent {
+
+        A a();
+
+        B b();
+
+    }
+
+    public interface Factory {
+        TestComponent create();
+    }
+
+    @Test(timeout = 10000)
+    public void testCrossThreadCycleIsReportedRatherThanDeadlocking() throws Exception {
+
+        constructed = new CountDownLatch(2);
+        TestComponent component = Component.buildTemplate(Factory.class).create();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<A> a = executor.submit(component::a);
+            Future<B> b = executor.submit(component::b);
+            int failures = 0;
+            for (Future<?> future : new Future<?>[]{a, b}) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    failures++;
+                    assertTrue(e.getCause().getMessage().contains("waiting on each other"));
+                    assertTrue(e.getCause().getMessage().contains(A.class.getName()));
+                    assertTrue(e.getCause().getMessage().contains(B.class.getName()));
+                }
+            }
+            assertEquals(1, failures);
+            // whichever thread went on built both
+            A singleton = component.a();
+            assertSame(singleton, singleton.b.a);
+            assertSame(singleton.b, component.b());
+        } finally {
+            executor.shutdownNow();
+        }
+
+    }
+
+    @Test
+    public void testSingletonIsPublishedOnce() throws Exception {
+
+        constructed = new CountDownLatch(0);
+        TestComponent component = Component.buildTemplate(Factory.class).create();
+        A a = component.a();
+        assertSame(a, component.a());
+        assertSame(a.b, component.b());
+        assertSame(a, a.b.a);
+
+    }
+
+}
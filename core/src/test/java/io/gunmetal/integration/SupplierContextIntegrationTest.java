@@ -0,0 +1,122 @@
+package io.gunmetal.integration;
+
+import io.gunmetal.Component;
+import io.gunmetal.Inject;
+import io.gunmetal.Module;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author rees.byars
+ */
+public class SupplierContextIntegrationTest {
+
+    public static class Leaf {
+    }
+
+    public static class Branch {
+        final Leaf leaf;
+
+        @Inject Branch(Supplier<Leaf> leaf) {
+            // resolved with the context of the supplier that is constructing the branch
+            this.leaf = leaf.get();
+        }
+    }
+
+    public static class Heavy {
+    }
+
+    static volatile WeakReference<Heavy> heavy;
+
+    public static class Holder {
+        final Supplier<Leaf> leaf;
+
+        @Inject Holder(Supplier<Leaf> leaf, Heavy heavy) {
+            this.leaf = leaf;
+            SupplierContextIntegrationTest.heavy = new WeakReference<>(heavy);
+        }
+    }
+
+    public static class SelfReferencing {
+        @Inject SelfReferencing(Supplier<SelfReferencing> self) {
+            self.get();
+        }
+    }
+
+    @Module(component = true)
+    public interface TestComponent {
+
+        Supplier<Branch> branch();
+
+        Supplier<SelfReferencing> selfReferencing();
+
+        Holder holder();
+
+    }
+
+    public interface Factory {
+        TestComponent create();
+    }
+
+    @Test
+    public void testNestedSuppliersShareTheResolution() {
+
+        TestComponent component = Component.buildTemplate(Factory.class).create();
+        assertNotNull(component.branch().get().leaf);
+
+        try {
+            component.selfReferencing().get();
+            fail();
+        } catch (RuntimeException e) {
+            // a cycle detected within the shared resolution rather than an overflowing stack
+            assertTrue(e.getMessage().contains("depends on itself"));
+        }
+
+    }
+
+    @Test
+    public void testSuppliersCalledFromOtherThreads() throws Exception {
+
+        TestComponent component = Component.buildTemplate(Factory.class).create();
+        Supplier<Branch> branch = component.branch();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Branch>> futures = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                futures.add(executor.submit(branch::get));
+            }
+            for (Future<Branch> future : futures) {
+                assertNotNull(future.get().leaf);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+    }
+
+    @Test(timeout = 10000)
+    public void testSuppliersDoNotKeepTheInstancesOfTheirRequest() throws Exception {
+
+        TestComponent component = Component.buildTemplate(Factory.class).create();
+        Holder holder = component.holder();
+
+        while (heavy.get() != null) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNotNull(holder.leaf.get());
+
+    }
+
+}
@@ -85,6 +85,6 @@ public class BaseTestModule {
     @Supplies ComponentGraph componentGraph = new ComponentGraph(resourceAccessorFactory);
 
     @Supplies DependencySupplier dependencySupplier = new ComponentDependencySupplier(
-            supplierAdapter, resourceAccessorFactory, to -> Collections.emptyList(), componentGraph, componentContext, false);
+            supplierAdapter, resourceAccessorFactory, new ConverterRegistry(to -> Collections.emptyList()), componentGraph, componentContext, false, null);
 
 }
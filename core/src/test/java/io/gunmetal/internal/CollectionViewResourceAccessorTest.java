@@ -0,0 +1,171 @@
+package io.gunmetal.internal;
+
+import io.gunmetal.Component;
+import io.gunmetal.Inject;
+import io.gunmetal.Module;
+import io.gunmetal.MultiBind;
+import io.gunmetal.Singleton;
+import io.gunmetal.StringKey;
+import io.gunmetal.Supplies;
+import io.gunmetal.spi.Dependency;
+import io.gunmetal.spi.DependencySupplier;
+import io.gunmetal.spi.SupplierAdapter;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author rees.byars
+ */
+public class CollectionViewResourceAccessorTest {
+
+    @Inject ResourceAccessorFactory resourceAccessorFactory;
+    @Inject DependencySupplier dependencySupplier;
+    @Inject ComponentContext componentContext;
+    @Inject SupplierAdapter supplierAdapter;
+
+    @Module(dependsOn = BaseTestModule.class, component = true)
+    public interface TestComponent {
+
+        void inject(CollectionViewResourceAccessorTest test);
+
+        public interface Factory {
+
+            TestComponent create();
+
+        }
+
+    }
+
+    @Module
+    static class FirstModule {
+        @Supplies @Singleton @MultiBind @StringKey("first") static Object first() {
+            return "first";
+        }
+    }
+
+    @Module
+    static class SecondModule {
+        @Supplies @Singleton @MultiBind @StringKey("second") static Object second() {
+            return "second";
+        }
+    }
+
+    @Module
+    static class DuplicateModule {
+        @Supplies @Singleton @MultiBind @StringKey("first") static Object duplicate() {
+            return "duplicate";
+        }
+    }
+
+    private CollectionResourceAccessor collectionAccessor;
+    private Dependency collectionDependency;
+
+    @Before
+    public void setUp() {
+        Component.buildTemplate(TestComponent.Factory.class).create().inject(this);
+        ResourceAccessor first = element(FirstModule.class);
+        Dependency elementDependency = first.binding().targets().get(0);
+        collectionDependency = Dependency.from(elementDependency.qualifier(), Object.class, List.class);
+        collectionAccessor = resourceAccessorFactory.createForCollection(collectionDependency, elementDependency);
+        collectionAccessor.add(first);
+    }
+
+    private ResourceAccessor element(Class<?> module) {
+        return resourceAccessorFactory.createForModule(module, false, componentContext).get(0);
+    }
+
+    private Object provision(ResourceAccessor accessor) {
+        return accessor.force().get(dependencySupplier, componentContext.newResolutionContext());
+    }
+
+    private ResourceAccessor keyed() {
+        return resourceAccessorFactory.createForKeyedCollection(
+                collectionAccessor,
+                collectionDependency,
+                Dependency.from(collectionDependency.qualifier(), Map.class),
+                String.class,
+                null);
+    }
+
+    private ResourceAccessor lazy(LazyCollectionResourceAccessor.View view) {
+        return resourceAccessorFactory.createForLazyCollection(
+                collectionAccessor,
+                collectionDependency,
+                Dependency.from(collectionDependency.qualifier(), Object.class, Iterable.class),
+                view,
+                supplierAdapter);
+    }
+
+    @Test
+    public void testSharedListIsReplacedWhenAnElementIsAdded() {
+        List<?> list = (List<?>) provision(collectionAccessor);
+        assertEquals(Collections.singletonList("first"), list);
+        assertSame(list, provision(collectionAccessor));
+
+        collectionAccessor.add(element(SecondModule.class));
+
+        List<?> next = (List<?>) provision(collectionAccessor);
+        assertNotSame(list, next);
+        assertEquals(Arrays.asList("first", "second"), next);
+        assertSame(next, provision(collectionAccessor));
+        assertEquals(Collections.singletonList("first"), list);
+    }
+
+    @Test
+    public void testLazyViewsAreReplacedWhenAnElementIsAdded() {
+        ResourceAccessor iterable = lazy(LazyCollectionResourceAccessor.View.ITERABLE);
+        ResourceAccessor suppliers = lazy(LazyCollectionResourceAccessor.View.SUPPLIERS);
+        Iterable<?> elements = (Iterable<?>) provision(iterable);
+        List<?> elementSuppliers = (List<?>) provision(suppliers);
+        assertSame(elements, provision(iterable));
+        assertEquals(1, elementSuppliers.size());
+
+        collectionAccessor.add(element(SecondModule.class));
+
+        Iterable<?> nextElements = (Iterable<?>) provision(iterable);
+        List<?> nextSuppliers = (List<?>) provision(suppliers);
+        assertNotSame(elements, nextElements);
+        assertSame(nextElements, provision(iterable));
+        List<Object> provisioned = new ArrayList<>();
+        nextElements.forEach(provisioned::add);
+        assertEquals(Arrays.asList("first", "second"), provisioned);
+        assertEquals(2, nextSuppliers.size());
+        assertEquals("second", ((Supplier<?>) nextSuppliers.get(1)).get());
+    }
+
+    @Test
+    public void testKeyedMapIsReplacedWhenAnElementIsAdded() {
+        ResourceAccessor keyed = keyed();
+        Map<?, ?> map = (Map<?, ?>) provision(keyed);
+        assertEquals(1, map.size());
+        assertSame(map, provision(keyed));
+
+        collectionAccessor.add(element(SecondModule.class));
+
+        Map<?, ?> next = (Map<?, ?>) provision(keyed);
+        assertNotSame(map, next);
+        assertEquals(2, next.size());
+        assertEquals("second", next.get("second"));
+        assertSame(next, provision(keyed));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testKeyedMapChecksTheKeysOfAddedElements() {
+        ResourceAccessor keyed = keyed();
+        provision(keyed);
+        collectionAccessor.add(element(DuplicateModule.class));
+        provision(keyed);
+    }
+
+}
@@ -0,0 +1,95 @@
+package io.gunmetal.internal;
+
+import io.gunmetal.Component;
+import io.gunmetal.Inject;
+import io.gunmetal.Module;
+import io.gunmetal.Supplies;
+import io.gunmetal.spi.Dependency;
+import io.gunmetal.spi.Qualifier;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author rees.byars
+ */
+public class ComponentGraphTest {
+
+    @Inject ResourceAccessorFactory resourceAccessorFactory;
+    @Inject ComponentContext componentContext;
+    @Inject ComponentErrors componentErrors;
+
+    @Module(dependsOn = BaseTestModule.class, component = true)
+    public interface TestComponent {
+
+        void inject(ComponentGraphTest test);
+
+        public interface Factory {
+
+            TestComponent create();
+
+        }
+
+    }
+
+    @Module
+    static class StringModule {
+        @Supplies static String string() {
+            return "string";
+        }
+    }
+
+    private final Dependency string = Dependency.from(Qualifier.NONE, String.class);
+    private final Dependency integer = Dependency.from(Qualifier.NONE, Integer.class);
+
+    @Before
+    public void setUp() {
+        Component.buildTemplate(TestComponent.Factory.class).create().inject(this);
+    }
+
+    private ComponentGraph graph() {
+        ComponentGraph graph = new ComponentGraph(resourceAccessorFactory);
+        graph.putAll(resourceAccessorFactory.createForModule(StringModule.class, false, componentContext),
+                componentErrors);
+        return graph;
+    }
+
+    @Test
+    public void testLookupById() {
+        ComponentGraph graph = graph();
+        int id = graph.idOf(string);
+
+        assertNotNull(graph.get(string));
+        assertSame(graph.get(string), graph.get(id));
+        assertEquals(id, graph.idOf(string));
+        assertNull(graph.get(graph.idOf(integer)));
+        assertNull(graph.get(integer));
+    }
+
+    @Test
+    public void testReplicasShareIds() {
+        ComponentGraph graph = graph();
+        int id = graph.idOf(string);
+        ComponentGraph replica = graph.replicateWith(componentContext);
+
+        assertEquals(id, replica.idOf(string));
+        assertNotNull(replica.get(id));
+        assertEquals(graph.idOf(integer), replica.idOf(integer));
+    }
+
+    @Test
+    public void testChildGraphsProvideThroughTheParent() {
+        ComponentGraph parent = graph();
+        ComponentGraph child = new ComponentGraph(resourceAccessorFactory, parent);
+
+        assertTrue(child.get(string) instanceof ParentResourceAccessor);
+        assertSame(child.get(string), child.get(child.idOf(string)));
+        assertEquals(1, child.parentDependencies().size());
+    }
+
+}
@@ -0,0 +1,43 @@
+package io.gunmetal.internal;
+
+import io.gunmetal.spi.Dependency;
+import io.gunmetal.spi.Qualifier;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author rees.byars
+ */
+public class DependencyIndexTest {
+
+    @Test
+    public void testIdsAreDenseAndStable() {
+        DependencyIndex index = new DependencyIndex();
+        Dependency string = Dependency.from(Qualifier.NONE, String.class);
+        Dependency strings = Dependency.from(Qualifier.NONE, String.class, List.class);
+
+        assertEquals(-1, index.idOf(string));
+        assertEquals(0, index.intern(string));
+        assertEquals(1, index.intern(strings));
+        assertEquals(0, index.intern(Dependency.from(Qualifier.NONE, String.class)));
+        assertEquals(1, index.idOf(Dependency.from(Qualifier.NONE, String.class, List.class)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testIndexesAreIndependent() {
+        DependencyIndex first = new DependencyIndex();
+        DependencyIndex second = new DependencyIndex();
+        Dependency string = Dependency.from(Qualifier.NONE, String.class);
+        Dependency integer = Dependency.from(Qualifier.NONE, Integer.class);
+
+        first.intern(string);
+        assertEquals(0, second.intern(integer));
+        assertEquals(-1, second.idOf(string));
+        assertEquals(1, first.intern(integer));
+    }
+
+}
@@ -0,0 +1,381 @@
+package io.gunmetal.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.FilerException;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes a {@code <Type>$$GunmetalAccessor} next to every module, supplied type and type with injected
+ * members, so that at runtime the constructors, provider methods and injected members of those types
+ * are invoked without reflection.  The generated classes implement {@code io.gunmetal.spi.GeneratedAccessor},
+ * which documents the member keys and the class name suffix shared with the runtime.
+ *
+ * Only invocation is covered.  The metadata of components, modules and bindings is still read
+ * reflectively when a template is built.  The runtime finds each accessor by its class name, checking
+ * for the class file before loading it so that types without an accessor cost no failed class load.
+ *
+ * Each accessor records a {@code SIGNATURE} of the members it covers.  An incremental compile may find
+ * the accessor of a previous compile, which is kept if its signature matches and written again
+ * otherwise.  The compiler refuses to write it again when the previous accessor is itself an input of
+ * the compile, in which case the processor notes that it is stale.  A stale accessor is never wrong,
+ * since its keys name the erased signature of each member, but the members that changed are invoked
+ * reflectively until a clean build.
+ *
+ * Only members that can be reached from the package of the type are covered, meaning private
+ * members, members of private classes and members whose parameter types are not visible are left
+ * to the reflective path.  The processor never fails a build because of them.
+ *
+ * @author rees.byars
+ */
+public class GunmetalProcessor extends AbstractProcessor {
+
+    private static final String GENERATED_ACCESSOR = "io.gunmetal.spi.GeneratedAccessor";
+    private static final String MODULE = "io.gunmetal.Module";
+    private static final String SUPPLIES = "io.gunmetal.Supplies";
+    private static final String INJECT = "io.gunmetal.Inject";
+    private static final String JSR330_INJECT = "javax.inject.Inject";
+
+    private final Set<String> generated = new HashSet<>();
+
+    @Override public Set<String> getSupportedAnnotationTypes() {
+        return new HashSet<>(Arrays.asList(MODULE, SUPPLIES, INJECT, JSR330_INJECT));
+    }
+
+    @Override public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        String suffix = accessorSuffix();
+        if (suffix == null) {
+            // without the runtime on the class path there is nothing for the accessors to implement
+            return false;
+        }
+        Set<TypeElement> types = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element instanceof TypeElement) {
+                    types.add((TypeElement) element);
+                } else if (element.getEnclosingElement() instanceof TypeElement) {
+                    types.add((TypeElement) element.getEnclosingElement());
+                }
+            }
+        }
+        for (TypeElement type : types) {
+            String name = processingEnv.getElementUtils().getBinaryName(type) + suffix;
+            if (type.getKind() != ElementKind.ANNOTATION_TYPE && isAccessible(type) && generated.add(name)) {
+                write(type, name);
+            }
+        }
+        // other processors, dagger for instance, may also be interested in @Inject
+        return false;
+    }
+
+    /**
+     * @return the suffix the runtime looks accessors up by, read from the constant of the runtime so
+     * that the two can not drift apart, or null if the runtime is not on the class path
+     */
+    private String accessorSuffix() {
+        TypeElement generatedAccessor = processingEnv.getElementUtils().getTypeElement(GENERATED_ACCESSOR);
+        if (generatedAccessor == null) {
+            return null;
+        }
+        for (Element member : generatedAccessor.getEnclosedElements()) {
+            if (member.getKind() == ElementKind.FIELD && member.getSimpleName().contentEquals("SUFFIX")) {
+                return (String) ((VariableElement) member).getConstantValue();
+            }
+        }
+        return null;
+    }
+
+    private void write(TypeElement type, String name) {
+        List<String> keys = new ArrayList<>();
+        List<String> cases = new ArrayList<>();
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        String typeName = processingEnv.getTypeUtils().erasure(type.asType()).toString();
+        boolean constructible = type.getKind() == ElementKind.CLASS
+                && !type.getModifiers().contains(Modifier.ABSTRACT)
+                && (type.getNestingKind() == NestingKind.TOP_LEVEL || type.getModifiers().contains(Modifier.STATIC));
+
+        for (Element member : type.getEnclosedElements()) {
+            if (member.getModifiers().contains(Modifier.PRIVATE)) {
+                continue;
+            }
+            boolean isStatic = member.getModifiers().contains(Modifier.STATIC);
+            String receiver = isStatic ? typeName : "((" + typeName + ") target)";
+            if (member.getKind() == ElementKind.CONSTRUCTOR && constructible) {
+                ExecutableElement constructor = (ExecutableElement) member;
+                if (parametersAccessible(constructor, pkg)) {
+                    keys.add(key("<init>", constructor));
+                    cases.add("return new " + typeName + "(" + arguments(constructor) + ");");
+                }
+            } else if (member.getKind() == ElementKind.METHOD && isInjectedOrSupplied(member)) {
+                ExecutableElement method = (ExecutableElement) member;
+                if (parametersAccessible(method, pkg)) {
+                    keys.add(key(method.getSimpleName().toString(), method)
+                            + runtimeName(processingEnv.getTypeUtils().erasure(method.getReturnType()), false));
+                    String call = receiver + "." + method.getSimpleName() + "(" + arguments(method) + ")";
+                    cases.add(method.getReturnType().getKind() == TypeKind.VOID
+                            ? call + ";\n                return null;"
+                            : "return " + call + ";");
+                }
+            } else if (member.getKind() == ElementKind.FIELD && isInjectedOrSupplied(member)) {
+                VariableElement field = (VariableElement) member;
+                if (isAccessible(field.asType(), pkg)) {
+                    keys.add(field.getSimpleName() + ":"
+                            + runtimeName(processingEnv.getTypeUtils().erasure(field.asType()), false));
+                    String access = receiver + "." + field.getSimpleName();
+                    StringBuilder body = new StringBuilder("if (parameters == null) {\n")
+                            .append("                    return ").append(access).append(";\n")
+                            .append("                }\n                ");
+                    if (field.getModifiers().contains(Modifier.FINAL)) {
+                        body.append("throw new IllegalStateException(\"The field [")
+                                .append(field.getSimpleName()).append("] is final\");");
+                    } else {
+                        body.append(access).append(" = ").append(cast(field.asType(), "parameters[0]"))
+                                .append(";\n                return null;");
+                    }
+                    cases.add(body.toString());
+                }
+            }
+        }
+
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        String signature = signature(typeName, keys, cases);
+        TypeElement existing = processingEnv.getElementUtils().getTypeElement(name);
+        if (existing != null && signature.equals(signatureOf(existing))) {
+            return;
+        }
+
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String simpleName = packageName.isEmpty() ? name : name.substring(packageName.length() + 1);
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n")
+                .append("public final class ").append(simpleName)
+                .append(" implements " + GENERATED_ACCESSOR + " {\n\n")
+                .append("    public static final String SIGNATURE = \"").append(signature).append("\";\n\n")
+                .append("    private static final String[] MEMBERS = {\n");
+        for (int i = 0; i < keys.size(); i++) {
+            source.append("            \"").append(keys.get(i)).append(i < keys.size() - 1 ? "\",\n" : "\"\n");
+        }
+        source.append("    };\n\n")
+                .append("    @Override public String[] members() {\n")
+                .append("        return MEMBERS.clone();\n")
+                .append("    }\n\n")
+                .append("    @Override public Object invoke(int member, Object target, Object[] parameters) throws Throwable {\n")
+                .append("        switch (member) {\n");
+        for (int i = 0; i < cases.size(); i++) {
+            source.append("            case ").append(i).append(":\n")
+                    .append("                ").append(cases.get(i)).append('\n');
+        }
+        source.append("            default:\n")
+                .append("                throw new IllegalArgumentException(\"No member at index \" + member);\n")
+                .append("        }\n")
+                .append("    }\n\n")
+                .append("}\n");
+
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(name, type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source.toString());
+            }
+        } catch (FilerException e) {
+            if (existing == null) {
+                processingEnv.getMessager().printMessage(
+                        Diagnostic.Kind.WARNING, "Could not write the gunmetal accessor [" + name + "]: " + e, type);
+            } else {
+                processingEnv.getMessager().printMessage(
+                        Diagnostic.Kind.NOTE, "The gunmetal accessor [" + name + "] of a previous compile no longer"
+                                + " matches the members of the type, which are invoked reflectively where they"
+                                + " changed until a clean build", type);
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(
+                    Diagnostic.Kind.WARNING, "Could not write the gunmetal accessor [" + name + "]: " + e, type);
+        }
+    }
+
+    /**
+     * @return a digest of what the accessor of the type is generated from
+     */
+    private static String signature(String typeName, List<String> keys, List<String> cases) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(typeName.getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < keys.size(); i++) {
+            digest.update(("\n" + keys.get(i) + "\n" + cases.get(i)).getBytes(StandardCharsets.UTF_8));
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * @return the signature recorded by an accessor, or null if it has none
+     */
+    private static String signatureOf(TypeElement accessor) {
+        for (Element member : accessor.getEnclosedElements()) {
+            if (member.getKind() == ElementKind.FIELD && member.getSimpleName().contentEquals("SIGNATURE")) {
+                Object value = ((VariableElement) member).getConstantValue();
+                return value instanceof String ? (String) value : null;
+            }
+        }
+        return null;
+    }
+
+    private boolean isInjectedOrSupplied(Element member) {
+        return member.getAnnotationMirrors().stream().anyMatch(mirror -> {
+            String annotation = ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+            return annotation.equals(SUPPLIES) || annotation.equals(INJECT) || annotation.equals(JSR330_INJECT);
+        });
+    }
+
+    private String key(String name, ExecutableElement executable) {
+        StringBuilder key = new StringBuilder(name).append('(');
+        List<? extends VariableElement> parameters = executable.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) {
+                key.append(',');
+            }
+            key.append(runtimeName(processingEnv.getTypeUtils().erasure(parameters.get(i).asType()), false));
+        }
+        return key.append(')').toString();
+    }
+
+    /**
+     * @return the name of the erased type as returned by {@link Class#getName()}
+     */
+    private String runtimeName(TypeMirror type, boolean inArray) {
+        switch (type.getKind()) {
+            case ARRAY:
+                return "[" + runtimeName(((ArrayType) type).getComponentType(), true);
+            case DECLARED:
+                String name = processingEnv.getElementUtils()
+                        .getBinaryName((TypeElement) ((DeclaredType) type).asElement()).toString();
+                return inArray ? "L" + name + ";" : name;
+            case BOOLEAN:
+                return inArray ? "Z" : "boolean";
+            case BYTE:
+                return inArray ? "B" : "byte";
+            case SHORT:
+                return inArray ? "S" : "short";
+            case CHAR:
+                return inArray ? "C" : "char";
+            case INT:
+                return inArray ? "I" : "int";
+            case LONG:
+                return inArray ? "J" : "long";
+            case FLOAT:
+                return inArray ? "F" : "float";
+            case DOUBLE:
+                return inArray ? "D" : "double";
+            case VOID:
+                return "void";
+            default:
+                throw new IllegalArgumentException("Unexpected parameter type [" + type + "]");
+        }
+    }
+
+    private String arguments(ExecutableElement executable) {
+        StringBuilder arguments = new StringBuilder();
+        List<? extends VariableElement> parameters = executable.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) {
+                arguments.append(", ");
+            }
+            arguments.append(cast(parameters.get(i).asType(), "parameters[" + i + "]"));
+        }
+        return arguments.toString();
+    }
+
+    private String cast(TypeMirror type, String expression) {
+        return "(" + processingEnv.getTypeUtils().erasure(type) + ") " + expression;
+    }
+
+    private boolean parametersAccessible(ExecutableElement executable, PackageElement pkg) {
+        for (VariableElement parameter : executable.getParameters()) {
+            if (!isAccessible(parameter.asType(), pkg)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isAccessible(TypeMirror type, PackageElement pkg) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        switch (erased.getKind()) {
+            case ARRAY:
+                return isAccessible(((ArrayType) erased).getComponentType(), pkg);
+            case DECLARED:
+                TypeElement element = (TypeElement) ((DeclaredType) erased).asElement();
+                if (!isAccessible(element)) {
+                    return false;
+                }
+                if (processingEnv.getElementUtils().getPackageOf(element).equals(pkg)) {
+                    return true;
+                }
+                for (Element e = element; e instanceof TypeElement; e = e.getEnclosingElement()) {
+                    if (!e.getModifiers().contains(Modifier.PUBLIC)) {
+                        return false;
+                    }
+                }
+                return true;
+            default:
+                return erased.getKind().isPrimitive();
+        }
+    }
+
+    /**
+     * @return true if the type can be named from its own package
+     */
+    private boolean isAccessible(TypeElement type) {
+        for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            NestingKind nestingKind = ((TypeElement) e).getNestingKind();
+            if (e.getModifiers().contains(Modifier.PRIVATE)
+                    || nestingKind == NestingKind.LOCAL
+                    || nestingKind == NestingKind.ANONYMOUS) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}